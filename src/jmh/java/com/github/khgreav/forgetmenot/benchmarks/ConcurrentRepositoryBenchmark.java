@@ -0,0 +1,83 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Measures throughput of a {@link TaskRepository} shared by multiple threads, each changing and reading random tasks.
+ * <p>
+ * Scaling is measured by running the benchmark with different numbers of threads, e.g.:
+ * </p>
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.args="ConcurrentRepository -t 1"
+ * mvn -Pbenchmark verify -Djmh.args="ConcurrentRepository -t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentRepositoryBenchmark {
+
+    @Param({ "100000" })
+    public int size;
+
+    private Path dir;
+
+    private TaskRepository repo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        var storagePath = this.dir.resolve("tasks.json");
+        TaskGenerator.write(storagePath, TaskGenerator.generate(this.size, 42));
+        this.repo = new TaskRepository(storagePath, this.dir.resolve("sequence.txt"), StorageOptions.defaults());
+        this.repo.get(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        int id = ThreadLocalRandom.current().nextInt(this.size) + 1;
+        this.repo.update(id, task -> task.setStatus(task.getStatus() == TaskStatus.DONE ? TaskStatus.TODO : TaskStatus.DONE));
+    }
+
+    @Benchmark
+    public Task get() {
+        return this.repo.get(ThreadLocalRandom.current().nextInt(this.size) + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.daemon.DaemonClient;
+import com.github.khgreav.forgetmenot.daemon.TaskDaemon;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.services.CommandDispatcher;
+import com.github.khgreav.forgetmenot.services.TaskService;
+
+/**
+ * Compares executing a single {@code mark} command by a fresh service, which loads storage like a standalone
+ * invocation of the CLI, and by forwarding it to a daemon keeping the repository resident.
+ * <p>
+ * Every invocation toggles the status of one task between {@code todo} and {@code done}. JVM startup, which
+ * a standalone invocation pays on top of the measured time, is not included.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaemonBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    private Path dir;
+
+    private Path storagePath;
+
+    private Path sequencePath;
+
+    private Path socketPath;
+
+    private TaskDaemon daemon;
+
+    private Thread thread;
+
+    private PrintStream sink;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storagePath = this.dir.resolve("tasks.json");
+        this.sequencePath = this.dir.resolve("sequence.txt");
+        this.socketPath = this.dir.resolve("tasks.sock");
+        TaskGenerator.write(this.storagePath, TaskGenerator.generate(this.size, 42));
+        this.daemon = new TaskDaemon(
+            this.socketPath,
+            new TaskRepository(this.storagePath, this.sequencePath, StorageOptions.defaults())
+        );
+        this.thread = new Thread(() -> {
+            try {
+                this.daemon.serve();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        this.thread.start();
+        this.sink = new PrintStream(OutputStream.nullOutputStream());
+        this.next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        this.daemon.close();
+        this.thread.join();
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private String[] nextCommand() {
+        int id = this.next++ % this.size + 1;
+        return new String[] { "mark", Integer.toString(id), this.next / this.size % 2 == 0 ? "done" : "todo" };
+    }
+
+    @Benchmark
+    public void standalone() throws IOException {
+        var repo = new TaskRepository(this.storagePath, this.sequencePath, StorageOptions.defaults());
+        CommandDispatcher.execute(this.nextCommand(), new TaskService(repo, this.sink), this.sink);
+    }
+
+    @Benchmark
+    public int forwarded() throws IOException {
+        var channel = DaemonClient.connect(this.socketPath);
+        return DaemonClient.forward(channel, this.nextCommand(), this.sink, this.sink);
+    }
+}
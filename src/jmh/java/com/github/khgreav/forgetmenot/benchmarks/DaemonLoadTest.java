@@ -0,0 +1,159 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.github.khgreav.forgetmenot.daemon.DaemonClient;
+import com.github.khgreav.forgetmenot.daemon.TaskDaemon;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.utils.ThreadUtils;
+
+/**
+ * Load test of a {@link TaskDaemon} serving many concurrent clients.
+ * <p>
+ * For every number of clients, all clients connect at once and forward {@code mark} commands toggling the status
+ * of random tasks, until the total number of requests is reached. Throughput and request latency percentiles
+ * are reported. The store holds 1000 tasks and uses the journal, so saving does not dominate the measurement.
+ * </p>
+ * <p>
+ * Run through the benchmark profile, optionally passing the numbers of clients (10, 100 and 10000 by default):
+ * </p>
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.main=com.github.khgreav.forgetmenot.benchmarks.DaemonLoadTest -Djmh.args="10 100 10000"
+ * </pre>
+ */
+public final class DaemonLoadTest {
+
+    /**
+     * Number of tasks in the store.
+     */
+    private static final int TASKS = 1000;
+
+    /**
+     * Minimum number of requests sent in a round.
+     */
+    private static final int REQUESTS = 20_000;
+
+    private DaemonLoadTest() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] { 10, 100, 10_000 };
+        var dir = Files.createTempDirectory("fmn-load");
+        try {
+            var storagePath = dir.resolve("tasks.json");
+            TaskGenerator.write(storagePath, TaskGenerator.generate(TASKS, 42));
+            var repo = new TaskRepository(
+                storagePath,
+                dir.resolve("sequence.txt"),
+                StorageOptions.defaults().withJournal(true)
+            );
+            var socketPath = dir.resolve("tasks.sock");
+            var daemon = new TaskDaemon(socketPath, repo);
+            var server = new Thread(() -> {
+                try {
+                    daemon.serve();
+                } catch (IOException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            server.start();
+            System.out.println("Client threads: " + (ThreadUtils.hasVirtualThreads() ? "virtual" : "platform"));
+            try {
+                for (int clients : clientCounts) {
+                    run(socketPath, clients);
+                }
+            } finally {
+                daemon.close();
+                server.join();
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a round of requests sent by concurrent clients and prints its results.
+     * @param socketPath Path to the socket file of the daemon
+     * @param clients Number of concurrent clients
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    private static void run(Path socketPath, int clients) throws InterruptedException {
+        int perClient = Math.max(1, REQUESTS / clients);
+        var latencies = new long[clients * perClient];
+        var failures = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(clients);
+        var executor = ThreadUtils.newVirtualThreadExecutor("load-client", clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perClient; i++) {
+                        int id = (client * perClient + i) % TASKS + 1;
+                        var command = new String[] { "mark", Integer.toString(id), i % 2 == 0 ? "done" : "todo" };
+                        long begin = System.nanoTime();
+                        var channel = DaemonClient.connect(socketPath);
+                        int code = DaemonClient.forward(
+                            channel,
+                            command,
+                            OutputStream.nullOutputStream(),
+                            OutputStream.nullOutputStream()
+                        );
+                        latencies[client * perClient + i] = System.nanoTime() - begin;
+                        if (code != 0) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        Arrays.sort(latencies);
+        System.out.printf(
+            "%,7d clients %,8d requests %,10.0f req/s  p50 %,9.2f ms  p99 %,9.2f ms  failures %d%n",
+            clients,
+            latencies.length,
+            latencies.length * 1e9 / elapsed,
+            percentile(latencies, 0.50) / 1e6,
+            percentile(latencies, 0.99) / 1e6,
+            failures.get()
+        );
+    }
+
+    /**
+     * Returns a percentile of sorted values.
+     * @param sorted Values in ascending order
+     * @param fraction Percentile as a fraction
+     * @return Value at the percentile
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+    }
+}
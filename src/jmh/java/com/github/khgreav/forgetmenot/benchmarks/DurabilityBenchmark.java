@@ -0,0 +1,88 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.repositories.Durability;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Measures the latency of committing a single task update at each {@link Durability} level.
+ * <p>
+ * Every invocation updates one task of a store and persists the repository, which rewrites the storage file,
+ * or appends to the journal in journaled mode. Results depend heavily on the file system and the device,
+ * run the benchmark with {@code java.io.tmpdir} pointing at the file system holding the task store.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurabilityBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Param({ "none", "data", "data+dir" })
+    public String durability;
+
+    @Param({ "false", "true" })
+    public boolean journaled;
+
+    private Path dir;
+
+    private TaskRepository repo;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        var storagePath = this.dir.resolve("tasks.json");
+        TaskGenerator.write(storagePath, TaskGenerator.generate(this.size, 42));
+        var options = StorageOptions.defaults()
+            .withDurability(Durability.fromString(this.durability))
+            .withJournal(this.journaled)
+            .withCompactionThreshold(Long.MAX_VALUE);
+        this.repo = new TaskRepository(storagePath, this.dir.resolve("sequence.txt"), options);
+        this.next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void updateAndPersist() throws IOException {
+        var task = this.repo.get(this.next % this.size + 1);
+        task.setDesc("updated " + this.next++);
+        this.repo.update(task);
+        this.repo.persist();
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.repositories.Durability;
+import com.github.khgreav.forgetmenot.repositories.GroupCommitter;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Compares write throughput of concurrent writers which persist a shared journaled repository after every update,
+ * either directly or through a {@link GroupCommitter}. Data is forced to the device on every persist.
+ * <p>
+ * Scaling is measured by running the benchmark with different numbers of threads, e.g.:
+ * </p>
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.args="GroupCommit -t 8"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    @Param({ "direct", "group" })
+    public String mode;
+
+    private static final int SIZE = 1000;
+
+    private Path dir;
+
+    private TaskRepository repo;
+
+    private GroupCommitter committer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        var storagePath = this.dir.resolve("tasks.json");
+        TaskGenerator.write(storagePath, TaskGenerator.generate(SIZE, 42));
+        var options = StorageOptions.defaults()
+            .withJournal(true)
+            .withDurability(Durability.DATA);
+        this.repo = new TaskRepository(storagePath, this.dir.resolve("sequence.txt"), options);
+        this.committer = this.mode.equals("group") ? new GroupCommitter(this.repo) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (this.committer != null) {
+            this.committer.close();
+        }
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long updateAndCommit() throws IOException {
+        int id = ThreadLocalRandom.current().nextInt(SIZE) + 1;
+        this.repo.update(id, task -> task.setStatus(task.getStatus() == TaskStatus.DONE ? TaskStatus.TODO : TaskStatus.DONE));
+        return this.committer != null ? this.committer.commitAndWait() : this.repo.persist();
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Compares persisting a single task update in lazy mode by rewriting the storage file
+ * and by overwriting the changed record in place.
+ * <p>
+ * Every invocation toggles the status of one task between {@code todo} and {@code done}, so the changed record
+ * always fits into its place in the storage file.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InPlacePersistBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean inPlace;
+
+    private Path dir;
+
+    private TaskRepository repo;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        var storagePath = this.dir.resolve("tasks.json");
+        TaskGenerator.write(storagePath, TaskGenerator.generate(this.size, 42));
+        var options = StorageOptions.defaults()
+            .withLazy(true)
+            .withInPlace(this.inPlace);
+        this.repo = new TaskRepository(storagePath, this.dir.resolve("sequence.txt"), options);
+        this.next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long updateAndPersist() throws IOException {
+        var task = this.repo.get(this.next++ % this.size + 1);
+        task.setStatus(task.getStatus() == TaskStatus.DONE ? TaskStatus.TODO : TaskStatus.DONE);
+        this.repo.update(task);
+        return this.repo.persist();
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.khgreav.forgetmenot.utils.InstantCodec;
+
+/**
+ * Compares parsing and formatting of task timestamps by {@link InstantCodec} with the general {@code java.time} implementations.
+ * <p>
+ * Scores are timestamps per second. {@code formatterPerCall} builds a new formatter for every timestamp,
+ * as the serializer used to do.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(InstantCodecBenchmark.COUNT)
+public class InstantCodecBenchmark {
+
+    /**
+     * Number of timestamps processed per invocation.
+     */
+    static final int COUNT = 1000;
+
+    private static final DateTimeFormatter FORMATTER = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
+
+    private Instant[] instants;
+
+    private String[] texts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        long start = Instant.parse("2020-01-01T00:00:00Z").getEpochSecond();
+        this.instants = new Instant[COUNT];
+        this.texts = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            this.instants[i] = Instant.ofEpochSecond(start + random.nextInt(10 * 365 * 86400));
+            this.texts[i] = FORMATTER.format(this.instants[i]);
+        }
+    }
+
+    @Benchmark
+    public void parseInstant(Blackhole bh) {
+        for (String text : this.texts) {
+            bh.consume(Instant.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void parseCodec(Blackhole bh) {
+        for (String text : this.texts) {
+            bh.consume(InstantCodec.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void formatterPerCall(Blackhole bh) {
+        for (Instant instant : this.instants) {
+            bh.consume(new DateTimeFormatterBuilder().appendInstant(0).toFormatter().format(instant));
+        }
+    }
+
+    @Benchmark
+    public void formatterCached(Blackhole bh) {
+        for (Instant instant : this.instants) {
+            bh.consume(FORMATTER.format(instant));
+        }
+    }
+
+    @Benchmark
+    public void formatCodec(Blackhole bh) {
+        for (Instant instant : this.instants) {
+            bh.consume(InstantCodec.format(instant));
+        }
+    }
+}
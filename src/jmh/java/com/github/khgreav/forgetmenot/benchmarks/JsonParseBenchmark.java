@@ -0,0 +1,213 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+
+/**
+ * Compares deserializers of single task records.
+ * <p>
+ * Scores are records per second. Run with {@code -prof gc}, {@code gc.alloc.rate.norm} is then
+ * the number of bytes allocated per record. The map-based baseline is the String deserializer
+ * which collected properties into a {@code HashMap} before creating the task through {@link Task#fromJson(Map)}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(JsonParseBenchmark.RECORDS)
+public class JsonParseBenchmark {
+
+    /**
+     * Number of records parsed per invocation.
+     */
+    static final int RECORDS = 1000;
+
+    private String[] lines;
+
+    private ByteBuffer[] buffers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Task> tasks = TaskGenerator.generate(RECORDS, 42);
+        this.lines = new String[RECORDS];
+        this.buffers = new ByteBuffer[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            this.lines[i] = TaskSerializer.jsonSerialize(tasks.get(i));
+            this.buffers[i] = ByteBuffer.wrap(this.lines[i].getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void mapBased(Blackhole bh) {
+        for (String line : this.lines) {
+            bh.consume(MapBasedParser.deserializeObject(line));
+        }
+    }
+
+    @Benchmark
+    public void string(Blackhole bh) {
+        for (String line : this.lines) {
+            bh.consume(FlatJsonProcessor.deserializeObject(line));
+        }
+    }
+
+    @Benchmark
+    public void bytes(Blackhole bh) {
+        for (ByteBuffer buf : this.buffers) {
+            bh.consume(FlatJsonProcessor.deserializeObject(buf, 0, buf.limit()));
+        }
+    }
+
+    /**
+     * Previous implementation of {@link FlatJsonProcessor#deserializeObject(String)}, kept as the baseline.
+     */
+    static final class MapBasedParser {
+
+        private static final Set<String> REQUIRED_KEYS = Set.of(
+            "id",
+            "desc",
+            "status",
+            "createdAt",
+            "updatedAt"
+        );
+
+        private MapBasedParser() {
+            throw new AssertionError("Cannot instantiate.");
+        }
+
+        /**
+         * Deserializes a JSON string into a {@link Task} object.
+         * @param line JSON string representing a Task
+         * @return Deserialized Task object
+         * @throws IllegalArgumentException if the JSON string is invalid, contains invalid keys, or values
+         */
+        static Task deserializeObject(String line) {
+            int i = 0;
+            int n = line.length();
+
+            Map<String, Object> props = new HashMap<String, Object>();
+
+            while (i < n) {
+                // process one key per outer loop
+                while (i < n && line.charAt(i) != '"') {
+                    i++;
+                }
+                if (i >= n) {
+                    break;
+                }
+                // found start of key
+                i++;
+                int start = i;
+                // find end of key
+                while (i < n && line.charAt(i) != '"') {
+                    i++;
+                }
+                if (i >= n) {
+                    break;
+                }
+                var key = line.substring(start, i);
+                i++;
+                // check if key is valid
+                if (!REQUIRED_KEYS.contains(key)) {
+                    throw new IllegalArgumentException("Invalid record key: " + key);
+                }
+                // check for duplicate key
+                if (props.containsKey(key)) {
+                    throw new IllegalArgumentException("Duplicate record key detected: " + key);
+                }
+                // find k-v separator
+                while (i < n && (Character.isWhitespace(line.charAt(i)) || line.charAt(i) == ':')) {
+                    i++;
+                }
+                if (i >= n) {
+                    break;
+                }
+                String value;
+                if (line.charAt(i) == '"') {
+                    i++;
+                    start = i;
+                    while (i < n && line.charAt(i) != '"') {
+                        i++;
+                    }
+                    if (i >= n) {
+                        break;
+                    }
+                    value = line.substring(start, i);
+                } else {
+                    start = i;
+                    while (i < n && line.charAt(i) != ',' && line.charAt(i) != '}' && !Character.isWhitespace(n)) {
+                        if (!Character.isDigit(line.charAt(i))) {
+                            throw new IllegalArgumentException("ID property should contain a numeric value.");
+                        }
+                        i++;
+                    }
+                    if (i >= n) {
+                        break;
+                    }
+                    value = line.substring(start, i);
+                }
+                i++;
+                if (key.equals("id")) {
+                    try {
+                        var id = Integer.parseInt(value);
+                        if (id < 1) {
+                            throw new IllegalArgumentException("ID property value should be non-zero positive integere.");
+                        }
+                        props.put(key, id);
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException(
+                            "Invalid ID property value: " + e.getMessage(),
+                            e
+                        );
+                    }
+                } else if (key.equals("status")) {
+                    props.put(key, TaskStatus.fromString(value));
+                } else if (key.equals("createdAt") || key.equals("updatedAt")) {
+                    try {
+                        props.put(key, Instant.parse(value));
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException(
+                            "Invalid datetime property value format: " +  e.getMessage(),
+                            e
+                        );
+                    }
+                } else {
+                    props.put(key, value);
+                }
+            }
+            if (props.size() != 5) {
+                throw new IllegalArgumentException("Task record should contain 5 properties.");
+            }
+            return Task.fromJson(props);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.services.ListQuery;
+import com.github.khgreav.forgetmenot.services.TaskService;
+
+/**
+ * Measures listing a page of tasks by a fresh repository, as a single CLI invocation does, compared with
+ * listing the whole store.
+ * <p>
+ * The first page stops reading the store once the page is rendered, the top of a sorted listing keeps only
+ * the page in a bounded heap, while sorting the whole store orders every task. Listed tasks are rendered into
+ * a discarding stream.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListQueryBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    private static final int PAGE = 50;
+
+    private Path dir;
+
+    private Path storagePath;
+
+    private Path sequencePath;
+
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storagePath = TaskGenerator.writeStore(this.dir, this.size, 42);
+        this.sequencePath = this.dir.resolve("sequence.txt");
+        this.out = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Lists tasks by a fresh repository.
+     * @param query Listing query
+     * @throws IOException if an I/O error occurs
+     */
+    private void list(ListQuery query) throws IOException {
+        var repo = new TaskRepository(this.storagePath, this.sequencePath, StorageOptions.defaults());
+        new TaskService(repo, this.out).list(query);
+    }
+
+    @Benchmark
+    public void firstPage() throws IOException {
+        this.list(new ListQuery(null, null, 0, PAGE));
+    }
+
+    @Benchmark
+    public void all() throws IOException {
+        this.list(ListQuery.ALL);
+    }
+
+    @Benchmark
+    public void topUpdated() throws IOException {
+        this.list(new ListQuery(null, SortKey.UPDATED, 0, PAGE));
+    }
+
+    @Benchmark
+    public void sortedUpdated() throws IOException {
+        this.list(new ListQuery(null, SortKey.UPDATED, 0, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.TableRenderer;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+
+/**
+ * Compares printing the task table row by row through a stream set up like {@link System#out}, which is
+ * synchronized, autoflushing and buffers only 128 bytes, with rendering it in chunks by a {@link TableRenderer}
+ * writing to an unbuffered {@link FileOutputStream}.
+ * <p>
+ * Both write to {@code /dev/null}, so the cost of the output path is measured without the cost of a terminal.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListRenderBenchmark {
+
+    @Param({ "10000", "1000000" })
+    public int size;
+
+    private List<Task> tasks;
+
+    private FileOutputStream devNull;
+
+    private PrintStream systemOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.tasks = TaskGenerator.generate(this.size, 42);
+        this.devNull = new FileOutputStream("/dev/null");
+        this.systemOut = new PrintStream(new BufferedOutputStream(this.devNull, 128), true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.devNull.close();
+    }
+
+    @Benchmark
+    public void printStream() {
+        this.systemOut.println(TaskSerializer.buildTableHeader());
+        for (Task task : this.tasks) {
+            this.systemOut.println(TaskSerializer.cliSerialize(task));
+        }
+    }
+
+    @Benchmark
+    public void renderer() throws IOException {
+        try (var renderer = new TableRenderer(this.devNull)) {
+            renderer.renderHeader();
+            for (Task task : this.tasks) {
+                renderer.render(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.ConflictPolicy;
+import com.github.khgreav.forgetmenot.repositories.MappedTaskReader;
+import com.github.khgreav.forgetmenot.repositories.ParallelTaskReader;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Compares parsing an exported file sequentially by {@link MappedTaskReader} with parsing it in parallel
+ * by {@link ParallelTaskReader}, and measures a whole import into an empty repository.
+ * <p>
+ * The parallel reader only pays off with multiple cores, its parallelism follows the common fork-join pool.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelImportBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    private Path dir;
+
+    private Path exportPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.exportPath = this.dir.resolve("export.json");
+        TaskGenerator.write(this.exportPath, TaskGenerator.generate(this.size, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Task> sequentialParse() throws IOException {
+        var tasks = new ArrayList<Task>(this.size);
+        new MappedTaskReader().read(this.exportPath, tasks::add);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> parallelParse() throws IOException {
+        var tasks = new ArrayList<Task>(this.size);
+        new ParallelTaskReader().read(this.exportPath, tasks::add);
+        return tasks;
+    }
+
+    @Benchmark
+    public TaskRepository parallelImport() throws IOException {
+        var storeDir = Files.createTempDirectory(this.dir, "store");
+        var repo = new TaskRepository(
+            storeDir.resolve("tasks.json"),
+            storeDir.resolve("sequence.txt"),
+            StorageOptions.defaults()
+        );
+        new ParallelTaskReader().read(this.exportPath, task -> repo.importTask(task, ConflictPolicy.RENUMBER));
+        return repo;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.TaskFileWriter;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Compares writing the storage file from a single serialized String with streaming tasks through a {@link TaskFileWriter}.
+ * <p>
+ * Run with {@code -prof gc}, {@code gc.alloc.rate.norm} shows the memory allocated per written file.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    private Path dir;
+
+    private Path storagePath;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storagePath = this.dir.resolve("tasks.json");
+        this.tasks = TaskGenerator.generate(this.size, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeString() throws IOException {
+        Files.writeString(this.storagePath, FlatJsonProcessor.serialize(this.tasks));
+    }
+
+    @Benchmark
+    public void streaming() throws IOException {
+        try (var writer = new TaskFileWriter(this.storagePath)) {
+            for (Task task : this.tasks) {
+                writer.write(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.services.TaskService;
+
+/**
+ * Measures the phases of a CLI invocation against stores of several sizes with the default storage options:
+ * constructing a {@link TaskRepository} and loading the store, listing tasks by status, and the whole
+ * load, mutate and persist cycle of a command changing a single task.
+ * <p>
+ * Listed tasks are rendered by {@link TaskService} into a discarding stream, so rendering is measured without
+ * terminal output. Run with {@code -prof gc} to report allocation rates of every phase.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryCycleBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private Path dir;
+
+    private Path storagePath;
+
+    private Path sequencePath;
+
+    private TaskService service;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storagePath = TaskGenerator.writeStore(this.dir, this.size, 42);
+        this.sequencePath = this.dir.resolve("sequence.txt");
+        this.service = new TaskService(this.load(), new PrintStream(OutputStream.nullOutputStream()));
+        this.next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Constructs a repository and forces the store to be loaded.
+     * @return Loaded repository
+     * @throws IOException if an I/O error occurs
+     */
+    private TaskRepository load() throws IOException {
+        var repo = new TaskRepository(this.storagePath, this.sequencePath, StorageOptions.defaults());
+        repo.get(1);
+        return repo;
+    }
+
+    @Benchmark
+    public TaskRepository construct() throws IOException {
+        return this.load();
+    }
+
+    @Benchmark
+    public void listByStatus() {
+        this.service.listByStatus(TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public long cycle() throws IOException {
+        var repo = this.load();
+        this.next = this.next % this.size + 1;
+        repo.update(this.next, task -> task.setStatus(TaskStatus.DONE));
+        return repo.persist();
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.Formatter;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+
+/**
+ * Compares CLI and JSON serialization of tasks.
+ * <p>
+ * Scores are tasks per second. The {@code legacy} benchmarks build a formatter per task and use
+ * {@code String.format}, as the serializer used to do. The {@code string} benchmarks return a String per task,
+ * the {@code append} benchmarks append all tasks into a single reused StringBuilder.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(SerializerBenchmark.COUNT)
+public class SerializerBenchmark {
+
+    /**
+     * Number of tasks serialized per invocation.
+     */
+    static final int COUNT = 1000;
+
+    private List<Task> tasks;
+
+    private StringBuilder sb;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.tasks = TaskGenerator.generate(COUNT, 42);
+        this.sb = new StringBuilder(COUNT * TaskSerializer.CLI_LEN);
+    }
+
+    @Benchmark
+    public void cliLegacy(Blackhole bh) {
+        for (Task task : this.tasks) {
+            bh.consume(LegacySerializer.cliSerialize(task));
+        }
+    }
+
+    @Benchmark
+    public void cliString(Blackhole bh) {
+        for (Task task : this.tasks) {
+            bh.consume(TaskSerializer.cliSerialize(task));
+        }
+    }
+
+    @Benchmark
+    public StringBuilder cliAppend() {
+        this.sb.setLength(0);
+        for (Task task : this.tasks) {
+            TaskSerializer.cliSerialize(task, this.sb).append('\n');
+        }
+        return this.sb;
+    }
+
+    @Benchmark
+    public void jsonLegacy(Blackhole bh) {
+        for (Task task : this.tasks) {
+            bh.consume(LegacySerializer.jsonSerialize(task));
+        }
+    }
+
+    @Benchmark
+    public void jsonString(Blackhole bh) {
+        for (Task task : this.tasks) {
+            bh.consume(TaskSerializer.jsonSerialize(task));
+        }
+    }
+
+    @Benchmark
+    public StringBuilder jsonAppend() {
+        this.sb.setLength(0);
+        for (Task task : this.tasks) {
+            TaskSerializer.jsonSerialize(task, this.sb).append('\n');
+        }
+        return this.sb;
+    }
+
+    /**
+     * Previous implementation of {@link TaskSerializer}, kept as the baseline.
+     */
+    static final class LegacySerializer {
+
+        private LegacySerializer() {
+            throw new AssertionError("Cannot instantiate.");
+        }
+
+        static String cliSerialize(Task task) {
+            DateTimeFormatter fmt = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
+            return new StringBuilder()
+                .append(Formatter.padRight(String.valueOf(task.getId()), TaskSerializer.ID_LEN))
+                .append(" | ")
+                .append(Formatter.padRight(task.getDesc(), TaskSerializer.DESC_LEN))
+                .append(" | ")
+                .append(Formatter.padRight(task.getStatus().toString(), TaskSerializer.STATUS_LEN))
+                .append(" | ")
+                .append(Formatter.padRight(fmt.format(task.getCreatedAt()), TaskSerializer.DATETIME_LEN))
+                .append(" | ")
+                .append(Formatter.padRight(fmt.format(task.getUpdatedAt()), TaskSerializer.DATETIME_LEN))
+                .toString();
+        }
+
+        static String jsonSerialize(Task task) {
+            DateTimeFormatter fmt = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
+            return String.format(
+                "{\"id\":%d,\"desc\":\"%s\",\"status\":\"%s\",\"createdAt\":\"%s\",\"updatedAt\":\"%s\"}",
+                task.getId(),
+                task.getDesc(),
+                task.getStatus().toString(),
+                fmt.format(task.getCreatedAt()),
+                fmt.format(task.getUpdatedAt())
+            );
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.StatusIndex;
+
+/**
+ * Compares filtering tasks by status by scanning all tasks with looking them up through a {@link StatusIndex}.
+ * <p>
+ * The queried status is {@link TaskStatus#IN_PROGRESS}. With the skewed distribution, 1% of tasks are in progress,
+ * 9% are to do and 90% are done, with the uniform distribution every status is equally likely.
+ * All tasks share their description and timestamps to keep the heap of large stores manageable.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StatusIndexBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "skewed", "uniform" })
+    public String distribution;
+
+    private Map<Integer, Task> tasks;
+
+    private StatusIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        var instant = Instant.parse("2024-01-01T00:00:00Z");
+        var statuses = TaskStatus.values();
+        boolean skewed = "skewed".equals(this.distribution);
+        this.tasks = new LinkedHashMap<>(this.size * 2);
+        this.index = new StatusIndex();
+        for (int id = 1; id <= this.size; id++) {
+            TaskStatus status;
+            if (skewed) {
+                int roll = random.nextInt(100);
+                status = roll == 0 ? TaskStatus.IN_PROGRESS : roll < 10 ? TaskStatus.TODO : TaskStatus.DONE;
+            } else {
+                status = statuses[random.nextInt(statuses.length)];
+            }
+            this.tasks.put(id, new Task(id, "benchmark task", status, instant, instant));
+            this.index.put(id, status);
+        }
+    }
+
+    @Benchmark
+    public void scan(Blackhole bh) {
+        for (Task task : this.tasks.values()) {
+            if (task.getStatus() == TaskStatus.IN_PROGRESS) {
+                bh.consume(task);
+            }
+        }
+    }
+
+    @Benchmark
+    public void index(Blackhole bh) {
+        var status = TaskStatus.IN_PROGRESS;
+        for (int id = this.index.next(status, 0); id >= 0; id = this.index.next(status, id + 1)) {
+            bh.consume(this.tasks.get(id));
+        }
+    }
+}
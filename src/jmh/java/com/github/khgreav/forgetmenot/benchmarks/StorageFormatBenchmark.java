@@ -0,0 +1,87 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.StorageFormat;
+
+/**
+ * Compares loading and saving the storage file in each {@link StorageFormat}.
+ * <p>
+ * Sizes of the storage files are reported by {@link StorageFormatSize}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageFormatBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    @Param({ "json", "binary" })
+    public String format;
+
+    private Path dir;
+
+    private Path loadPath;
+
+    private Path savePath;
+
+    private StorageFormat storageFormat;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storageFormat = StorageFormat.fromString(this.format);
+        this.loadPath = this.dir.resolve("load" + this.storageFormat.getExtension());
+        this.savePath = this.dir.resolve("save" + this.storageFormat.getExtension());
+        this.tasks = TaskGenerator.generate(this.size, 42);
+        StorageFormatSize.write(this.storageFormat, this.loadPath, this.tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void load(Blackhole bh) throws IOException {
+        this.storageFormat.newReader().read(this.loadPath, bh::consume);
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        return StorageFormatSize.write(this.storageFormat, this.savePath, this.tasks);
+    }
+}
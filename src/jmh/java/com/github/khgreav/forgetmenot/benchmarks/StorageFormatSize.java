@@ -0,0 +1,74 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.StorageFormat;
+
+/**
+ * Reports the size of the storage file in each {@link StorageFormat}.
+ * <p>
+ * Run through the benchmark profile, optionally passing the number of tasks (100000 by default):
+ * </p>
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.main=com.github.khgreav.forgetmenot.benchmarks.StorageFormatSize -Djmh.args=100000
+ * </pre>
+ */
+public final class StorageFormatSize {
+
+    private StorageFormatSize() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Task> tasks = TaskGenerator.generate(count, 42);
+        var dir = Files.createTempDirectory("fmn-bench");
+        try {
+            long jsonSize = 0;
+            for (StorageFormat format : StorageFormat.values()) {
+                long size = write(format, dir.resolve("tasks" + format.getExtension()), tasks);
+                if (format == StorageFormat.JSON) {
+                    jsonSize = size;
+                }
+                System.out.printf(
+                    "%-8s %,14d bytes for %,d tasks (%.1f bytes per task, %.1f%% of json)%n",
+                    format,
+                    size,
+                    count,
+                    (double) size / count,
+                    100.0 * size / jsonSize
+                );
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes tasks into a storage file.
+     * @param format Format of the storage file
+     * @param path Path to the storage file
+     * @param tasks Tasks to write
+     * @return Size of the storage file in bytes
+     * @throws IOException if an I/O error occurs
+     */
+    static long write(StorageFormat format, Path path, List<Task> tasks) throws IOException {
+        var writer = format.openWriter(path, false);
+        try (writer) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+        return writer.position();
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.MappedTaskReader;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Compares loading a storage file line by line through a {@link BufferedReader}
+ * with parsing it from memory-mapped bytes by {@link MappedTaskReader}.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation rates of both paths.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageLoadBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    private Path dir;
+
+    private Path storagePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        this.storagePath = this.dir.resolve("tasks.json");
+        TaskGenerator.write(this.storagePath, TaskGenerator.generate(this.size, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Task> bufferedReader() throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(this.storagePath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("[") || line.startsWith("]")) {
+                    continue;
+                }
+                var task = FlatJsonProcessor.deserializeObject(line);
+                tasks.put(task.getId(), task);
+            }
+        }
+        return tasks;
+    }
+
+    @Benchmark
+    public Map<Integer, Task> mapped() throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        new MappedTaskReader().read(this.storagePath, task -> tasks.put(task.getId(), task));
+        return tasks;
+    }
+}
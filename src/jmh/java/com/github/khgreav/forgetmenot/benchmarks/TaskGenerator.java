@@ -0,0 +1,92 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Generator of synthetic task stores for benchmarks.
+ */
+public final class TaskGenerator {
+
+    /**
+     * Creation timestamp of the first generated task.
+     */
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+    private TaskGenerator() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Generates tasks with sequential IDs, random descriptions and uniformly distributed statuses.
+     * @param count Number of tasks
+     * @param seed Random seed
+     * @return Generated tasks
+     */
+    public static List<Task> generate(int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var statuses = TaskStatus.values();
+        var tasks = new ArrayList<Task>(count);
+        for (int id = 1; id <= count; id++) {
+            long created = EPOCH + id * 60L;
+            tasks.add(
+                new Task(
+                    id,
+                    description(random),
+                    statuses[random.nextInt(statuses.length)],
+                    Instant.ofEpochSecond(created),
+                    Instant.ofEpochSecond(created + random.nextInt(86400))
+                )
+            );
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes tasks into a storage file in the format produced by the application.
+     * @param path Path to the storage file
+     * @param tasks Tasks to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(Path path, List<Task> tasks) throws IOException {
+        Files.writeString(path, FlatJsonProcessor.serialize(tasks));
+    }
+
+    /**
+     * Writes a complete store of generated tasks, a storage file and a sequence file, as left by the application.
+     * @param dir Directory of the store
+     * @param count Number of tasks
+     * @param seed Random seed
+     * @return Path to the storage file
+     * @throws IOException if an I/O error occurs
+     */
+    public static Path writeStore(Path dir, int count, long seed) throws IOException {
+        var storagePath = dir.resolve("tasks.json");
+        write(storagePath, generate(count, seed));
+        Files.writeString(dir.resolve("sequence.txt"), Integer.toString(count + 1));
+        return storagePath;
+    }
+
+    /**
+     * Generates a random description of 10 to 60 lowercase words.
+     * @param random Random generator
+     * @return Description
+     */
+    private static String description(SplittableRandom random) {
+        var sb = new StringBuilder();
+        int length = 10 + random.nextInt(51);
+        for (int i = 0; i < length; i++) {
+            sb.append(i % 6 == 5 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
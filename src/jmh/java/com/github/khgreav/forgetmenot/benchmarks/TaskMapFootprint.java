@@ -0,0 +1,78 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.TaskMap;
+
+/**
+ * Measures the heap retained by a {@link TaskMap} compared to a {@code LinkedHashMap<Integer, Task>}.
+ * <p>
+ * Only the maps themselves are measured, the tasks are allocated beforehand and shared by both maps.
+ * Run through the benchmark profile, optionally passing the number of tasks (one million by default):
+ * </p>
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.main=com.github.khgreav.forgetmenot.benchmarks.TaskMapFootprint -Djmh.args=1000000
+ * </pre>
+ */
+public final class TaskMapFootprint {
+
+    private TaskMapFootprint() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Task> tasks = TaskGenerator.generate(count, 42);
+
+        long base = usedHeap();
+        Map<Integer, Task> boxed = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            boxed.put(task.getId(), task);
+        }
+        long boxedBytes = usedHeap() - base;
+        report("LinkedHashMap<Integer, Task>", boxedBytes, boxed.size());
+        boxed = null;
+
+        base = usedHeap();
+        var primitive = new TaskMap();
+        for (Task task : tasks) {
+            primitive.put(task);
+        }
+        long primitiveBytes = usedHeap() - base;
+        report("TaskMap", primitiveBytes, primitive.size());
+        System.out.printf("Reduction: %.1f%%%n", 100.0 * (boxedBytes - primitiveBytes) / boxedBytes);
+    }
+
+    /**
+     * Prints the heap retained by a map.
+     * @param name Name of the map
+     * @param bytes Retained bytes
+     * @param size Number of tasks in the map
+     */
+    private static void report(String name, long bytes, int size) {
+        System.out.printf(
+            "%-30s %,12d bytes for %,d tasks (%.1f bytes per task, %.1f MiB per million tasks)%n",
+            name,
+            bytes,
+            size,
+            (double) bytes / size,
+            bytes * 1_000_000.0 / size / (1 << 20)
+        );
+    }
+
+    /**
+     * Returns the used heap after collecting garbage.
+     * @return Used heap in bytes
+     */
+    private static long usedHeap() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.khgreav.forgetmenot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+/**
+ * Compares looking up the tasks updated within the last day of a store in the time index of a loaded repository,
+ * as the daemon does for every query after the first, with scanning all tasks and sorting the matching ones.
+ * <p>
+ * Generated tasks are created a minute apart and updated within a day of their creation, so the range holds
+ * about two thousand tasks regardless of the store size.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeRangeBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    private Path dir;
+
+    private TaskRepository repo;
+
+    private Instant since;
+
+    private Instant until;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("fmn-bench");
+        var storagePath = TaskGenerator.writeStore(this.dir, this.size, 42);
+        this.repo = new TaskRepository(storagePath, this.dir.resolve("sequence.txt"), StorageOptions.defaults());
+        this.until = Instant.parse("2024-01-01T00:00:00Z").plusSeconds(this.size * 60L);
+        this.since = this.until.minus(Duration.ofDays(1));
+        this.indexed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Task> indexed() {
+        var result = new ArrayList<Task>();
+        this.repo.forEachBetween(SortKey.UPDATED, this.since, this.until, result::add);
+        return result;
+    }
+
+    @Benchmark
+    public List<Task> scanned() {
+        var result = new ArrayList<Task>();
+        this.repo.forEach(task -> {
+            var updatedAt = task.getUpdatedAt();
+            if (!updatedAt.isBefore(this.since) && updatedAt.isBefore(this.until)) {
+                result.add(task);
+            }
+        });
+        result.sort(SortKey.UPDATED.comparator());
+        return result;
+    }
+}
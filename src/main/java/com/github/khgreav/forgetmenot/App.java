@@ -1,9 +1,22 @@
 package com.github.khgreav.forgetmenot;
 
-import java.lang.IllegalArgumentException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
-import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.daemon.DaemonClient;
+import com.github.khgreav.forgetmenot.daemon.TaskDaemon;
+import com.github.khgreav.forgetmenot.metrics.CommandStats;
+import com.github.khgreav.forgetmenot.repositories.ConflictPolicy;
+import com.github.khgreav.forgetmenot.repositories.StorageConverter;
+import com.github.khgreav.forgetmenot.repositories.StorageFormat;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.services.BatchRunner;
+import com.github.khgreav.forgetmenot.services.CommandDispatcher;
 import com.github.khgreav.forgetmenot.services.TaskService;
 import com.github.khgreav.forgetmenot.utils.CliArgUtils;
 
@@ -15,6 +28,21 @@ import com.github.khgreav.forgetmenot.utils.CliArgUtils;
  */
 public class App {
 
+    /**
+     * Name of the storage file without its extension, which depends on the storage format.
+     */
+    private static final String STORAGE_NAME = "tasks";
+
+    /**
+     * Name of the socket file of the daemon.
+     */
+    private static final String SOCKET_NAME = "tasks.sock";
+
+    /**
+     * System property disabling forwarding of task commands to a running daemon when set to {@code false}.
+     */
+    public static final String DAEMON_PROPERTY = "forgetmenot.daemon";
+
     /**
      * Constructs the help message for the application.
      * @return Help message string
@@ -22,80 +50,161 @@ public class App {
     public static String constructHelpMessage() {
         StringBuilder sb = new StringBuilder();
         sb.append("Forget Me Not - Task Tracker\n\n")
-            .append("Usage: forget-me-not <command> [<arguments>...]\n\n")
+            .append("Usage: forget-me-not [<options>] <command> [<arguments>...]\n\n")
+            .append("Options:\n")
+            .append("  --verbose                    Report bytes written to storage and time spent saving\n")
+            .append("  --stats                      Report time spent in every phase, records and bytes read and written\n")
+            .append("  --stats=json                 Report the same as --stats as a single JSON line\n\n")
             .append("Commands:\n")
             .append("  help                         Show help message\n")
             .append("  list [<status>]              Lists task, optionally filtered by status (todo / in-progress / done)\n")
+            .append("       [--sort <key>]          Sorts tasks by ID, most recently created or updated first (id / created / updated)\n")
+            .append("       [--offset <N>]          Skips the first N tasks\n")
+            .append("       [--limit <N>]           Lists at most N tasks\n")
+            .append("       [--since <time>]        Lists tasks updated, or created when sorted so, at or after time\n")
+            .append("       [--until <time>]        Lists tasks updated, or created when sorted so, before time\n")
+            .append("                               (2025-12-26T18:00:00Z, 2025-12-26, or 30m / 24h / 7d ago)\n")
             .append("  add <description>            Creates a new task\n")
             .append("  update <ID> <description>    Change description of task\n")
             .append("  mark <ID> <status>           Change task status (in-progress / done)\n")
-            .append("  delete <ID>                  Delete task\n");
+            .append("  delete <ID>                  Delete task\n")
+            .append("  convert <format>             Convert task storage into another format (json / binary)\n")
+            .append("  batch [<file>] [<N>]         Execute commands read from file or standard input (-), one per line,\n")
+            .append("                               saving every N commands or once at the end\n")
+            .append("  import <file> [<policy>]     Import tasks exported from another store, tasks with IDs already taken\n")
+            .append("                               are renumbered, skipped or replace existing ones (renumber / skip / replace)\n")
+            .append("  export <file>                Export all tasks into file\n")
+            .append("  serve                        Run daemon serving task commands of other invocations\n")
+            .append("  stop                         Stop running daemon\n");
         return sb.toString();
     }
 
+    /**
+     * Checks that no daemon is running, as it would overwrite changes made by this process.
+     * @param socketPath Path to the socket file of the daemon
+     * @param action Description of the action which requires the daemon to be stopped
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if a daemon is running
+     */
+    private static void requireNoDaemon(Path socketPath, String action) throws IOException {
+        try (var live = DaemonClient.connect(socketPath)) {
+            if (live != null) {
+                throw new IllegalStateException("Daemon is running, stop it before " + action + '.');
+            }
+        }
+    }
+
     public static void main(String[] args) {
-        if (args.length < 1 || args.length > 3) {
+        var command = CommandDispatcher.stripOptions(args);
+        if (command.length < 1 || command.length > CommandDispatcher.MAX_ARGS) {
             System.err.println(constructHelpMessage());
             System.exit(1);
         }
 
         try {
             var current = Path.of("").toAbsolutePath();
-            TaskService service = new TaskService(
-                current.resolve("tasks.json"),
-                current.resolve("sequence.txt")
-            );
-            String cmd = args[0];
+            // Relative path keeps the socket address within the platform limit of about 100 bytes
+            var socketPath = Path.of(SOCKET_NAME);
+            if (CommandDispatcher.isTaskCommand(args) && !"false".equals(System.getProperty(DAEMON_PROPERTY))) {
+                var channel = DaemonClient.connect(socketPath);
+                if (channel != null) {
+                    System.exit(DaemonClient.forward(channel, args, System.out, System.err));
+                }
+            }
+            var options = StorageOptions.fromProperties(System.getProperties());
+            var storagePath = current.resolve(STORAGE_NAME + options.getFormat().getExtension());
+            var sequencePath = current.resolve("sequence.txt");
+            String cmd = command[0];
 
             switch (cmd) {
                 case "help" -> {
                     System.out.print(constructHelpMessage());
                     return;
                 }
-                case "list" -> {
-                    CliArgUtils.validateArgCount(args.length, 1, 2);
-                    if (args.length == 1) {
-                        service.listAll();
-                    } else {
-                        var status = TaskStatus.fromString(args[1]);
-                        service.listByStatus(status);
+                case "convert" -> {
+                    CliArgUtils.validateArgCount(command.length, 2, 2);
+                    var format = StorageFormat.fromString(command[1]);
+                    var source = format == StorageFormat.BINARY ? StorageFormat.JSON : StorageFormat.BINARY;
+                    var target = current.resolve(STORAGE_NAME + format.getExtension());
+                    long size = StorageConverter.convert(
+                        current.resolve(STORAGE_NAME + source.getExtension()),
+                        source,
+                        target,
+                        format,
+                        options.getDurability()
+                    );
+                    System.out.println("Tasks converted into " + target.getFileName() + " (" + size + " bytes).");
+                }
+                case "batch" -> {
+                    CliArgUtils.validateArgCount(command.length, 1, 3);
+                    requireNoDaemon(socketPath, "running a batch");
+                    int saveInterval = command.length == 3 ? CliArgUtils.parseCount(command[2]) : 0;
+                    var source = command.length > 1 && !command[1].equals("-")
+                        ? Files.newBufferedReader(Path.of(command[1]))
+                        : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                    BatchRunner.Summary summary;
+                    try (source) {
+                        summary = BatchRunner.run(
+                            source,
+                            new TaskService(storagePath, sequencePath, options),
+                            saveInterval,
+                            System.err
+                        );
+                    }
+                    System.err.println(summary);
+                    if (summary.getFailed() > 0) {
+                        System.exit(1);
                     }
                 }
-                case "add" -> {
-                    CliArgUtils.validateArgCount(args.length, 2, 2);
-                    service.addTask(args[1]);
+                case "import" -> {
+                    CliArgUtils.validateArgCount(command.length, 2, 3);
+                    requireNoDaemon(socketPath, "importing tasks");
+                    var policy = command.length == 3 ? ConflictPolicy.fromString(command[2]) : ConflictPolicy.RENUMBER;
+                    var service = new TaskService(storagePath, sequencePath, options);
+                    service.importTasks(Path.of(command[1]), policy);
+                    service.save();
                 }
-                case "update" -> {
-                    CliArgUtils.validateArgCount(args.length, 3, 3);
-                    service.update(
-                        CliArgUtils.parseId(args[1]),
-                        args[2]
-                    );
+                case "export" -> {
+                    CliArgUtils.validateArgCount(command.length, 2, 2);
+                    requireNoDaemon(socketPath, "exporting tasks");
+                    new TaskService(storagePath, sequencePath, options).exportTasks(Path.of(command[1]));
                 }
-                case "mark" -> {
-                    CliArgUtils.validateArgCount(args.length, 3, 3);
-                    service.update(
-                        CliArgUtils.parseId(args[1]),
-                        TaskStatus.fromString(args[2])
-                    );
+                case "serve" -> {
+                    CliArgUtils.validateArgCount(command.length, 1, 1);
+                    var daemon = new TaskDaemon(socketPath, new TaskRepository(storagePath, sequencePath, options));
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            daemon.close();
+                        } catch (IOException e) {
+                            System.err.println(e.getMessage());
+                        }
+                    }));
+                    System.out.println("Listening on " + SOCKET_NAME + '.');
+                    daemon.serve();
+                }
+                case TaskDaemon.STOP_COMMAND -> {
+                    CliArgUtils.validateArgCount(command.length, 1, 1);
+                    var channel = DaemonClient.connect(socketPath);
+                    if (channel == null) {
+                        throw new IllegalStateException("Daemon is not running.");
+                    }
+                    System.exit(DaemonClient.forward(channel, command, System.out, System.err));
                 }
-                case "delete" -> {
-                    CliArgUtils.validateArgCount(args.length, 2, 2);
-                    service.delete(CliArgUtils.parseId(args[1]));
+                default -> {
+                    if (CommandDispatcher.isStats(args) || CommandStats.isRecorded()) {
+                        CommandStats.begin().recordStartup();
+                    }
+                    CommandDispatcher.execute(
+                        args,
+                        new TaskService(storagePath, sequencePath, options),
+                        System.err
+                    );
                 }
-                default -> throw new IllegalArgumentException(
-                    new StringBuilder()
-                        .append("Invalid command: ")
-                        .append(cmd)
-                        .append('.')
-                        .toString()
-                );
             }
-            service.save();
         } catch (Exception e) {
             System.err.println(e.getMessage());
             System.exit(1);
         }
         System.exit(0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.github.khgreav.forgetmenot.daemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Utility class forwarding commands of the CLI to a running {@link TaskDaemon}.
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Connects to the daemon listening on a socket.
+     * @param socketPath Path to the socket file
+     * @return Channel connected to the daemon, null if no daemon is listening on the socket
+     * @throws IOException if an I/O error occurs
+     */
+    public static SocketChannel connect(Path socketPath) throws IOException {
+        if (!Files.exists(socketPath)) {
+            return null;
+        }
+        var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            return channel;
+        } catch (IOException e) {
+            // Socket file left behind by a daemon which did not shut down cleanly
+            channel.close();
+            return null;
+        }
+    }
+
+    /**
+     * Forwards a command to the daemon and relays its output.
+     * @param channel Channel connected to the daemon, closed once the command completes
+     * @param args Command-line arguments
+     * @param out Standard output
+     * @param err Standard error
+     * @return Exit code of the command
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the daemon response is invalid
+     */
+    public static int forward(SocketChannel channel, String[] args, OutputStream out, OutputStream err) throws IOException {
+        try (channel) {
+            DaemonProtocol.writeRequest(channel, args);
+            return DaemonProtocol.readResponse(channel, out, err);
+        }
+    }
+}
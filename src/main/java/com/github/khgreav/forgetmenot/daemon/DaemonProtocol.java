@@ -0,0 +1,312 @@
+package com.github.khgreav.forgetmenot.daemon;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility class implementing the protocol between the CLI and a {@link TaskDaemon}.
+ * <p>
+ * A connection carries a single command. The client sends a request holding the number of command-line arguments
+ * followed by the arguments, each as its length and its UTF-8 bytes. The daemon answers with a sequence of frames,
+ * each holding a frame type, the payload length and the payload. Frames of the {@link #OUT} and {@link #ERR} types
+ * carry standard output and standard error of the command, the final frame of the {@link #EXIT} type carries
+ * the exit code. All integers are 32-bit big-endian.
+ * </p>
+ */
+final class DaemonProtocol {
+
+    /**
+     * Frame type of standard output.
+     */
+    static final byte OUT = 1;
+
+    /**
+     * Frame type of standard error.
+     */
+    static final byte ERR = 2;
+
+    /**
+     * Frame type of the exit code, terminating the response.
+     */
+    static final byte EXIT = 3;
+
+    /**
+     * Maximum number of command-line arguments in a request.
+     */
+    private static final int MAX_ARGS = 16;
+
+    /**
+     * Maximum length of a command-line argument or frame payload in bytes.
+     */
+    private static final int MAX_LENGTH = 1 << 24;
+
+    /**
+     * Size of the frame header in bytes.
+     */
+    private static final int FRAME_HEADER_SIZE = 5;
+
+    private DaemonProtocol() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Sends a request.
+     * @param channel Channel connected to the daemon
+     * @param args Command-line arguments
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeRequest(SocketChannel channel, String[] args) throws IOException {
+        var encoded = new byte[args.length][];
+        int size = 4;
+        for (int i = 0; i < args.length; i++) {
+            encoded[i] = args[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + encoded[i].length;
+        }
+        var buf = ByteBuffer.allocate(size).putInt(args.length);
+        for (byte[] arg : encoded) {
+            buf.putInt(arg.length).put(arg);
+        }
+        writeFully(channel, buf.flip());
+    }
+
+    /**
+     * Receives a request.
+     * <p>
+     * The request is read without blocking, so that a client which connects and does not send a complete request
+     * in time cannot hold its connection open. The channel is switched back to blocking mode once the request is read.
+     * </p>
+     * @param channel Channel connected to the client
+     * @param timeout Time to receive the whole request in milliseconds
+     * @return Command-line arguments
+     * @throws IOException if an I/O error occurs or the connection is closed before the request is complete
+     * @throws SocketTimeoutException if the request is not complete in time
+     * @throws IllegalArgumentException if the request exceeds the protocol limits
+     */
+    static String[] readRequest(SocketChannel channel, long timeout) throws IOException {
+        long deadline = System.nanoTime() + timeout * 1_000_000L;
+        String[] args;
+        channel.configureBlocking(false);
+        try (var selector = Selector.open()) {
+            channel.register(selector, SelectionKey.OP_READ);
+            int count = readLength(channel, MAX_ARGS, selector, deadline);
+            args = new String[count];
+            for (int i = 0; i < count; i++) {
+                var buf = ByteBuffer.allocate(readLength(channel, MAX_LENGTH, selector, deadline));
+                readFully(channel, buf, selector, deadline);
+                args[i] = new String(buf.array(), 0, buf.limit(), StandardCharsets.UTF_8);
+            }
+        }
+        // Closing the selector deregisters the channel, which may then block again
+        channel.configureBlocking(true);
+        return args;
+    }
+
+    /**
+     * Sends a frame.
+     * @param channel Channel connected to the client
+     * @param type Frame type
+     * @param payload Payload bytes
+     * @param offset Offset of the payload in the array
+     * @param length Length of the payload
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeFrame(SocketChannel channel, byte type, byte[] payload, int offset, int length) throws IOException {
+        var header = ByteBuffer.allocate(FRAME_HEADER_SIZE).put(type).putInt(length).flip();
+        writeFully(channel, header);
+        writeFully(channel, ByteBuffer.wrap(payload, offset, length));
+    }
+
+    /**
+     * Sends the exit code, terminating the response.
+     * @param channel Channel connected to the client
+     * @param code Exit code
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeExit(SocketChannel channel, int code) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(FRAME_HEADER_SIZE + 4).put(EXIT).putInt(4).putInt(code).flip());
+    }
+
+    /**
+     * Receives the response and relays standard output and standard error to the given streams.
+     * @param channel Channel connected to the daemon
+     * @param out Standard output
+     * @param err Standard error
+     * @return Exit code
+     * @throws IOException if an I/O error occurs or the connection is closed before the response is complete
+     * @throws IllegalArgumentException if the response is invalid
+     */
+    static int readResponse(SocketChannel channel, OutputStream out, OutputStream err) throws IOException {
+        var header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        var payload = ByteBuffer.allocate(1 << 16);
+        while (true) {
+            readFully(channel, header.clear());
+            byte type = header.get(0);
+            int length = header.getInt(1);
+            if (length < 0 || length > MAX_LENGTH) {
+                throw new IllegalArgumentException("Invalid daemon response frame length: " + length);
+            }
+            if (payload.capacity() < length) {
+                payload = ByteBuffer.allocate(length);
+            }
+            readFully(channel, payload.clear().limit(length));
+            switch (type) {
+                case OUT -> out.write(payload.array(), 0, length);
+                case ERR -> err.write(payload.array(), 0, length);
+                case EXIT -> {
+                    out.flush();
+                    err.flush();
+                    return payload.getInt(0);
+                }
+                default -> throw new IllegalArgumentException("Invalid daemon response frame type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Reads a length or count and checks it against a limit.
+     * @param channel Channel to read from
+     * @param max Maximum value
+     * @param selector Selector the channel is registered with, {@code null} if the channel is blocking
+     * @param deadline Value of {@link System#nanoTime()} when the read times out, ignored for a blocking channel
+     * @return Read value
+     * @throws IOException if an I/O error occurs, the connection is closed or the read times out
+     * @throws IllegalArgumentException if the value is negative or exceeds the limit
+     */
+    private static int readLength(SocketChannel channel, int max, Selector selector, long deadline) throws IOException {
+        int value = readFully(channel, ByteBuffer.allocate(4), selector, deadline).getInt(0);
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException("Invalid daemon request length: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Fills a buffer from a blocking channel.
+     * @param channel Channel to read from
+     * @param buf Buffer to fill up to its limit
+     * @return Filled buffer, flipped for reading
+     * @throws IOException if an I/O error occurs or the connection is closed before the buffer is filled
+     */
+    private static ByteBuffer readFully(SocketChannel channel, ByteBuffer buf) throws IOException {
+        return readFully(channel, buf, null, 0);
+    }
+
+    /**
+     * Fills a buffer from a channel, waiting for a non-blocking channel to become readable until a deadline.
+     * @param channel Channel to read from
+     * @param buf Buffer to fill up to its limit
+     * @param selector Selector the channel is registered with, {@code null} if the channel is blocking
+     * @param deadline Value of {@link System#nanoTime()} when the read times out, ignored for a blocking channel
+     * @return Filled buffer, flipped for reading
+     * @throws IOException if an I/O error occurs or the connection is closed before the buffer is filled
+     * @throws SocketTimeoutException if the buffer is not filled before the deadline
+     */
+    private static ByteBuffer readFully(SocketChannel channel, ByteBuffer buf, Selector selector, long deadline)
+        throws IOException {
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf);
+            if (read < 0) {
+                throw new EOFException("Daemon connection closed unexpectedly.");
+            }
+            if (read == 0 && selector != null) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new SocketTimeoutException("Daemon request timed out.");
+                }
+                selector.select(remaining);
+                selector.selectedKeys().clear();
+            }
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Writes a whole buffer into a channel.
+     * @param channel Channel to write to
+     * @param buf Buffer to write
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeFully(SocketChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Output stream sending written bytes to the client in frames of a given type.
+     * <p>
+     * Bytes are buffered and sent once the buffer fills up or the stream is flushed.
+     * </p>
+     */
+    static final class FrameOutputStream extends OutputStream {
+
+        /**
+         * Channel connected to the client.
+         */
+        private final SocketChannel channel;
+
+        /**
+         * Frame type.
+         */
+        private final byte type;
+
+        /**
+         * Buffered bytes.
+         */
+        private final byte[] buffer;
+
+        /**
+         * Number of buffered bytes.
+         */
+        private int count;
+
+        /**
+         * Constructs a new FrameOutputStream.
+         * @param channel Channel connected to the client
+         * @param type Frame type
+         */
+        FrameOutputStream(SocketChannel channel, byte type) {
+            this.channel = channel;
+            this.type = type;
+            this.buffer = new byte[1 << 16];
+            this.count = 0;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.count == this.buffer.length) {
+                this.flush();
+            }
+            this.buffer[this.count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > this.buffer.length - this.count) {
+                this.flush();
+            }
+            if (len > this.buffer.length) {
+                writeFrame(this.channel, this.type, b, off, len);
+                return;
+            }
+            System.arraycopy(b, off, this.buffer, this.count, len);
+            this.count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.count > 0) {
+                writeFrame(this.channel, this.type, this.buffer, 0, this.count);
+                this.count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.khgreav.forgetmenot.daemon;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import com.github.khgreav.forgetmenot.repositories.GroupCommitter;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+import com.github.khgreav.forgetmenot.services.CommandDispatcher;
+import com.github.khgreav.forgetmenot.services.TaskService;
+import com.github.khgreav.forgetmenot.utils.ThreadUtils;
+
+/**
+ * Long-running server keeping a single {@link TaskRepository} resident and executing task commands
+ * received over a Unix domain socket.
+ * <p>
+ * Storage is loaded once when the daemon starts, so forwarded commands skip the storage load paid by every
+ * standalone invocation of the CLI. Each connection carries a single command, see {@link DaemonProtocol}.
+ * Changed tasks are saved after every command, so storage on disk stays current and the daemon can be stopped
+ * at any time.
+ * </p>
+ * <p>
+ * Connections are handled concurrently, each in its own virtual thread when the runtime supports them,
+ * see {@link ThreadUtils#newVirtualThreadExecutor(String, int)}. Commands of different clients run in parallel
+ * against the shared repository, which is safe for concurrent access, see {@link TaskRepository}. Their saves
+ * are grouped by a {@link GroupCommitter}, so that concurrent commands share a single write.
+ * </p>
+ */
+public final class TaskDaemon implements Closeable {
+
+    /**
+     * Command stopping the daemon.
+     */
+    public static final String STOP_COMMAND = "stop";
+
+    /**
+     * Maximum number of pending connections waiting to be accepted.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * Number of platform threads handling connections when virtual threads are not available.
+     */
+    static final int FALLBACK_THREADS = 64;
+
+    /**
+     * Default time for a client to send its request in milliseconds.
+     */
+    private static final long REQUEST_TIMEOUT = 10_000;
+
+    /**
+     * Path to the socket file.
+     */
+    private final Path socketPath;
+
+    /**
+     * Repository shared by all commands.
+     */
+    private final TaskRepository repo;
+
+    /**
+     * Group commit of the shared repository.
+     */
+    private final GroupCommitter committer;
+
+    /**
+     * Channel accepting client connections.
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * Time for a client to send its request in milliseconds.
+     */
+    private final long requestTimeout;
+
+    /**
+     * Whether the daemon was asked to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a new TaskDaemon and binds its socket.
+     * <p>
+     * Tasks are loaded before the socket is bound, so that no command waits for storage to load.
+     * A socket file left behind by a daemon which did not shut down cleanly is replaced.
+     * </p>
+     * @param socketPath Path to the socket file
+     * @param repo Repository shared by all commands
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if another daemon is already listening on the socket
+     */
+    public TaskDaemon(Path socketPath, TaskRepository repo) throws IOException {
+        this(socketPath, repo, REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Constructs a new TaskDaemon with a given request timeout and binds its socket.
+     * @param socketPath Path to the socket file
+     * @param repo Repository shared by all commands
+     * @param requestTimeout Time for a client to send its request in milliseconds
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if another daemon is already listening on the socket
+     */
+    TaskDaemon(Path socketPath, TaskRepository repo, long requestTimeout) throws IOException {
+        try (var live = DaemonClient.connect(socketPath)) {
+            if (live != null) {
+                throw new IllegalStateException("Daemon is already running on " + socketPath + '.');
+            }
+        }
+        try {
+            repo.load();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.deleteIfExists(socketPath);
+        this.socketPath = socketPath;
+        this.repo = repo;
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            this.server.bind(UnixDomainSocketAddress.of(socketPath), BACKLOG);
+        } catch (IOException e) {
+            this.server.close();
+            throw e;
+        }
+        this.requestTimeout = requestTimeout;
+        this.committer = new GroupCommitter(repo);
+        this.stopped = false;
+    }
+
+    /**
+     * Accepts connections and executes received commands until the daemon is stopped or closed.
+     * <p>
+     * A connection which does not send a complete request in time is closed, so that idle clients cannot occupy
+     * all threads handling connections.
+     * </p>
+     * <p>
+     * Commands which are already running when the daemon stops are completed before the method returns.
+     * </p>
+     * @throws IOException if an I/O error occurs while accepting connections
+     * @throws InterruptedException if interrupted while waiting for running commands to complete
+     */
+    public void serve() throws IOException, InterruptedException {
+        var executor = ThreadUtils.newVirtualThreadExecutor("forgetmenot-daemon", FALLBACK_THREADS);
+        try {
+            while (!this.stopped) {
+                SocketChannel channel;
+                try {
+                    channel = this.server.accept();
+                } catch (ClosedChannelException e) {
+                    break;
+                }
+                executor.execute(() -> {
+                    try (channel) {
+                        this.handle(channel);
+                    } catch (IOException | IllegalArgumentException e) {
+                        // A broken connection only affects its own client
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Executes a single command received over a connection and sends back its output and exit code.
+     * @param channel Channel connected to the client
+     * @throws IOException if an I/O error occurs while communicating with the client
+     * @throws IllegalArgumentException if the request is invalid
+     */
+    private void handle(SocketChannel channel) throws IOException {
+        var args = DaemonProtocol.readRequest(channel, this.requestTimeout);
+        var out = new DaemonProtocol.FrameOutputStream(channel, DaemonProtocol.OUT);
+        var err = new DaemonProtocol.FrameOutputStream(channel, DaemonProtocol.ERR);
+        var outStream = new PrintStream(out, false, StandardCharsets.UTF_8);
+        var errStream = new PrintStream(err, false, StandardCharsets.UTF_8);
+        int code = 0;
+        boolean stop = args.length == 1 && args[0].equals(STOP_COMMAND);
+        if (stop) {
+            this.stopped = true;
+            outStream.println("Daemon stopped.");
+        } else {
+            try {
+                CommandDispatcher.execute(args, new TaskService(this.repo, outStream, this.committer), errStream);
+            } catch (Exception e) {
+                errStream.println(e.getMessage());
+                code = 1;
+            }
+        }
+        outStream.flush();
+        errStream.flush();
+        if (outStream.checkError() || errStream.checkError()) {
+            throw new IOException("Failed to send command output.");
+        }
+        DaemonProtocol.writeExit(channel, code);
+        if (stop) {
+            // Wakes up the accept loop, the socket file is removed on close
+            this.server.close();
+        }
+    }
+
+    /**
+     * Stops accepting connections, commits pending changes and removes the socket file.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.stopped = true;
+        try {
+            this.server.close();
+            this.committer.close();
+        } finally {
+            Files.deleteIfExists(this.socketPath);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.khgreav.forgetmenot.enums;
+
+import java.util.Comparator;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Represents the order of listed tasks.
+ * <p>
+ * The possible orders are:
+ * <ul>
+ *    <li>{@link #ID} - Ascending task IDs.</li>
+ *    <li>{@link #CREATED} - Most recently created tasks first.</li>
+ *    <li>{@link #UPDATED} - Most recently updated tasks first.</li>
+ * </ul>
+ * Tasks with equal timestamps are ordered by ascending IDs.
+ * </p>
+ */
+public enum SortKey {
+    /**
+     * Ascending task IDs.
+     */
+    ID("id", Comparator.comparingInt(Task::getId)),
+
+    /**
+     * Most recently created tasks first.
+     */
+    CREATED("created", Comparator.comparing(Task::getCreatedAt).reversed().thenComparingInt(Task::getId)),
+
+    /**
+     * Most recently updated tasks first.
+     */
+    UPDATED("updated", Comparator.comparing(Task::getUpdatedAt).reversed().thenComparingInt(Task::getId));
+
+    /**
+     * String representation used in CLI arguments.
+     */
+    private final String value;
+
+    /**
+     * Order of tasks.
+     */
+    private final Comparator<Task> comparator;
+
+    /**
+     * Constructs a new SortKey.
+     * @param value String representation
+     * @param comparator Order of tasks
+     */
+    SortKey(String value, Comparator<Task> comparator) {
+        this.value = value;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Factory method to create {@link SortKey} from string value.
+     * @param value String value
+     * @return Corresponding {@link SortKey}
+     * @throws IllegalArgumentException if the value does not represent a valid SortKey
+     */
+    public static SortKey fromString(String value) {
+        return switch (value) {
+            case "id" -> ID;
+            case "created" -> CREATED;
+            case "updated" -> UPDATED;
+            default -> throw new IllegalArgumentException("Unknown sort key value: " + value);
+        };
+    }
+
+    /**
+     * Returns the order of tasks.
+     * @return Comparator ordering tasks first to last
+     */
+    public Comparator<Task> comparator() {
+        return this.comparator;
+    }
+
+    /**
+     * Returns the string representation of the SortKey.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -15,17 +15,30 @@ public enum TaskStatus {
     /**
      * New task, yet to be started.
      */
-    TODO,
+    TODO("todo"),
 
     /**
      * Task is currently in progress.
      */
-    IN_PROGRESS,
+    IN_PROGRESS("in-progress"),
 
     /**
      * Task has been completed.
      */
-    DONE;
+    DONE("done");
+
+    /**
+     * String representation used in JSON and CLI output.
+     */
+    private final String value;
+
+    /**
+     * Constructs a new TaskStatus.
+     * @param value String representation
+     */
+    TaskStatus(String value) {
+        this.value = value;
+    }
 
     /**
      * Factory method to create {@link TaskStatus} from string value.
@@ -51,6 +64,6 @@ public enum TaskStatus {
      */
     @Override
     public String toString() {
-        return this.name().replace('_', '-').toLowerCase();
+        return this.value;
     }
 }
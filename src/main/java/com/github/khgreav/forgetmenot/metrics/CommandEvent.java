@@ -0,0 +1,44 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of an executed task command, holding its counters.
+ */
+@Name("com.github.khgreav.forgetmenot.Command")
+@Label("Task Command")
+@Category("Forget-me-not")
+@Description("Executed task command with records and bytes it read and wrote")
+final class CommandEvent extends Event {
+
+    /**
+     * Name of the command.
+     */
+    @Label("Command")
+    String command;
+
+    /**
+     * Number of parsed task records.
+     */
+    @Label("Records Read")
+    long recordsRead;
+
+    /**
+     * Number of bytes read from storage.
+     */
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    /**
+     * Number of bytes written to storage.
+     */
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+}
@@ -0,0 +1,374 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Timings of the phases of a CLI command and counters of the work it did.
+ * <p>
+ * Statistics are bound to the thread executing the command by {@link #begin()}, so that the repository and the
+ * service record into them without passing them around. Time of a phase excludes phases nested in it, e.g. the
+ * execution of a command which triggers loading of the storage. Phases and commands are also reported to Flight
+ * Recorder as {@code com.github.khgreav.forgetmenot.Phase} and {@code com.github.khgreav.forgetmenot.Command}
+ * events, phase events are committed even when no statistics are bound. Events are only created while Flight
+ * Recorder is running, as loading the first event class without it delays the command by hundreds of milliseconds.
+ * </p>
+ * <p>
+ * Instances are not thread-safe, they are only accessed by the thread they are bound to.
+ * </p>
+ */
+public final class CommandStats {
+
+    /**
+     * Statistics bound to the current thread.
+     */
+    private static final ThreadLocal<CommandStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Width of the name column of the text report.
+     */
+    private static final int NAME_WIDTH = 16;
+
+    /**
+     * Exclusive time of every phase in nanoseconds.
+     */
+    private final long[] phases;
+
+    /**
+     * Value of every counter.
+     */
+    private final long[] counters;
+
+    /**
+     * Time at which the statistics were bound, from {@link System#nanoTime()}.
+     */
+    private final long start;
+
+    /**
+     * Bytes allocated by the thread before the statistics were bound, negative if not available.
+     */
+    private final long allocatedBefore;
+
+    /**
+     * Flight Recorder event of the command, null if Flight Recorder was not running.
+     */
+    private final CommandEvent event;
+
+    /**
+     * Innermost running timer.
+     */
+    private Timer active;
+
+    /**
+     * Constructs new CommandStats.
+     */
+    private CommandStats() {
+        this.phases = new long[Phase.values().length];
+        this.counters = new long[Counter.values().length];
+        this.allocatedBefore = allocatedBytes();
+        this.event = FlightRecorder.isInitialized() ? new CommandEvent() : null;
+        if (this.event != null) {
+            this.event.begin();
+        }
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Binds new statistics to the current thread.
+     * @return Bound statistics
+     */
+    public static CommandStats begin() {
+        var stats = new CommandStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Returns the statistics bound to the current thread.
+     * @return Bound statistics, null if none are bound
+     */
+    public static CommandStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unbinds statistics from the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns whether command events are recorded by Flight Recorder, so that statistics should be bound.
+     * @return True if recorded, false otherwise
+     */
+    public static boolean isRecorded() {
+        return FlightRecorder.isInitialized() && new CommandEvent().isEnabled();
+    }
+
+    /**
+     * Starts timing a phase on the current thread.
+     * @param phase Timed phase
+     * @return Timer which stops timing once closed
+     */
+    public static Timer time(Phase phase) {
+        return new Timer(phase, CURRENT.get());
+    }
+
+    /**
+     * Adds to a counter of the statistics bound to the current thread, if any.
+     * @param counter Counter
+     * @param amount Added amount
+     */
+    public static void count(Counter counter, long amount) {
+        var stats = CURRENT.get();
+        if (stats != null) {
+            stats.counters[counter.ordinal()] += amount;
+        }
+    }
+
+    /**
+     * Records the time the JVM spent starting up before the command was parsed.
+     * @return This statistics
+     */
+    public CommandStats recordStartup() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000;
+        this.phases[Phase.STARTUP.ordinal()] = Math.max(0, uptime - (System.nanoTime() - this.start));
+        return this;
+    }
+
+    /**
+     * Returns the exclusive time of a phase.
+     * @param phase Phase
+     * @return Time in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return this.phases[phase.ordinal()];
+    }
+
+    /**
+     * Returns the value of a counter.
+     * @param counter Counter
+     * @return Counter value
+     */
+    public long getCount(Counter counter) {
+        return this.counters[counter.ordinal()];
+    }
+
+    /**
+     * Returns the time since the JVM started, or since the statistics were bound if startup was not recorded.
+     * @return Time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return this.getNanos(Phase.STARTUP) + System.nanoTime() - this.start;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread since the statistics were bound.
+     * @return Allocated bytes, negative if not supported by the JVM
+     */
+    public long getAllocatedBytes() {
+        long after = allocatedBytes();
+        return this.allocatedBefore < 0 || after < 0 ? -1 : after - this.allocatedBefore;
+    }
+
+    /**
+     * Commits the Flight Recorder event of the command with the current counters.
+     * @param command Name of the command
+     */
+    public void commitEvent(String command) {
+        if (this.event == null) {
+            return;
+        }
+        this.event.end();
+        if (this.event.shouldCommit()) {
+            this.event.command = command;
+            this.event.recordsRead = this.getCount(Counter.RECORDS_READ);
+            this.event.bytesRead = this.getCount(Counter.BYTES_READ);
+            this.event.bytesWritten = this.getCount(Counter.BYTES_WRITTEN);
+            this.event.commit();
+        }
+    }
+
+    /**
+     * Constructs a single-line JSON report, with times in nanoseconds.
+     * @return Report string
+     */
+    public String toJson() {
+        long total = this.getTotalNanos();
+        var sb = new StringBuilder("{");
+        for (Phase phase : Phase.values()) {
+            sb.append('"').append(phase).append(".ns\":").append(this.getNanos(phase)).append(',');
+        }
+        sb.append("\"other.ns\":").append(this.otherNanos(total)).append(',')
+            .append("\"total.ns\":").append(total);
+        for (Counter counter : Counter.values()) {
+            sb.append(",\"").append(counter).append("\":").append(this.getCount(counter));
+        }
+        long allocated = this.getAllocatedBytes();
+        if (allocated >= 0) {
+            sb.append(",\"allocated.bytes\":").append(allocated);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Constructs a human-readable report with one phase or counter per line, with times in milliseconds.
+     * <p>
+     * Time not spent in any phase is reported as other.
+     * </p>
+     * @return Report string
+     */
+    @Override
+    public String toString() {
+        long total = this.getTotalNanos();
+        var sb = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            appendMillis(sb, phase.toString(), this.getNanos(phase));
+        }
+        appendMillis(sb, "other", this.otherNanos(total));
+        appendMillis(sb, "total", total);
+        for (Counter counter : Counter.values()) {
+            appendName(sb, counter.toString()).append(this.getCount(counter)).append('\n');
+        }
+        long allocated = this.getAllocatedBytes();
+        if (allocated >= 0) {
+            appendName(sb, "allocated").append(allocated).append(" bytes\n");
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the time not spent in any phase.
+     * @param total Total time in nanoseconds
+     * @return Time in nanoseconds
+     */
+    private long otherNanos(long total) {
+        long other = total;
+        for (long nanos : this.phases) {
+            other -= nanos;
+        }
+        return Math.max(0, other);
+    }
+
+    /**
+     * Appends a line of the text report holding a time in milliseconds.
+     * @param sb StringBuilder to append to
+     * @param name Name of the line
+     * @param nanos Time in nanoseconds
+     */
+    private static void appendMillis(StringBuilder sb, String name, long nanos) {
+        appendName(sb, name)
+            .append(nanos / 1_000_000)
+            .append('.')
+            .append(nanos / 100_000 % 10)
+            .append(" ms\n");
+    }
+
+    /**
+     * Appends the name column of a line of the text report.
+     * @param sb StringBuilder to append to
+     * @param name Name of the line
+     * @return The StringBuilder
+     */
+    private static StringBuilder appendName(StringBuilder sb, String name) {
+        sb.append(name);
+        for (int i = name.length(); i < NAME_WIDTH; i++) {
+            sb.append(' ');
+        }
+        return sb;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread.
+     * @return Allocated bytes, negative if not supported by the JVM
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()
+            && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Timer of a phase, closed once the phase is done.
+     */
+    public static final class Timer implements AutoCloseable {
+
+        /**
+         * Timed phase.
+         */
+        private final Phase phase;
+
+        /**
+         * Statistics recording the phase, null if none are bound.
+         */
+        private final CommandStats stats;
+
+        /**
+         * Timer of the enclosing phase, null if the phase is not nested.
+         */
+        private final Timer parent;
+
+        /**
+         * Flight Recorder event of the phase, null if Flight Recorder was not running.
+         */
+        private final PhaseEvent event;
+
+        /**
+         * Time at which the phase started, from {@link System#nanoTime()}.
+         */
+        private final long start;
+
+        /**
+         * Time spent in nested phases in nanoseconds.
+         */
+        private long nested;
+
+        /**
+         * Constructs a new Timer and starts timing.
+         * @param phase Timed phase
+         * @param stats Statistics recording the phase, null if none are bound
+         */
+        Timer(Phase phase, CommandStats stats) {
+            this.phase = phase;
+            this.stats = stats;
+            this.parent = stats != null ? stats.active : null;
+            if (stats != null) {
+                stats.active = this;
+            }
+            this.event = FlightRecorder.isInitialized() ? new PhaseEvent() : null;
+            if (this.event != null) {
+                this.event.begin();
+            }
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Stops timing and records the exclusive time of the phase.
+         */
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - this.start;
+            if (this.stats != null) {
+                this.stats.phases[this.phase.ordinal()] += elapsed - this.nested;
+                if (this.parent != null) {
+                    this.parent.nested += elapsed;
+                }
+                this.stats.active = this.parent;
+            }
+            if (this.event == null) {
+                return;
+            }
+            this.event.end();
+            if (this.event.shouldCommit()) {
+                this.event.phase = this.phase.toString();
+                this.event.commit();
+            }
+        }
+    }
+}
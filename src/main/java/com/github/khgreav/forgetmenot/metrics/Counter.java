@@ -0,0 +1,48 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+/**
+ * Represents a counter of work done by a CLI command.
+ * <ul>
+ *    <li>{@link #RECORDS_READ} - Task records parsed from the storage file.</li>
+ *    <li>{@link #BYTES_READ} - Bytes read from the storage file.</li>
+ *    <li>{@link #BYTES_WRITTEN} - Bytes written to storage.</li>
+ * </ul>
+ */
+public enum Counter {
+    /**
+     * Parsed task records.
+     */
+    RECORDS_READ("records.read"),
+
+    /**
+     * Bytes read from storage.
+     */
+    BYTES_READ("bytes.read"),
+
+    /**
+     * Bytes written to storage.
+     */
+    BYTES_WRITTEN("bytes.written");
+
+    /**
+     * String representation used in reports.
+     */
+    private final String value;
+
+    /**
+     * Constructs a new Counter.
+     * @param value String representation
+     */
+    Counter(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the string representation of the Counter.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+/**
+ * Represents a timed phase of a CLI command.
+ * <ul>
+ *    <li>{@link #STARTUP} - JVM startup until the command is parsed.</li>
+ *    <li>{@link #LOAD} - Loading the storage file, its indexes and the journal.</li>
+ *    <li>{@link #SEQUENCE} - Initializing the sequence of task IDs.</li>
+ *    <li>{@link #EXECUTE} - Executing the command, including output of listed tasks.</li>
+ *    <li>{@link #PERSIST} - Saving changed tasks.</li>
+ * </ul>
+ */
+public enum Phase {
+    /**
+     * JVM startup.
+     */
+    STARTUP("startup"),
+
+    /**
+     * Loading of the storage.
+     */
+    LOAD("load"),
+
+    /**
+     * Sequence initialization.
+     */
+    SEQUENCE("sequence"),
+
+    /**
+     * Command execution.
+     */
+    EXECUTE("execute"),
+
+    /**
+     * Saving of changed tasks.
+     */
+    PERSIST("persist");
+
+    /**
+     * String representation used in reports.
+     */
+    private final String value;
+
+    /**
+     * Constructs a new Phase.
+     * @param value String representation
+     */
+    Phase(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the string representation of the Phase.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
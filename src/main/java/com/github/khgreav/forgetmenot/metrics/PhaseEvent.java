@@ -0,0 +1,26 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a timed {@link Phase}.
+ * <p>
+ * The duration of the event includes nested phases, e.g. loading of the storage triggered by a command.
+ * </p>
+ */
+@Name("com.github.khgreav.forgetmenot.Phase")
+@Label("Command Phase")
+@Category("Forget-me-not")
+@Description("Phase of a task command")
+final class PhaseEvent extends Event {
+
+    /**
+     * Name of the phase.
+     */
+    @Label("Phase")
+    String phase;
+}
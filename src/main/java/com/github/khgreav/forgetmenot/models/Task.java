@@ -127,6 +127,14 @@ public final class Task {
         return this.updatedAt;
     }
 
+    /**
+     * Returns a copy of the task, which can be changed without affecting this task.
+     * @return Copy of the task
+     */
+    public Task copy() {
+        return new Task(this.id, this.desc, this.status, this.createdAt, this.updatedAt);
+    }
+
     /**
      * Factory method to create {@link Task} from a map of properties.
      * @param properties Map of properties
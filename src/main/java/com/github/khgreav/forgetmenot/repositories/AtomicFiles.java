@@ -0,0 +1,96 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class for replacing files atomically.
+ * <p>
+ * A file is replaced by writing its new content into a temporary file next to it, which is then moved over
+ * the original file. Readers therefore see either the previous or the new content, never a partial write.
+ * </p>
+ */
+final class AtomicFiles {
+
+    private AtomicFiles() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Returns the path of the temporary file used to replace a file.
+     * @param target Path to the replaced file
+     * @return Path to the temporary file
+     */
+    static Path tempPath(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /**
+     * Replaces the content of a file with a string encoded as UTF-8.
+     * @param target Path to the replaced file
+     * @param content New content
+     * @param durability Durability of the replacement
+     * @return Number of written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    static long writeString(Path target, CharSequence content, Durability durability) throws IOException {
+        var tmpPath = tempPath(target);
+        var buf = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+        try (var channel = FileChannel.open(
+            tmpPath,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            if (durability.forcesData()) {
+                channel.force(false);
+            }
+        }
+        commit(tmpPath, target, durability);
+        return buf.limit();
+    }
+
+    /**
+     * Moves a completely written temporary file over the replaced file.
+     * <p>
+     * The temporary file has to be forced by its writer if the durability level requires it.
+     * </p>
+     * @param tmpPath Path to the temporary file
+     * @param target Path to the replaced file
+     * @param durability Durability of the replacement
+     * @throws IOException if an I/O error occurs
+     */
+    static void commit(Path tmpPath, Path target, Durability durability) throws IOException {
+        Files.move(tmpPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (durability.forcesDirectory()) {
+            forceDirectory(target);
+        }
+    }
+
+    /**
+     * Forces the directory containing a file to the device, making a rename or removal of the file durable.
+     * <p>
+     * Platforms which do not allow opening directories, such as Windows, do not need this step and are skipped.
+     * </p>
+     * @param path Path to a file in the directory
+     * @throws IOException if an I/O error occurs
+     */
+    static void forceDirectory(Path path) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            return;
+        }
+        var dir = path.toAbsolutePath().getParent();
+        try (var channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
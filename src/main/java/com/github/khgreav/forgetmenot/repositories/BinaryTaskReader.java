@@ -0,0 +1,232 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Reader of the binary task storage file written by {@link BinaryTaskWriter}.
+ * <p>
+ * The file is read through a reused buffer, so memory use is bounded by the size of the largest record.
+ * The header, the number of records and the checksum are verified. As records are passed to the consumer
+ * while the file is read, a checksum mismatch is only detected once all records were consumed.
+ * </p>
+ */
+public final class BinaryTaskReader implements TaskReader {
+
+    /**
+     * Size of the input buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Task statuses by their ordinals.
+     */
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    /**
+     * Reads all task records of a binary storage file.
+     * @param path Path to the storage file
+     * @param consumer Consumer of the decoded tasks, in file order
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file is not a valid binary storage file
+     */
+    @Override
+    public void read(Path path, Consumer<Task> consumer) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.read(channel, consumer);
+        }
+    }
+
+    /**
+     * Reads all task records of an open binary storage file, which is left open.
+     * @param channel Channel of the storage file, read at absolute positions
+     * @param consumer Consumer of the decoded tasks, in file order
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file is not a valid binary storage file
+     */
+    public void read(FileChannel channel, Consumer<Task> consumer) throws IOException {
+        try {
+            long size = channel.size();
+            if (size < BinaryTaskWriter.HEADER_SIZE + BinaryTaskWriter.TRAILER_SIZE) {
+                throw invalid("file is truncated");
+            }
+            var trailer = ByteBuffer.allocate(BinaryTaskWriter.TRAILER_SIZE);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - BinaryTaskWriter.TRAILER_SIZE + trailer.position()) < 0) {
+                    throw invalid("file is truncated");
+                }
+            }
+            var input = new Input(channel, size - BinaryTaskWriter.TRAILER_SIZE);
+            input.ensure(BinaryTaskWriter.HEADER_SIZE);
+            if (input.buffer.getInt() != BinaryTaskWriter.MAGIC) {
+                throw invalid("unknown magic number");
+            }
+            int version = input.buffer.getInt();
+            if (version != BinaryTaskWriter.VERSION) {
+                throw invalid("unsupported version " + version);
+            }
+            int count = 0;
+            while (input.hasRemaining()) {
+                consumer.accept(input.readTask());
+                count++;
+            }
+            input.checksum.update(trailer.array(), 0, 4);
+            if (count != trailer.getInt(0)) {
+                throw invalid("record count mismatch");
+            }
+            if ((int) input.checksum.getValue() != trailer.getInt(4)) {
+                throw invalid("checksum mismatch");
+            }
+        } catch (BufferUnderflowException e) {
+            throw invalid("record is truncated");
+        }
+    }
+
+    /**
+     * Creates the exception thrown for an invalid file.
+     * @param reason Reason why the file is invalid
+     * @return Exception to throw
+     */
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid binary storage file: " + reason + '.');
+    }
+
+    /**
+     * Buffered input of the header and records of a binary storage file, which are added to the checksum as read.
+     */
+    private static final class Input {
+
+        /**
+         * Channel of the read file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Input buffer, flipped for reading, grown for records larger than the buffer.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Offset of the next byte to read from the file.
+         */
+        private long offset;
+
+        /**
+         * Offset after the last record in the file.
+         */
+        private final long end;
+
+        /**
+         * Checksum of the bytes read from the file.
+         */
+        private final CRC32C checksum;
+
+        /**
+         * Constructs a new Input.
+         * @param channel Channel of the read file
+         * @param end Offset after the last record in the file
+         */
+        Input(FileChannel channel, long end) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+            this.offset = 0;
+            this.end = end;
+            this.checksum = new CRC32C();
+        }
+
+        /**
+         * Returns whether there are bytes left before the trailer.
+         * @return True if there are bytes left, false otherwise
+         */
+        boolean hasRemaining() {
+            return this.buffer.hasRemaining() || this.offset < this.end;
+        }
+
+        /**
+         * Decodes the next task record.
+         * @return Decoded task
+         * @throws IOException if an I/O error occurs
+         * @throws IllegalArgumentException if the record is invalid
+         * @throws BufferUnderflowException if the record is truncated
+         */
+        Task readTask() throws IOException {
+            this.ensure((int) Math.min(BinaryTaskWriter.MAX_FIXED_SIZE, this.buffer.remaining() + (this.end - this.offset)));
+            int id = this.readVarint();
+            if (id < 1) {
+                throw invalid("task ID should be a non-zero positive integer");
+            }
+            int ordinal = this.buffer.get() & 0xFF;
+            if (ordinal >= STATUSES.length) {
+                throw invalid("unknown task status " + ordinal);
+            }
+            long createdAt = this.buffer.getLong();
+            long updatedAt = this.buffer.getLong();
+            int length = this.readVarint();
+            this.ensure(length);
+            var desc = new String(this.buffer.array(), this.buffer.position(), length, StandardCharsets.UTF_8);
+            this.buffer.position(this.buffer.position() + length);
+            return new Task(id, desc, STATUSES[ordinal], Instant.ofEpochSecond(createdAt), Instant.ofEpochSecond(updatedAt));
+        }
+
+        /**
+         * Decodes a non-negative integer from an unsigned LEB128 varint.
+         * @return Decoded value
+         * @throws IllegalArgumentException if the varint does not fit into a non-negative integer
+         */
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = this.buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0 || (shift == 28 && (b & 0x70) != 0)) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw invalid("varint is out of range");
+        }
+
+        /**
+         * Makes sure that a number of bytes can be read from the buffer, reading from the file as needed.
+         * @param count Number of bytes
+         * @throws IOException if an I/O error occurs
+         * @throws IllegalArgumentException if the file ends before the requested bytes
+         */
+        void ensure(int count) throws IOException {
+            if (this.buffer.remaining() >= count) {
+                return;
+            }
+            if (count > this.buffer.remaining() + (this.end - this.offset)) {
+                throw invalid("record is truncated");
+            }
+            if (this.buffer.capacity() < count) {
+                this.buffer = ByteBuffer.allocate(count).put(this.buffer).flip();
+            }
+            this.buffer.compact();
+            while (this.buffer.position() < count) {
+                int start = this.buffer.position();
+                this.buffer.limit((int) Math.min(this.buffer.capacity(), start + (this.end - this.offset)));
+                int read = this.channel.read(this.buffer, this.offset);
+                if (read < 0) {
+                    throw invalid("file is truncated");
+                }
+                this.checksum.update(this.buffer.array(), start, read);
+                this.offset += read;
+            }
+            this.buffer.flip();
+        }
+    }
+}
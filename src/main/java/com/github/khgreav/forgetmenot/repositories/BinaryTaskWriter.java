@@ -0,0 +1,210 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Streaming writer of the binary task storage file.
+ * <p>
+ * The file starts with a header holding a magic number and the format version, both 32-bit integers.
+ * Each task is stored in a record made of:
+ * <ul>
+ *    <li>the task ID as an unsigned LEB128 varint,</li>
+ *    <li>the ordinal of the task status as a single byte,</li>
+ *    <li>the creation and update times as 64-bit epoch seconds,</li>
+ *    <li>the description as a varint length followed by its UTF-8 bytes.</li>
+ * </ul>
+ * The file ends with a trailer holding the number of records and a CRC-32C checksum of all preceding bytes,
+ * both 32-bit integers. Multi-byte integers are big-endian. Like the JSON format, fractional seconds are dropped.
+ * </p>
+ * <p>
+ * Records are encoded into a reused direct buffer, which is written to the file channel whenever it fills up.
+ * </p>
+ */
+public final class BinaryTaskWriter implements TaskWriter {
+
+    /**
+     * Magic number of the binary storage file.
+     */
+    static final int MAGIC = 0x464D4E42;
+
+    /**
+     * Version of the binary storage format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of the trailer in bytes.
+     */
+    static final int TRAILER_SIZE = 8;
+
+    /**
+     * Maximum size of a record without its description bytes.
+     */
+    static final int MAX_FIXED_SIZE = 5 + 1 + 8 + 8 + 5;
+
+    /**
+     * Size of the output buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Channel of the written file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Output buffer, grown for records larger than the buffer.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Checksum of the flushed bytes.
+     */
+    private final CRC32C checksum;
+
+    /**
+     * Number of bytes written into the file, excluding buffered bytes.
+     */
+    private long flushed;
+
+    /**
+     * Number of written records.
+     */
+    private int count;
+
+    /**
+     * Whether the written data is forced to the device on close.
+     */
+    private final boolean force;
+
+    /**
+     * Constructs a new BinaryTaskWriter, replacing the contents of the file.
+     * @param path Path to the written file
+     * @throws IOException if an I/O error occurs
+     */
+    public BinaryTaskWriter(Path path) throws IOException {
+        this(path, false);
+    }
+
+    /**
+     * Constructs a new BinaryTaskWriter, replacing the contents of the file.
+     * @param path Path to the written file
+     * @param force Whether to force the written data to the device on close
+     * @throws IOException if an I/O error occurs
+     */
+    public BinaryTaskWriter(Path path, boolean force) throws IOException {
+        this.force = force;
+        this.channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.checksum = new CRC32C();
+        this.flushed = 0;
+        this.count = 0;
+        this.buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * Encodes and writes a task.
+     * @param task Task to write
+     * @return Offset of the record in the written file
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public long write(Task task) throws IOException {
+        byte[] desc = task.getDesc().getBytes(StandardCharsets.UTF_8);
+        int size = MAX_FIXED_SIZE + desc.length;
+        if (this.buffer.remaining() < size) {
+            this.flush();
+            if (this.buffer.capacity() < size) {
+                this.buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+        long offset = this.position();
+        putVarint(this.buffer, task.getId());
+        this.buffer.put((byte) task.getStatus().ordinal());
+        this.buffer.putLong(task.getCreatedAt().getEpochSecond());
+        this.buffer.putLong(task.getUpdatedAt().getEpochSecond());
+        putVarint(this.buffer, desc.length);
+        this.buffer.put(desc);
+        this.count++;
+        return offset;
+    }
+
+    /**
+     * Writes the trailer, flushes the buffer and closes the file.
+     * <p>
+     * If requested, the written data is forced to the device before the file is closed.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.buffer.remaining() < TRAILER_SIZE) {
+                this.flush();
+            }
+            this.buffer.putInt(this.count);
+            this.flush();
+            this.buffer.putInt((int) this.checksum.getValue());
+            this.flush();
+            if (this.force) {
+                this.channel.force(false);
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far, including buffered bytes.
+     * @return Offset of the next written byte
+     */
+    @Override
+    public long position() {
+        return this.flushed + this.buffer.position();
+    }
+
+    /**
+     * Writes the buffered bytes into the file and adds them to the checksum.
+     * @throws IOException if an I/O error occurs
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+        this.checksum.update(this.buffer.duplicate());
+        this.flushed += this.buffer.remaining();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes a non-negative integer as an unsigned LEB128 varint.
+     * @param buf Buffer to write to
+     * @param value Value to write
+     */
+    static void putVarint(ByteBuffer buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+}
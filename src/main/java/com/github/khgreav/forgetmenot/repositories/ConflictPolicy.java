@@ -0,0 +1,63 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+/**
+ * Represents how an imported task is merged when a task with the same ID already exists.
+ * <ul>
+ *    <li>{@link #RENUMBER} - The imported task is stored under a newly allocated ID.</li>
+ *    <li>{@link #SKIP} - The imported task is dropped.</li>
+ *    <li>{@link #REPLACE} - The imported task replaces the existing task.</li>
+ * </ul>
+ */
+public enum ConflictPolicy {
+    /**
+     * Store the imported task under a newly allocated ID.
+     */
+    RENUMBER("renumber"),
+
+    /**
+     * Drop the imported task.
+     */
+    SKIP("skip"),
+
+    /**
+     * Replace the existing task.
+     */
+    REPLACE("replace");
+
+    /**
+     * String representation used on the command line.
+     */
+    private final String value;
+
+    /**
+     * Constructs a new ConflictPolicy.
+     * @param value String representation
+     */
+    ConflictPolicy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Factory method to create {@link ConflictPolicy} from string value.
+     * @param value String value
+     * @return Corresponding {@link ConflictPolicy}
+     * @throws IllegalArgumentException if the value does not represent a valid ConflictPolicy
+     */
+    public static ConflictPolicy fromString(String value) {
+        return switch (value) {
+            case "renumber" -> RENUMBER;
+            case "skip" -> SKIP;
+            case "replace" -> REPLACE;
+            default -> throw new IllegalArgumentException("Unknown conflict policy value: " + value);
+        };
+    }
+
+    /**
+     * Returns the string representation of the ConflictPolicy.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
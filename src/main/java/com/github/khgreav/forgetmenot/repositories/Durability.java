@@ -0,0 +1,84 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+/**
+ * Represents how durably {@link TaskRepository#persist()} commits changes to storage.
+ * <p>
+ * Files are always replaced atomically, so a crash never leaves a partially written file behind.
+ * The durability level decides what survives a power loss or an operating system crash:
+ * <ul>
+ *    <li>{@link #NONE} - Written data is left to the operating system, the last commits may be lost.</li>
+ *    <li>{@link #DATA} - Written data is forced to the device before it replaces the previous version.</li>
+ *    <li>{@link #DATA_AND_DIRECTORY} - Additionally, the directory is forced once a file is replaced,
+ *    so the commit itself is durable.</li>
+ * </ul>
+ * </p>
+ */
+public enum Durability {
+    /**
+     * No data is forced to the device.
+     */
+    NONE("none"),
+
+    /**
+     * Data is forced to the device before it is committed.
+     */
+    DATA("data"),
+
+    /**
+     * Data and the directory entries of committed files are forced to the device.
+     */
+    DATA_AND_DIRECTORY("data+dir");
+
+    /**
+     * String representation used in configuration.
+     */
+    private final String value;
+
+    /**
+     * Constructs a new Durability.
+     * @param value String representation
+     */
+    Durability(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Factory method to create {@link Durability} from string value.
+     * @param value String value
+     * @return Corresponding {@link Durability}
+     * @throws IllegalArgumentException if the value does not represent a valid Durability
+     */
+    public static Durability fromString(String value) {
+        return switch (value) {
+            case "none" -> NONE;
+            case "data" -> DATA;
+            case "data+dir" -> DATA_AND_DIRECTORY;
+            default -> throw new IllegalArgumentException("Unknown durability value: " + value);
+        };
+    }
+
+    /**
+     * Returns whether written data is forced to the device.
+     * @return True if data is forced, false otherwise
+     */
+    public boolean forcesData() {
+        return this != NONE;
+    }
+
+    /**
+     * Returns whether the directory is forced to the device once a file is replaced.
+     * @return True if the directory is forced, false otherwise
+     */
+    public boolean forcesDirectory() {
+        return this == DATA_AND_DIRECTORY;
+    }
+
+    /**
+     * Returns the string representation of the Durability.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
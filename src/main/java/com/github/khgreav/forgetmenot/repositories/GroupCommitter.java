@@ -0,0 +1,219 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit of a {@link TaskRepository} shared by concurrent writers.
+ * <p>
+ * Instead of persisting the repository after every mutation, writers request a commit and wait for its future.
+ * A single committer thread collects requests arriving within the configured window, or until the configured
+ * number of requests is reached, and completes all of them with a single {@link TaskRepository#persist()},
+ * which writes and forces the changes of all writers at once. Requests arriving while a persist is running
+ * are grouped into the next one, so even without a window, throughput grows with the number of writers
+ * instead of being bounded by the latency of forcing data to the device.
+ * </p>
+ * <p>
+ * A commit request covers every mutation made by the requesting thread before the request.
+ * </p>
+ */
+public final class GroupCommitter implements Closeable {
+
+    /**
+     * Repository to persist.
+     */
+    private final TaskRepository repo;
+
+    /**
+     * Time in nanoseconds the committer waits for further requests.
+     */
+    private final long windowNanos;
+
+    /**
+     * Number of requests which end the window early.
+     */
+    private final int maxBatch;
+
+    /**
+     * Lock guarding the waiting requests.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Condition signalled when a request arrives or the committer is closed.
+     */
+    private final Condition arrived;
+
+    /**
+     * Requests waiting for the next persist.
+     */
+    private List<CompletableFuture<Long>> waiting;
+
+    /**
+     * Whether the committer was closed.
+     */
+    private boolean closed;
+
+    /**
+     * Committer thread.
+     */
+    private final Thread thread;
+
+    /**
+     * Constructs a new GroupCommitter configured by the storage options of the repository and starts its thread.
+     * @param repo Repository to persist
+     * @see StorageOptions#withCommitWindow(long)
+     * @see StorageOptions#withCommitBatch(int)
+     */
+    public GroupCommitter(TaskRepository repo) {
+        this.repo = repo;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(repo.getOptions().getCommitWindow());
+        this.maxBatch = repo.getOptions().getCommitBatch();
+        this.lock = new ReentrantLock();
+        this.arrived = this.lock.newCondition();
+        this.waiting = new ArrayList<>();
+        this.closed = false;
+        this.thread = new Thread(this::run, "forgetmenot-commit");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Requests a commit of all mutations made so far.
+     * @return Future completed with the number of bytes written by the persist which committed the mutations
+     * @throws IllegalStateException if the committer was closed
+     */
+    public CompletableFuture<Long> commit() {
+        var future = new CompletableFuture<Long>();
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("Group committer is closed.");
+            }
+            this.waiting.add(future);
+            if (this.waiting.size() == 1 || this.waiting.size() >= this.maxBatch) {
+                this.arrived.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Requests a commit of all mutations made so far and waits until it completes.
+     * @return Number of bytes written by the persist which committed the mutations
+     * @throws IOException if an I/O error occurs while persisting, or the wait is interrupted
+     * @throws IllegalStateException if the committer was closed
+     */
+    public long commitAndWait() throws IOException {
+        try {
+            return this.commit().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for commit.");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Commits all waiting requests and stops the committer thread.
+     * @throws IOException if interrupted while waiting for the committer thread
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.arrived.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing group committer.");
+        }
+    }
+
+    /**
+     * Main loop of the committer thread.
+     */
+    private void run() {
+        while (true) {
+            List<CompletableFuture<Long>> batch;
+            try {
+                batch = this.nextBatch();
+            } catch (InterruptedException e) {
+                this.lock.lock();
+                try {
+                    this.closed = true;
+                    batch = this.waiting;
+                    this.waiting = new ArrayList<>();
+                } finally {
+                    this.lock.unlock();
+                }
+                var failure = new InterruptedIOException("Group committer was interrupted.");
+                batch.forEach(future -> future.completeExceptionally(failure));
+                return;
+            }
+            if (batch == null) {
+                return;
+            }
+            try {
+                long written = this.repo.persist();
+                batch.forEach(future -> future.complete(written));
+            } catch (IOException | RuntimeException e) {
+                batch.forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    /**
+     * Waits for the first request and then for further requests until the window elapses or the batch is full.
+     * @return Requests to complete by the next persist, null once the committer is closed and no request is waiting
+     * @throws InterruptedException if the committer thread is interrupted
+     */
+    private List<CompletableFuture<Long>> nextBatch() throws InterruptedException {
+        this.lock.lock();
+        try {
+            while (this.waiting.isEmpty() && !this.closed) {
+                this.arrived.await();
+            }
+            if (this.waiting.isEmpty()) {
+                return null;
+            }
+            long deadline = System.nanoTime() + this.windowNanos;
+            long remaining;
+            while (
+                this.waiting.size() < this.maxBatch
+                && !this.closed
+                && (remaining = deadline - System.nanoTime()) > 0
+            ) {
+                this.arrived.awaitNanos(remaining);
+            }
+            var batch = this.waiting;
+            this.waiting = new ArrayList<>();
+            return batch;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
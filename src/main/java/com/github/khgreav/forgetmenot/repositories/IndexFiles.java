@@ -0,0 +1,96 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class for headers of index files derived from the storage file.
+ * <p>
+ * The header holds a magic number identifying the index type, the index format version, and the size
+ * and modification time of the storage file the index was built for. An index whose header does not
+ * match the current storage file is stale and has to be rebuilt.
+ * </p>
+ */
+final class IndexFiles {
+
+    /**
+     * Version of the index file format.
+     */
+    private static final int VERSION = 1;
+
+    private IndexFiles() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Writes an index file header.
+     * @param out Output of the index file
+     * @param magic Magic number of the index type
+     * @param storagePath Path to the storage file the index describes
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeHeader(DataOutputStream out, int magic, Path storagePath) throws IOException {
+        out.writeInt(magic);
+        out.writeInt(VERSION);
+        out.writeLong(Files.size(storagePath));
+        out.writeLong(Files.getLastModifiedTime(storagePath).toMillis());
+    }
+
+    /**
+     * Reads and validates an index file header.
+     * @param buf Buffer positioned at the start of the index file
+     * @param magic Expected magic number of the index type
+     * @param storagePath Path to the storage file the index should describe
+     * @return True if the index matches the storage file, false otherwise
+     * @throws IOException if an I/O error occurs
+     * @throws java.nio.BufferUnderflowException if the index file is truncated
+     */
+    static boolean readHeader(ByteBuffer buf, int magic, Path storagePath) throws IOException {
+        return buf.getInt() == magic
+            && buf.getInt() == VERSION
+            && buf.getLong() == Files.size(storagePath)
+            && buf.getLong() == Files.getLastModifiedTime(storagePath).toMillis();
+    }
+
+    /**
+     * Updates the header of an existing index file to describe the current storage file.
+     * <p>
+     * Only valid if the storage file changed without moving any indexed data, e.g. when records were overwritten
+     * in place. The rest of the index file is left untouched.
+     * </p>
+     * @param indexPath Path to the index file
+     * @param magic Expected magic number of the index type
+     * @param storagePath Path to the storage file the index describes
+     * @return True if the header was updated, false if the index file does not exist or is not of the given type
+     * @throws IOException if an I/O error occurs
+     */
+    static boolean refreshHeader(Path indexPath, int magic, Path storagePath) throws IOException {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        try (var channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buf = ByteBuffer.allocate(24);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, buf.position()) < 0) {
+                    return false;
+                }
+            }
+            if (buf.getInt(0) != magic || buf.getInt(4) != VERSION) {
+                return false;
+            }
+            buf.clear().position(8);
+            buf.putLong(Files.size(storagePath));
+            buf.putLong(Files.getLastModifiedTime(storagePath).toMillis());
+            buf.position(8);
+            while (buf.hasRemaining()) {
+                channel.write(buf, buf.position());
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Reader of the task storage file backed by memory-mapped I/O.
+ * <p>
+ * The storage file is mapped into memory in windows and records are parsed directly from the mapped bytes
+ * by {@link FlatJsonProcessor#deserializeObject(java.nio.ByteBuffer, int, int)}, which avoids decoding the
+ * whole file into Strings. Each window ends on a line boundary, so files larger than a single mapping
+ * are supported as long as no single line exceeds the window size.
+ * </p>
+ */
+public final class MappedTaskReader implements TaskReader {
+
+    /**
+     * Visitor of raw records in the storage file.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        /**
+         * Visits a single record.
+         * <p>
+         * The record spans from its opening to its closing brace, surrounding whitespace and separators are excluded.
+         * The buffer is only valid for the duration of the call.
+         * </p>
+         * @param buf Buffer containing the record
+         * @param start Index of the first byte of the record
+         * @param end Index after the last byte of the record
+         * @param offset Offset of the first byte of the record in the storage file
+         */
+        void visit(ByteBuffer buf, int start, int end, long offset);
+    }
+
+    /**
+     * Default size of a mapped window in bytes.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    /**
+     * Maximum size of a mapped window in bytes.
+     */
+    private final int windowSize;
+
+    /**
+     * Constructs a new MappedTaskReader with the default window size.
+     */
+    public MappedTaskReader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a new MappedTaskReader.
+     * @param windowSize Maximum size of a mapped window in bytes
+     * @throws IllegalArgumentException if the window size is not positive
+     */
+    public MappedTaskReader(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size should be a positive number.");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads all task records of a storage file.
+     * @param path Path to the storage file
+     * @param consumer Consumer of the deserialized tasks, in file order
+     * @throws IOException if an I/O error occurs or a line exceeds the window size
+     * @throws IllegalArgumentException if the file contains an invalid record
+     */
+    @Override
+    public void read(Path path, Consumer<Task> consumer) throws IOException {
+        this.scan(path, (buf, start, end, offset) -> consumer.accept(FlatJsonProcessor.deserializeObject(buf, start, end)));
+    }
+
+    /**
+     * Visits all raw records of a storage file, without deserializing them.
+     * <p>
+     * Blank lines and the lines of the enclosing JSON array are skipped.
+     * </p>
+     * @param path Path to the storage file
+     * @param visitor Visitor of the records, in file order
+     * @throws IOException if an I/O error occurs or a line exceeds the window size
+     */
+    public void scan(Path path, RecordVisitor visitor) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.scan(channel, visitor);
+        }
+    }
+
+    /**
+     * Visits all raw records of an open storage file, which is left open.
+     * @param channel Channel of the storage file
+     * @param visitor Visitor of the records, in file order
+     * @throws IOException if an I/O error occurs or a line exceeds the window size
+     * @see #scan(Path, RecordVisitor)
+     */
+    public void scan(FileChannel channel, RecordVisitor visitor) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        while (position < size) {
+            int length = (int) Math.min(this.windowSize, size - position);
+            var window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean last = position + length == size;
+            int end = last ? length : lastLineEnd(window, length);
+            if (end < 0) {
+                throw new IOException("Storage file line at offset " + position + " exceeds the mapping window.");
+            }
+            visitLines(window, 0, end, position, visitor);
+            position += end;
+        }
+    }
+
+    /**
+     * Visits all record lines of a region of a mapped window.
+     * @param window Mapped window
+     * @param start Index of the first byte of the region, at the start of a line
+     * @param end Index after the last byte of the region
+     * @param position Offset of the window in the storage file
+     * @param visitor Visitor of the records
+     */
+    static void visitLines(ByteBuffer window, int start, int end, long position, RecordVisitor visitor) {
+        while (start < end) {
+            int lineEnd = start;
+            while (lineEnd < end && window.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int first = start;
+            while (first < lineEnd && isBlank(window.get(first))) {
+                first++;
+            }
+            int last = lineEnd;
+            while (last > first && (isBlank(window.get(last - 1)) || window.get(last - 1) == ',')) {
+                last--;
+            }
+            if (first < last && window.get(first) != '[' && window.get(first) != ']') {
+                visitor.visit(window, first, last, position + first);
+            }
+            start = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Finds the end of the last complete line in a window.
+     * @param window Mapped window
+     * @param length Length of the window
+     * @return Index after the last line terminator, or -1 if the window contains no line terminator
+     */
+    static int lastLineEnd(ByteBuffer window, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Index of task records in the storage file.
+ * <p>
+ * For every record, the index holds the task ID, the byte offset of the record in the storage file and its length,
+ * in file order. This allows reading a single task without parsing the whole storage file. The index is persisted
+ * in a binary file together with the size and modification time of the storage file it was built for, a stale
+ * index is never loaded.
+ * </p>
+ */
+public final class OffsetIndex {
+
+    /**
+     * Magic number of the index file.
+     */
+    private static final int MAGIC = 0x464D4E49;
+
+    /**
+     * Task IDs in file order.
+     */
+    private int[] ids;
+
+    /**
+     * Offsets of records in file order.
+     */
+    private long[] offsets;
+
+    /**
+     * Lengths of records in file order.
+     */
+    private int[] lengths;
+
+    /**
+     * Number of records.
+     */
+    private int size;
+
+    /**
+     * Task IDs packed with their positions, sorted by ID, or null if IDs are in ascending file order.
+     */
+    private long[] sorted;
+
+    /**
+     * Maximum task ID.
+     */
+    private int maxId;
+
+    /**
+     * Constructs a new empty OffsetIndex.
+     * @param capacity Initial capacity
+     */
+    public OffsetIndex(int capacity) {
+        this.ids = new int[Math.max(capacity, 16)];
+        this.offsets = new long[this.ids.length];
+        this.lengths = new int[this.ids.length];
+    }
+
+    /**
+     * Builds the index by scanning a storage file, collecting task statuses into a status index along the way.
+     * <p>
+     * Only the ID and the status of each record are parsed.
+     * </p>
+     * @param storagePath Path to the storage file
+     * @param statuses Status index to put task statuses into
+     * @return Built index
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if a record does not contain a valid ID or status
+     */
+    public static OffsetIndex build(Path storagePath, StatusIndex statuses) throws IOException {
+        var index = new OffsetIndex(16);
+        if (Files.exists(storagePath)) {
+            new MappedTaskReader().scan(storagePath, (buf, start, end, offset) -> {
+                int id = FlatJsonProcessor.deserializeId(buf, start, end);
+                index.add(id, offset, end - start);
+                statuses.put(id, FlatJsonProcessor.deserializeStatus(buf, start, end));
+            });
+        }
+        index.seal();
+        return index;
+    }
+
+    /**
+     * Loads the index from an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index should describe
+     * @return Loaded index, or null if the index file does not exist, is invalid, or was built for a different storage file
+     * @throws IOException if an I/O error occurs
+     */
+    public static OffsetIndex load(Path indexPath, Path storagePath) throws IOException {
+        if (!Files.exists(indexPath) || !Files.exists(storagePath)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            var buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!IndexFiles.readHeader(buf, MAGIC, storagePath)) {
+                return null;
+            }
+            int count = buf.getInt();
+            if (count < 0 || buf.remaining() != count * 16L) {
+                return null;
+            }
+            var index = new OffsetIndex(count);
+            buf.asIntBuffer().get(index.ids, 0, count);
+            buf.position(buf.position() + count * 4);
+            buf.asLongBuffer().get(index.offsets, 0, count);
+            buf.position(buf.position() + count * 8);
+            buf.asIntBuffer().get(index.lengths, 0, count);
+            index.size = count;
+            index.seal();
+            return index;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the index into an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index describes
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path indexPath, Path storagePath) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath), 1 << 16))) {
+            IndexFiles.writeHeader(out, MAGIC, storagePath);
+            out.writeInt(this.size);
+            for (int i = 0; i < this.size; i++) {
+                out.writeInt(this.ids[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                out.writeLong(this.offsets[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                out.writeInt(this.lengths[i]);
+            }
+        }
+    }
+
+    /**
+     * Marks a saved index file as describing the current storage file.
+     * <p>
+     * Only valid if no record was added, moved or resized since the index was saved,
+     * e.g. when records were overwritten in place.
+     * </p>
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index describes
+     * @return True if the index file was updated, false if it has to be saved
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean refresh(Path indexPath, Path storagePath) throws IOException {
+        return IndexFiles.refreshHeader(indexPath, MAGIC, storagePath);
+    }
+
+    /**
+     * Appends a record to the index.
+     * <p>
+     * {@link #seal()} has to be called once all records are added.
+     * </p>
+     * @param id Task ID
+     * @param offset Offset of the record in the storage file
+     * @param length Length of the record in bytes
+     */
+    public void add(int id, long offset, int length) {
+        if (this.size == this.ids.length) {
+            int capacity = this.size * 2;
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.offsets = Arrays.copyOf(this.offsets, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+        }
+        this.ids[this.size] = id;
+        this.offsets[this.size] = offset;
+        this.lengths[this.size] = length;
+        this.size++;
+    }
+
+    /**
+     * Prepares the index for lookups once all records are added.
+     * <p>
+     * Files written by the application hold IDs in ascending order, which are searched directly.
+     * Otherwise, a copy of the IDs sorted together with their positions is created.
+     * </p>
+     */
+    public void seal() {
+        boolean ascending = true;
+        this.maxId = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0 && this.ids[i] <= this.ids[i - 1]) {
+                ascending = false;
+            }
+            this.maxId = Math.max(this.maxId, this.ids[i]);
+        }
+        this.sorted = null;
+        if (!ascending) {
+            this.sorted = new long[this.size];
+            for (int i = 0; i < this.size; i++) {
+                this.sorted[i] = ((long) this.ids[i] << 32) | i;
+            }
+            Arrays.sort(this.sorted);
+        }
+    }
+
+    /**
+     * Finds the position of a task record.
+     * @param id Task ID
+     * @return Position of the record, or -1 if there is no record with the given ID
+     */
+    public int find(int id) {
+        if (this.sorted == null) {
+            int pos = Arrays.binarySearch(this.ids, 0, this.size, id);
+            return pos < 0 ? -1 : pos;
+        }
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = (int) (this.sorted[mid] >>> 32);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return (int) this.sorted[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the record at a position from the storage file.
+     * @param channel Channel of the storage file
+     * @param pos Position of the record
+     * @return Buffer containing the record, flipped for reading
+     * @throws IOException if an I/O error occurs or the file ends before the record
+     */
+    public ByteBuffer read(FileChannel channel, int pos) throws IOException {
+        var buf = ByteBuffer.allocate(this.lengths[pos]);
+        long offset = this.offsets[pos];
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, offset + buf.position());
+            if (read < 0) {
+                throw new IOException("Storage file ended before record of task ID " + this.ids[pos] + '.');
+            }
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Returns the number of records.
+     * @return Number of records
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether task IDs are in ascending file order.
+     * @return True if ascending, false otherwise
+     */
+    public boolean isAscending() {
+        return this.sorted == null;
+    }
+
+    /**
+     * Returns the maximum task ID.
+     * @return Maximum task ID, zero if the index is empty
+     */
+    public int maxId() {
+        return this.maxId;
+    }
+
+    /**
+     * Returns the task ID of the record at a position.
+     * @param pos Position of the record
+     * @return Task ID
+     */
+    public int id(int pos) {
+        return this.ids[pos];
+    }
+
+    /**
+     * Returns the offset of the record at a position.
+     * @param pos Position of the record
+     * @return Offset in the storage file
+     */
+    public long offset(int pos) {
+        return this.offsets[pos];
+    }
+
+    /**
+     * Returns the length of the record at a position.
+     * @param pos Position of the record
+     * @return Length in bytes
+     */
+    public int length(int pos) {
+        return this.lengths[pos];
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+/**
+ * Reader of the JSON task storage file parsing records in parallel.
+ * <p>
+ * Like {@link MappedTaskReader}, the file is mapped into memory in windows ending on a line boundary. Every window
+ * is split into chunks of whole lines, which are parsed by {@link FlatJsonProcessor} on a fork-join pool.
+ * Tasks of each chunk are collected and passed to the consumer in file order once the whole window is parsed,
+ * so the consumer is only called from the thread which called {@link #read(Path, Consumer)}.
+ * </p>
+ */
+public final class ParallelTaskReader implements TaskReader {
+
+    /**
+     * Minimum size of a chunk in bytes, smaller windows are split into fewer chunks.
+     */
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Number of chunks per worker thread, which balances chunks parsed at different speeds.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Pool parsing the chunks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Maximum size of a mapped window in bytes.
+     */
+    private final int windowSize;
+
+    /**
+     * Constructs a new ParallelTaskReader parsing on the common fork-join pool.
+     */
+    public ParallelTaskReader() {
+        this(ForkJoinPool.commonPool(), MappedTaskReader.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a new ParallelTaskReader.
+     * @param pool Pool parsing the chunks
+     * @param windowSize Maximum size of a mapped window in bytes
+     * @throws IllegalArgumentException if the window size is not positive
+     */
+    public ParallelTaskReader(ForkJoinPool pool, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size should be a positive number.");
+        }
+        this.pool = pool;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads all task records of a storage file.
+     * @param path Path to the storage file
+     * @param consumer Consumer of the deserialized tasks, in file order
+     * @throws IOException if an I/O error occurs or a line exceeds the window size
+     * @throws IllegalArgumentException if the file contains an invalid record
+     */
+    @Override
+    public void read(Path path, Consumer<Task> consumer) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(this.windowSize, size - position);
+                var window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = position + length == size ? length : MappedTaskReader.lastLineEnd(window, length);
+                if (end < 0) {
+                    throw new IOException("Storage file line at offset " + position + " exceeds the mapping window.");
+                }
+                int[] bounds = this.split(window, end);
+                List<List<Task>> chunks = new ArrayList<>(bounds.length - 1);
+                for (int i = 1; i < bounds.length; i++) {
+                    chunks.add(null);
+                }
+                this.pool.invoke(new ParseChunks(window, bounds, position, chunks, 0, bounds.length - 1));
+                for (int i = 0; i < chunks.size(); i++) {
+                    chunks.get(i).forEach(consumer);
+                    chunks.set(i, null);
+                }
+                position += end;
+            }
+        }
+    }
+
+    /**
+     * Splits a window into chunks of whole lines.
+     * @param window Mapped window
+     * @param end Index after the last byte of the window to process
+     * @return Chunk boundaries, starting with zero and ending with the end of the window
+     */
+    private int[] split(ByteBuffer window, int end) {
+        int count = Math.max(1, Math.min(this.pool.getParallelism() * CHUNKS_PER_THREAD, end / MIN_CHUNK_SIZE));
+        var bounds = new ArrayList<Integer>(count + 1);
+        bounds.add(0);
+        for (int i = 1; i < count; i++) {
+            int bound = (int) ((long) end * i / count);
+            while (bound < end && window.get(bound - 1) != '\n') {
+                bound++;
+            }
+            if (bound > bounds.get(bounds.size() - 1) && bound < end) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(end);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Fork-join task parsing a range of chunks, split in halves until a single chunk remains.
+     */
+    private static final class ParseChunks extends RecursiveAction {
+
+        /**
+         * Serialization version, fork-join tasks are serializable but never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Mapped window.
+         */
+        private final ByteBuffer window;
+
+        /**
+         * Chunk boundaries within the window.
+         */
+        private final int[] bounds;
+
+        /**
+         * Offset of the window in the storage file.
+         */
+        private final long position;
+
+        /**
+         * Parsed tasks of every chunk of the window.
+         */
+        private final List<List<Task>> chunks;
+
+        /**
+         * Index of the first chunk of the range.
+         */
+        private final int from;
+
+        /**
+         * Index after the last chunk of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructs a new ParseChunks.
+         * @param window Mapped window
+         * @param bounds Chunk boundaries within the window
+         * @param position Offset of the window in the storage file
+         * @param chunks Parsed tasks of every chunk of the window
+         * @param from Index of the first chunk of the range
+         * @param to Index after the last chunk of the range
+         */
+        ParseChunks(ByteBuffer window, int[] bounds, long position, List<List<Task>> chunks, int from, int to) {
+            this.window = window;
+            this.bounds = bounds;
+            this.position = position;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                    new ParseChunks(this.window, this.bounds, this.position, this.chunks, this.from, mid),
+                    new ParseChunks(this.window, this.bounds, this.position, this.chunks, mid, this.to)
+                );
+                return;
+            }
+            var tasks = new ArrayList<Task>();
+            MappedTaskReader.visitLines(
+                this.window,
+                this.bounds[this.from],
+                this.bounds[this.to],
+                this.position,
+                (buf, start, end, offset) -> tasks.add(FlatJsonProcessor.deserializeObject(buf, start, end))
+            );
+            this.chunks.set(this.from, tasks);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.EnumMap;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+
+/**
+ * Secondary index of task IDs by {@link TaskStatus}.
+ * <p>
+ * For every status, the index holds the set of IDs of tasks with that status as a bit set, which keeps
+ * the index compact for sequentially allocated IDs. Looking up tasks with a status costs time proportional
+ * to the number of matching tasks instead of all tasks. IDs are returned in ascending order. The index can be
+ * persisted in a binary file together with the size and modification time of the storage file it was built for.
+ * </p>
+ */
+public final class StatusIndex {
+
+    /**
+     * Magic number of the index file.
+     */
+    private static final int MAGIC = 0x464D4E53;
+
+    /**
+     * Sets of task IDs by status.
+     */
+    private final EnumMap<TaskStatus, BitSet> ids;
+
+    /**
+     * Constructs a new empty StatusIndex.
+     */
+    public StatusIndex() {
+        this.ids = new EnumMap<TaskStatus, BitSet>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            this.ids.put(status, new BitSet());
+        }
+    }
+
+    /**
+     * Loads the index from an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index should describe
+     * @return Loaded index, or null if the index file does not exist, is invalid, or was built for a different storage file
+     * @throws IOException if an I/O error occurs
+     */
+    public static StatusIndex load(Path indexPath, Path storagePath) throws IOException {
+        if (!Files.exists(indexPath) || !Files.exists(storagePath)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            var buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!IndexFiles.readHeader(buf, MAGIC, storagePath)) {
+                return null;
+            }
+            var index = new StatusIndex();
+            for (TaskStatus status : TaskStatus.values()) {
+                int count = buf.getInt();
+                if (count < 0 || buf.remaining() < count * 8L) {
+                    return null;
+                }
+                var words = new long[count];
+                buf.asLongBuffer().get(words);
+                buf.position(buf.position() + count * 8);
+                index.ids.put(status, BitSet.valueOf(words));
+            }
+            return buf.hasRemaining() ? null : index;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the index into an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index describes
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path indexPath, Path storagePath) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath), 1 << 16))) {
+            IndexFiles.writeHeader(out, MAGIC, storagePath);
+            for (TaskStatus status : TaskStatus.values()) {
+                var words = this.ids.get(status).toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the status of a task, removing it from the set of its previous status.
+     * @param id Task ID
+     * @param status Current status of the task
+     */
+    public void put(int id, TaskStatus status) {
+        for (var entry : this.ids.entrySet()) {
+            entry.getValue().set(id, entry.getKey() == status);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     * @param id Task ID
+     */
+    public void remove(int id) {
+        for (BitSet set : this.ids.values()) {
+            set.clear(id);
+        }
+    }
+
+    /**
+     * Returns the next ID of a task with a status.
+     * <p>
+     * Iterate over all tasks with a status by starting from zero and continuing from the returned ID plus one.
+     * </p>
+     * @param status Task status
+     * @param from ID to start searching from, inclusive
+     * @return Next task ID, or -1 if there are no more tasks with the status
+     */
+    public int next(TaskStatus status, int from) {
+        return this.ids.get(status).nextSetBit(from);
+    }
+
+    /**
+     * Returns the number of tasks with a status.
+     * @param status Task status
+     * @return Number of tasks
+     */
+    public int count(TaskStatus status) {
+        return this.ids.get(status).cardinality();
+    }
+}
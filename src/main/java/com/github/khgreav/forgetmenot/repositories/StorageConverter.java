@@ -0,0 +1,63 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Utility class for converting task storage files between {@link StorageFormat}s.
+ */
+public final class StorageConverter {
+
+    private StorageConverter() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Converts a storage file into another format.
+     * <p>
+     * Tasks are streamed from the source file into a temporary file, which then replaces the target file.
+     * The source file is left untouched.
+     * </p>
+     * @param source Path to the source storage file
+     * @param sourceFormat Format of the source storage file
+     * @param target Path to the target storage file
+     * @param targetFormat Format of the target storage file
+     * @param durability Durability of the replacement of the target file
+     * @return Size of the target file in bytes
+     * @throws IOException if an I/O error occurs or the source file does not exist
+     * @throws IllegalArgumentException if the source file contains an invalid record
+     */
+    public static long convert(
+        Path source,
+        StorageFormat sourceFormat,
+        Path target,
+        StorageFormat targetFormat,
+        Durability durability
+    ) throws IOException {
+        if (!Files.exists(source)) {
+            throw new NoSuchFileException(source.toString(), null, "Storage file does not exist.");
+        }
+        var tmpPath = AtomicFiles.tempPath(target);
+        var writer = targetFormat.openWriter(tmpPath, durability.forcesData());
+        try (writer) {
+            sourceFormat.newReader().read(source, task -> {
+                try {
+                    writer.write(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e;
+        }
+        AtomicFiles.commit(tmpPath, target, durability);
+        return writer.position();
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Represents the format of the task storage file.
+ * <ul>
+ *    <li>{@link #JSON} - JSON array with one record per line, see {@link TaskFileWriter}.</li>
+ *    <li>{@link #BINARY} - Compact binary records with a checksum, see {@link BinaryTaskWriter}.</li>
+ * </ul>
+ */
+public enum StorageFormat {
+    /**
+     * JSON storage file.
+     */
+    JSON("json", ".json"),
+
+    /**
+     * Binary storage file.
+     */
+    BINARY("binary", ".bin");
+
+    /**
+     * String representation used in configuration.
+     */
+    private final String value;
+
+    /**
+     * Extension of storage files in this format, including the leading dot.
+     */
+    private final String extension;
+
+    /**
+     * Constructs a new StorageFormat.
+     * @param value String representation
+     * @param extension Extension of storage files
+     */
+    StorageFormat(String value, String extension) {
+        this.value = value;
+        this.extension = extension;
+    }
+
+    /**
+     * Factory method to create {@link StorageFormat} from string value.
+     * @param value String value
+     * @return Corresponding {@link StorageFormat}
+     * @throws IllegalArgumentException if the value does not represent a valid StorageFormat
+     */
+    public static StorageFormat fromString(String value) {
+        return switch (value) {
+            case "json" -> JSON;
+            case "binary" -> BINARY;
+            default -> throw new IllegalArgumentException("Unknown storage format value: " + value);
+        };
+    }
+
+    /**
+     * Returns the extension of storage files in this format.
+     * @return Extension, including the leading dot
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+
+    /**
+     * Creates a reader of storage files in this format.
+     * @return New reader
+     */
+    public TaskReader newReader() {
+        return switch (this) {
+            case JSON -> new MappedTaskReader();
+            case BINARY -> new BinaryTaskReader();
+        };
+    }
+
+    /**
+     * Opens a writer of a storage file in this format, replacing the contents of the file.
+     * @param path Path to the written file
+     * @param force Whether to force the written data to the device on close
+     * @return New writer
+     * @throws IOException if an I/O error occurs
+     */
+    public TaskWriter openWriter(Path path, boolean force) throws IOException {
+        return switch (this) {
+            case JSON -> new TaskFileWriter(path, force);
+            case BINARY -> new BinaryTaskWriter(path, force);
+        };
+    }
+
+    /**
+     * Returns the string representation of the StorageFormat.
+     * @return String representation
+     */
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -0,0 +1,382 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.util.Properties;
+
+/**
+ * Storage configuration of a {@link TaskRepository}.
+ * <p>
+ * Instances are immutable, every {@code with*} method returns a modified copy.
+ * Options can also be read from system properties, which allows configuring the CLI through {@code JAVA_OPTS}.
+ * </p>
+ */
+public final class StorageOptions {
+
+    /**
+     * System property enabling the journaled storage mode.
+     */
+    public static final String JOURNAL_PROPERTY = "forgetmenot.journal";
+
+    /**
+     * System property holding the journal compaction threshold in bytes.
+     */
+    public static final String COMPACTION_THRESHOLD_PROPERTY = "forgetmenot.journal.threshold";
+
+    /**
+     * System property enabling the lazy storage mode.
+     */
+    public static final String LAZY_PROPERTY = "forgetmenot.lazy";
+
+    /**
+     * System property enabling in-place updates of the storage file in lazy mode.
+     */
+    public static final String IN_PLACE_PROPERTY = "forgetmenot.inplace";
+
+    /**
+     * System property holding the storage file format, one of {@code json} and {@code binary}.
+     */
+    public static final String FORMAT_PROPERTY = "forgetmenot.format";
+
+    /**
+     * System property holding the durability level, one of {@code none}, {@code data} and {@code data+dir}.
+     */
+    public static final String DURABILITY_PROPERTY = "forgetmenot.durability";
+
+    /**
+     * System property holding the group commit window in microseconds, see {@link GroupCommitter}.
+     */
+    public static final String COMMIT_WINDOW_PROPERTY = "forgetmenot.commit.window";
+
+    /**
+     * System property holding the number of commit requests which end the group commit window early.
+     */
+    public static final String COMMIT_BATCH_PROPERTY = "forgetmenot.commit.batch";
+
+    /**
+     * Default number of commit requests which end the group commit window early.
+     */
+    public static final int DEFAULT_COMMIT_BATCH = 256;
+
+    /**
+     * Default journal size in bytes after which the journal is folded into the storage file.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Whether mutations are appended to a journal instead of rewriting the storage file.
+     */
+    private boolean journaled;
+
+    /**
+     * Journal size in bytes which triggers compaction.
+     */
+    private long compactionThreshold;
+
+    /**
+     * Whether tasks are read from the storage file on demand instead of all at once.
+     */
+    private boolean lazy;
+
+    /**
+     * Whether changed records are overwritten in place instead of rewriting the storage file in lazy mode.
+     */
+    private boolean inPlace;
+
+    /**
+     * Format of the storage file.
+     */
+    private StorageFormat format;
+
+    /**
+     * How durably changes are committed to storage.
+     */
+    private Durability durability;
+
+    /**
+     * Time in microseconds a group commit waits for further commit requests.
+     */
+    private long commitWindow;
+
+    /**
+     * Number of commit requests which end the group commit window early.
+     */
+    private int commitBatch;
+
+    private StorageOptions() {
+        this.journaled = false;
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        this.lazy = false;
+        this.inPlace = false;
+        this.format = StorageFormat.JSON;
+        this.durability = Durability.NONE;
+        this.commitWindow = 0;
+        this.commitBatch = DEFAULT_COMMIT_BATCH;
+    }
+
+    private StorageOptions(StorageOptions other) {
+        this.journaled = other.journaled;
+        this.compactionThreshold = other.compactionThreshold;
+        this.lazy = other.lazy;
+        this.inPlace = other.inPlace;
+        this.format = other.format;
+        this.durability = other.durability;
+        this.commitWindow = other.commitWindow;
+        this.commitBatch = other.commitBatch;
+    }
+
+    /**
+     * Returns the default storage options.
+     * @return Default options
+     */
+    public static StorageOptions defaults() {
+        return new StorageOptions();
+    }
+
+    /**
+     * Factory method to create {@link StorageOptions} from properties.
+     * <p>
+     * Missing properties keep their default values.
+     * </p>
+     * @param props Properties, typically {@link System#getProperties()}
+     * @return Corresponding options
+     * @throws IllegalArgumentException if a property value is invalid
+     */
+    public static StorageOptions fromProperties(Properties props) {
+        var options = new StorageOptions();
+        options.journaled = Boolean.parseBoolean(props.getProperty(JOURNAL_PROPERTY, "false"));
+        var threshold = props.getProperty(COMPACTION_THRESHOLD_PROPERTY);
+        if (threshold != null) {
+            options.compactionThreshold = parsePositiveLong(COMPACTION_THRESHOLD_PROPERTY, threshold);
+        }
+        options.lazy = Boolean.parseBoolean(props.getProperty(LAZY_PROPERTY, "false"));
+        options.inPlace = Boolean.parseBoolean(props.getProperty(IN_PLACE_PROPERTY, "false"));
+        options.format = StorageFormat.fromString(props.getProperty(FORMAT_PROPERTY, StorageFormat.JSON.toString()).trim());
+        options.durability = Durability.fromString(props.getProperty(DURABILITY_PROPERTY, Durability.NONE.toString()).trim());
+        var window = props.getProperty(COMMIT_WINDOW_PROPERTY);
+        if (window != null) {
+            options.commitWindow = parseNonNegativeLong(COMMIT_WINDOW_PROPERTY, window);
+        }
+        var batch = props.getProperty(COMMIT_BATCH_PROPERTY);
+        if (batch != null) {
+            options.commitBatch = (int) Math.min(Integer.MAX_VALUE, parsePositiveLong(COMMIT_BATCH_PROPERTY, batch));
+        }
+        return options;
+    }
+
+    /**
+     * Returns whether the journaled storage mode is enabled.
+     * @return True if journaled, false otherwise
+     */
+    public boolean isJournaled() {
+        return this.journaled;
+    }
+
+    /**
+     * Returns the journal size in bytes which triggers compaction.
+     * @return Compaction threshold
+     */
+    public long getCompactionThreshold() {
+        return this.compactionThreshold;
+    }
+
+    /**
+     * Returns whether the lazy storage mode is enabled.
+     * @return True if lazy, false otherwise
+     */
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    /**
+     * Returns whether changed records are overwritten in place in lazy mode.
+     * @return True if in-place updates are enabled, false otherwise
+     */
+    public boolean isInPlace() {
+        return this.inPlace;
+    }
+
+    /**
+     * Returns the format of the storage file.
+     * @return Storage format
+     */
+    public StorageFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Returns the durability level of commits.
+     * @return Durability level
+     */
+    public Durability getDurability() {
+        return this.durability;
+    }
+
+    /**
+     * Returns the time a group commit waits for further commit requests.
+     * @return Commit window in microseconds
+     */
+    public long getCommitWindow() {
+        return this.commitWindow;
+    }
+
+    /**
+     * Returns the number of commit requests which end the group commit window early.
+     * @return Commit batch size
+     */
+    public int getCommitBatch() {
+        return this.commitBatch;
+    }
+
+    /**
+     * Returns a copy of the options with journaled mode enabled or disabled.
+     * @param journaled Whether to enable journaled mode
+     * @return Modified options
+     */
+    public StorageOptions withJournal(boolean journaled) {
+        var copy = new StorageOptions(this);
+        copy.journaled = journaled;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with a different compaction threshold.
+     * @param compactionThreshold Journal size in bytes which triggers compaction
+     * @return Modified options
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public StorageOptions withCompactionThreshold(long compactionThreshold) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold should be a positive number.");
+        }
+        var copy = new StorageOptions(this);
+        copy.compactionThreshold = compactionThreshold;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with lazy mode enabled or disabled.
+     * <p>
+     * In lazy mode, tasks are read from the storage file only when accessed, using an offset index of the file.
+     * </p>
+     * @param lazy Whether to enable lazy mode
+     * @return Modified options
+     */
+    public StorageOptions withLazy(boolean lazy) {
+        var copy = new StorageOptions(this);
+        copy.lazy = lazy;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with in-place updates enabled or disabled.
+     * <p>
+     * In lazy mode, changed records which still fit into their place in the storage file are overwritten there
+     * and new records are appended, instead of rewriting the whole file. Unlike a rewrite, an in-place update
+     * is not atomic. Without lazy mode, the option has no effect.
+     * </p>
+     * @param inPlace Whether to enable in-place updates
+     * @return Modified options
+     */
+    public StorageOptions withInPlace(boolean inPlace) {
+        var copy = new StorageOptions(this);
+        copy.inPlace = inPlace;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with a different storage file format.
+     * <p>
+     * Lazy mode relies on the offset index of JSON records and is not supported by the binary format.
+     * </p>
+     * @param format Format of the storage file
+     * @return Modified options
+     */
+    public StorageOptions withFormat(StorageFormat format) {
+        var copy = new StorageOptions(this);
+        copy.format = format;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with a different durability level.
+     * @param durability How durably changes are committed to storage
+     * @return Modified options
+     */
+    public StorageOptions withDurability(Durability durability) {
+        var copy = new StorageOptions(this);
+        copy.durability = durability;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with a different group commit window.
+     * <p>
+     * Once a commit is requested, a {@link GroupCommitter} waits up to the window for further requests,
+     * so that all of them are committed by a single persist. Without a window, only requests arriving
+     * while the previous persist is running are grouped.
+     * </p>
+     * @param commitWindow Commit window in microseconds, zero to persist without waiting
+     * @return Modified options
+     * @throws IllegalArgumentException if the window is negative
+     */
+    public StorageOptions withCommitWindow(long commitWindow) {
+        if (commitWindow < 0) {
+            throw new IllegalArgumentException("Commit window should be a non-negative number.");
+        }
+        var copy = new StorageOptions(this);
+        copy.commitWindow = commitWindow;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the options with a different group commit batch size.
+     * @param commitBatch Number of commit requests which end the group commit window early
+     * @return Modified options
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public StorageOptions withCommitBatch(int commitBatch) {
+        if (commitBatch < 1) {
+            throw new IllegalArgumentException("Commit batch size should be a positive number.");
+        }
+        var copy = new StorageOptions(this);
+        copy.commitBatch = commitBatch;
+        return copy;
+    }
+
+    /**
+     * Parses a non-negative long property value.
+     * @param key Property key
+     * @param value Property value
+     * @return Parsed value
+     * @throws IllegalArgumentException if the value is not a non-negative number
+     */
+    private static long parseNonNegativeLong(String key, String value) {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Property " + key + " should be a non-negative number.");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of property " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Parses a positive long property value.
+     * @param key Property key
+     * @param value Property value
+     * @return Parsed value
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    private static long parsePositiveLong(String key, String value) {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 1) {
+                throw new IllegalArgumentException("Property " + key + " should be a positive number.");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of property " + key + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+
+/**
+ * Streaming writer of the task storage file.
+ * <p>
+ * Produces the same layout as {@link com.github.khgreav.forgetmenot.utils.FlatJsonProcessor#serialize(java.util.Collection)},
+ * one record per line. Besides serialized tasks, raw records can be copied from another storage file
+ * without deserializing them. The writer keeps track of the offset of every record it writes.
+ * </p>
+ * <p>
+ * Tasks are serialized one by one into a reused StringBuilder and encoded into a reused direct buffer,
+ * which is written to the file channel whenever it fills up. Memory use is therefore constant regardless
+ * of the number of written tasks.
+ * </p>
+ */
+public final class TaskFileWriter implements TaskWriter {
+
+    /**
+     * Size of the output buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Channel of the written file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Output buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Encoder of serialized records.
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * Serialized record.
+     */
+    private final StringBuilder record;
+
+    /**
+     * Characters of the serialized record, grown as needed.
+     */
+    private CharBuffer chars;
+
+    /**
+     * Number of bytes written into the file, excluding buffered bytes.
+     */
+    private long flushed;
+
+    /**
+     * Whether no record has been written yet.
+     */
+    private boolean empty;
+
+    /**
+     * Whether the written data is forced to the device on close.
+     */
+    private final boolean force;
+
+    /**
+     * Constructs a new TaskFileWriter, replacing the contents of the file.
+     * @param path Path to the written file
+     * @throws IOException if an I/O error occurs
+     */
+    public TaskFileWriter(Path path) throws IOException {
+        this(path, false);
+    }
+
+    /**
+     * Constructs a new TaskFileWriter, replacing the contents of the file.
+     * @param path Path to the written file
+     * @param force Whether to force the written data to the device on close
+     * @throws IOException if an I/O error occurs
+     */
+    public TaskFileWriter(Path path, boolean force) throws IOException {
+        this.force = force;
+        this.channel = FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.record = new StringBuilder(256);
+        this.chars = CharBuffer.allocate(256);
+        this.flushed = 0;
+        this.empty = true;
+        this.put("[");
+    }
+
+    /**
+     * Serializes and writes a task.
+     * @param task Task to write
+     * @return Offset of the record in the written file
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public long write(Task task) throws IOException {
+        long offset = this.startRecord();
+        this.record.setLength(0);
+        this.put(TaskSerializer.jsonSerialize(task, this.record));
+        return offset;
+    }
+
+    /**
+     * Copies raw records from another storage file.
+     * <p>
+     * The copied region has to start with the opening brace of a record and end with the closing brace of a record,
+     * separators of consecutive records within the region are copied as they are.
+     * </p>
+     * @param source Channel of the source storage file
+     * @param offset Offset of the region in the source file
+     * @param length Length of the region in bytes
+     * @return Offset of the region in the written file
+     * @throws IOException if an I/O error occurs
+     */
+    public long copy(FileChannel source, long offset, long length) throws IOException {
+        long start = this.startRecord();
+        this.flush();
+        long copied = 0;
+        while (copied < length) {
+            long transferred = source.transferTo(offset + copied, length - copied, this.channel);
+            if (transferred <= 0) {
+                throw new IOException("Source storage file ended before the copied region.");
+            }
+            copied += transferred;
+        }
+        this.flushed += length;
+        return start;
+    }
+
+    /**
+     * Terminates the JSON array, flushes the buffer and closes the file.
+     * <p>
+     * If requested, the written data is forced to the device before the file is closed.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.put(this.empty ? "]\n" : "\n]\n");
+            this.flush();
+            if (this.force) {
+                this.channel.force(false);
+            }
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Returns the number of bytes written so far, including buffered bytes.
+     * @return Offset of the next written byte
+     */
+    @Override
+    public long position() {
+        return this.flushed + this.buffer.position();
+    }
+
+    /**
+     * Writes the separator preceding a record.
+     * @return Offset of the record in the written file
+     * @throws IOException if an I/O error occurs
+     */
+    private long startRecord() throws IOException {
+        this.put(this.empty ? "\n  " : ",\n  ");
+        this.empty = false;
+        return this.position();
+    }
+
+    /**
+     * Encodes text into the buffer as UTF-8, flushing it when full.
+     * @param s Text to write
+     * @throws IOException if an I/O error occurs
+     */
+    private void put(CharSequence s) throws IOException {
+        int length = s.length();
+        if (this.chars.capacity() < length) {
+            this.chars = CharBuffer.allocate(Math.max(length, this.chars.capacity() * 2));
+        }
+        this.chars.clear();
+        if (s instanceof StringBuilder sb) {
+            sb.getChars(0, length, this.chars.array(), 0);
+        } else {
+            s.toString().getChars(0, length, this.chars.array(), 0);
+        }
+        this.chars.limit(length);
+        this.encoder.reset();
+        while (this.encoder.encode(this.chars, this.buffer, true).isOverflow()) {
+            this.flush();
+        }
+        while (this.encoder.flush(this.buffer).isOverflow()) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes into the file.
+     * @throws IOException if an I/O error occurs
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+        this.flushed += this.buffer.remaining();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+
+/**
+ * Append-only log of {@link Task} mutations.
+ * <p>
+ * Each line of the journal holds a single record, either {@code P <json>} for a created or updated task,
+ * or {@code D <id>} for a deleted task. Records are buffered in memory and appended to the journal file on
+ * {@link #flush()}. Replaying the journal on top of the storage snapshot restores the latest state. Records
+ * are idempotent, so replaying a journal which was already folded into the snapshot is harmless.
+ * </p>
+ * <p>
+ * Records can be added by multiple threads. A put record is encoded before the pending records are locked,
+ * so concurrent writers only contend on appending the encoded record.
+ * </p>
+ */
+public final class TaskJournal {
+
+    /**
+     * Prefix of a put record.
+     */
+    private static final String PUT_PREFIX = "P ";
+
+    /**
+     * Prefix of a delete record.
+     */
+    private static final String DELETE_PREFIX = "D ";
+
+    /**
+     * Path to the journal file.
+     */
+    private final Path path;
+
+    /**
+     * Records not yet appended to the journal file.
+     */
+    private final StringBuilder pending;
+
+    /**
+     * Durability of appended records.
+     */
+    private final Durability durability;
+
+    /**
+     * Length of the complete records of the journal file found by {@link #replay(Consumer, IntConsumer)},
+     * to which the file is truncated before the next append, or -1 if the file does not end with a torn record.
+     */
+    private long completeLength;
+
+    /**
+     * Constructs a new TaskJournal which leaves appended records to the operating system.
+     * @param path Path to the journal file
+     */
+    public TaskJournal(Path path) {
+        this(path, Durability.NONE);
+    }
+
+    /**
+     * Constructs a new TaskJournal.
+     * @param path Path to the journal file
+     * @param durability Durability of appended records
+     */
+    public TaskJournal(Path path, Durability durability) {
+        this.path = path;
+        this.pending = new StringBuilder();
+        this.durability = durability;
+        this.completeLength = -1;
+    }
+
+    /**
+     * Records creation or update of a task.
+     * @param task Created or updated task
+     */
+    public void recordPut(Task task) {
+        var record = TaskSerializer.jsonSerialize(task, new StringBuilder(PUT_PREFIX)).append('\n');
+        synchronized (this) {
+            this.pending.append(record);
+        }
+    }
+
+    /**
+     * Records deletion of a task.
+     * @param id ID of the deleted task
+     */
+    public synchronized void recordDelete(int id) {
+        this.pending.append(DELETE_PREFIX)
+            .append(id)
+            .append('\n');
+    }
+
+    /**
+     * Returns whether there are records not yet appended to the journal file.
+     * @return True if there are pending records, false otherwise
+     */
+    public synchronized boolean hasPending() {
+        return this.pending.length() > 0;
+    }
+
+    /**
+     * Appends pending records to the journal file.
+     * <p>
+     * Depending on the durability, appended records are forced to the device, together with the directory entry
+     * of a newly created journal file. A torn record found by the last replay is cut off first, so that appended
+     * records are not merged into it.
+     * </p>
+     * @return Number of appended bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized long flush() throws IOException {
+        if (!this.hasPending()) {
+            return 0;
+        }
+        boolean created = !Files.exists(this.path);
+        var buf = ByteBuffer.wrap(this.pending.toString().getBytes(StandardCharsets.UTF_8));
+        try (var channel = FileChannel.open(
+            this.path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND
+        )) {
+            if (this.completeLength >= 0) {
+                channel.truncate(this.completeLength);
+                this.completeLength = -1;
+            }
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            if (this.durability.forcesData()) {
+                channel.force(false);
+            }
+        }
+        if (created && this.durability.forcesDirectory()) {
+            AtomicFiles.forceDirectory(this.path);
+        }
+        this.pending.setLength(0);
+        return buf.limit();
+    }
+
+    /**
+     * Returns the size of the journal file.
+     * @return Size in bytes, zero if the journal file does not exist
+     * @throws IOException if an I/O error occurs
+     */
+    public long size() throws IOException {
+        return Files.exists(this.path) ? Files.size(this.path) : 0;
+    }
+
+    /**
+     * Replays journal records in the order they were recorded.
+     * <p>
+     * A trailing record without a line terminator is the result of an interrupted append and is ignored.
+     * It is cut off by the next {@link #flush()}.
+     * </p>
+     * @param onPut Consumer of created or updated tasks
+     * @param onDelete Consumer of deleted task IDs
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the journal contains an invalid record
+     */
+    public void replay(Consumer<Task> onPut, IntConsumer onDelete) throws IOException {
+        if (!Files.exists(this.path)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(this.path);
+        int complete = bytes.length;
+        while (complete > 0 && bytes[complete - 1] != '\n') {
+            complete--;
+        }
+        synchronized (this) {
+            this.completeLength = complete < bytes.length ? complete : -1;
+        }
+        var content = new String(bytes, 0, complete, StandardCharsets.UTF_8);
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) != -1) {
+            var line = content.substring(start, end);
+            start = end + 1;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.startsWith(PUT_PREFIX)) {
+                onPut.accept(FlatJsonProcessor.deserializeObject(line, PUT_PREFIX.length(), line.length()));
+            } else if (line.startsWith(DELETE_PREFIX)) {
+                onDelete.accept(Integer.parseInt(line.substring(DELETE_PREFIX.length()).trim()));
+            } else {
+                throw new IllegalArgumentException("Invalid journal record: " + line);
+            }
+        }
+    }
+
+    /**
+     * Discards the journal file and all pending records.
+     * <p>
+     * Called once the journal has been folded into a fresh storage snapshot.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void reset() throws IOException {
+        this.pending.setLength(0);
+        this.completeLength = -1;
+        Files.deleteIfExists(this.path);
+    }
+}
@@ -0,0 +1,330 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Insertion-ordered map of tasks keyed by their primitive IDs.
+ * <p>
+ * Entries are stored in parallel arrays of IDs and tasks in insertion order, and located through an open-addressing
+ * hash table with linear probing, which holds positions of entries. Unlike a {@code LinkedHashMap<Integer, Task>},
+ * the map allocates no key or entry objects, so a task costs about 16 bytes of the map on top of the task itself.
+ * Replacing a task keeps its position. Removed entries leave holes in the entry arrays, which are compacted
+ * once the arrays fill up. The map is not thread safe and must not be modified while iterating over it.
+ * </p>
+ */
+public final class TaskMap {
+
+    /**
+     * Hash table slot which was never used.
+     */
+    private static final int EMPTY = 0;
+
+    /**
+     * Hash table slot of a removed entry.
+     */
+    private static final int REMOVED = -1;
+
+    /**
+     * Hash table holding entry positions plus one, twice as long as the entry arrays.
+     */
+    private int[] slots;
+
+    /**
+     * Task IDs in insertion order.
+     */
+    private int[] ids;
+
+    /**
+     * Tasks in insertion order, null for removed entries.
+     */
+    private Task[] tasks;
+
+    /**
+     * Number of used entry positions, including removed entries.
+     */
+    private int count;
+
+    /**
+     * Number of tasks in the map.
+     */
+    private int size;
+
+    /**
+     * Constructs a new empty TaskMap.
+     */
+    public TaskMap() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new empty TaskMap.
+     * @param capacity Expected number of tasks
+     */
+    public TaskMap(int capacity) {
+        this.allocate(Integer.highestOneBit(Math.max(capacity - 1, 15)) << 1);
+    }
+
+    /**
+     * Returns the task with a given ID.
+     * @param id Task ID
+     * @return Task, or null if there is no task with the given ID
+     */
+    public Task get(int id) {
+        int pos = this.find(id);
+        return pos < 0 ? null : this.tasks[pos];
+    }
+
+    /**
+     * Checks whether the map contains a task with a given ID.
+     * @param id Task ID
+     * @return True if the task is present, false otherwise
+     */
+    public boolean containsKey(int id) {
+        return this.find(id) >= 0;
+    }
+
+    /**
+     * Puts a task into the map under its ID.
+     * <p>
+     * A task replacing another task with the same ID keeps its position.
+     * </p>
+     * @param task Task to put
+     * @return Replaced task, or null if there was no task with the same ID
+     */
+    public Task put(Task task) {
+        int id = task.getId();
+        int pos = this.find(id);
+        if (pos >= 0) {
+            var previous = this.tasks[pos];
+            this.tasks[pos] = task;
+            return previous;
+        }
+        this.append(id, task);
+        return null;
+    }
+
+    /**
+     * Puts a task into the map unless there already is a task with the same ID.
+     * @param task Task to put
+     * @return Present task, or null if the task was put
+     */
+    public Task putIfAbsent(Task task) {
+        int pos = this.find(task.getId());
+        if (pos >= 0) {
+            return this.tasks[pos];
+        }
+        this.append(task.getId(), task);
+        return null;
+    }
+
+    /**
+     * Removes the task with a given ID.
+     * @param id Task ID
+     * @return Removed task, or null if there was no task with the given ID
+     */
+    public Task remove(int id) {
+        int mask = this.slots.length - 1;
+        for (int slot = hash(id) & mask; this.slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int pos = this.slots[slot] - 1;
+            if (pos >= 0 && this.ids[pos] == id) {
+                var removed = this.tasks[pos];
+                this.tasks[pos] = null;
+                this.slots[slot] = REMOVED;
+                this.size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all tasks from the map.
+     */
+    public void clear() {
+        Arrays.fill(this.slots, EMPTY);
+        Arrays.fill(this.tasks, 0, this.count, null);
+        this.count = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of tasks in the map.
+     * @return Number of tasks
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the maximum task ID in the map.
+     * @return Maximum task ID, zero if the map is empty
+     */
+    public int maxId() {
+        int max = 0;
+        for (int pos = 0; pos < this.count; pos++) {
+            if (this.tasks[pos] != null) {
+                max = Math.max(max, this.ids[pos]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Passes all tasks to a consumer in insertion order.
+     * @param consumer Consumer of tasks
+     */
+    public void forEach(Consumer<Task> consumer) {
+        for (int pos = 0; pos < this.count; pos++) {
+            if (this.tasks[pos] != null) {
+                consumer.accept(this.tasks[pos]);
+            }
+        }
+    }
+
+    /**
+     * Returns a read-only view of the tasks in insertion order.
+     * @return Collection of tasks backed by the map
+     */
+    public Collection<Task> values() {
+        return new AbstractCollection<Task>() {
+
+            @Override
+            public Iterator<Task> iterator() {
+                return new Iterator<Task>() {
+
+                    private int pos = skip(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.pos < count;
+                    }
+
+                    @Override
+                    public Task next() {
+                        if (this.pos >= count) {
+                            throw new NoSuchElementException();
+                        }
+                        var task = tasks[this.pos];
+                        this.pos = skip(this.pos + 1);
+                        return task;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void forEach(Consumer<? super Task> consumer) {
+                TaskMap.this.forEach(consumer::accept);
+            }
+        };
+    }
+
+    /**
+     * Finds the entry position of a task.
+     * @param id Task ID
+     * @return Entry position, or -1 if there is no task with the given ID
+     */
+    private int find(int id) {
+        int mask = this.slots.length - 1;
+        for (int slot = hash(id) & mask; this.slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int pos = this.slots[slot] - 1;
+            if (pos >= 0 && this.ids[pos] == id) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a new entry, making room for it first if the entry arrays are full.
+     * @param id Task ID
+     * @param task Task
+     */
+    private void append(int id, Task task) {
+        if (this.count == this.ids.length) {
+            this.resize(this.size < this.ids.length / 2 ? this.ids.length : this.ids.length * 2);
+        }
+        int pos = this.count++;
+        this.ids[pos] = id;
+        this.tasks[pos] = task;
+        this.insert(id, pos);
+        this.size++;
+    }
+
+    /**
+     * Inserts an entry position into the first free slot of the hash table.
+     * @param id Task ID
+     * @param pos Entry position
+     */
+    private void insert(int id, int pos) {
+        int mask = this.slots.length - 1;
+        int slot = hash(id) & mask;
+        while (this.slots[slot] > EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        this.slots[slot] = pos + 1;
+    }
+
+    /**
+     * Compacts the entry arrays into new arrays and rebuilds the hash table.
+     * @param capacity Capacity of the new entry arrays
+     */
+    private void resize(int capacity) {
+        var oldIds = this.ids;
+        var oldTasks = this.tasks;
+        int oldCount = this.count;
+        this.allocate(capacity);
+        for (int pos = 0; pos < oldCount; pos++) {
+            if (oldTasks[pos] != null) {
+                this.ids[this.count] = oldIds[pos];
+                this.tasks[this.count] = oldTasks[pos];
+                this.insert(oldIds[pos], this.count);
+                this.count++;
+            }
+        }
+    }
+
+    /**
+     * Allocates empty entry arrays and a hash table.
+     * @param capacity Capacity of the entry arrays, a power of two
+     */
+    private void allocate(int capacity) {
+        this.ids = new int[capacity];
+        this.tasks = new Task[capacity];
+        this.slots = new int[capacity * 2];
+        this.count = 0;
+    }
+
+    /**
+     * Returns the next entry position holding a task.
+     * @param pos Entry position to start from, inclusive
+     * @return Entry position, or the number of used entry positions if there is none
+     */
+    private int skip(int pos) {
+        while (pos < this.count && this.tasks[pos] == null) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Spreads sequential task IDs over the hash table.
+     * @param id Task ID
+     * @return Hash code
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
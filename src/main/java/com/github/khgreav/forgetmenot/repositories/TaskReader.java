@@ -0,0 +1,22 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Reader of a task storage file in one of the {@link StorageFormat}s.
+ */
+public interface TaskReader {
+
+    /**
+     * Reads all task records of a storage file.
+     * @param path Path to the storage file
+     * @param consumer Consumer of the decoded tasks, in file order
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file contains an invalid record
+     */
+    void read(Path path, Consumer<Task> consumer) throws IOException;
+}
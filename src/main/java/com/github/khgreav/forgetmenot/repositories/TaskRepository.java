@@ -1,20 +1,39 @@
 package com.github.khgreav.forgetmenot.repositories;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
+import com.github.khgreav.forgetmenot.enums.SortKey;
 import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.metrics.CommandStats;
+import com.github.khgreav.forgetmenot.metrics.Counter;
+import com.github.khgreav.forgetmenot.metrics.Phase;
 import com.github.khgreav.forgetmenot.models.Task;
 import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+import com.github.khgreav.forgetmenot.utils.TaskSerializer;
 
 /**
  * Repository for managing {@link Task} entities.
@@ -22,9 +41,38 @@ import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
  * This repository provides methods to create, read, update, and delete tasks.
  * It also handles persistence of tasks to a file storage.
  * </p>
+ * <p>
+ * The storage file is not loaded until a task is accessed or changed. Until then, tasks can be streamed from the
+ * storage file by {@link #forEach(Consumer)} with memory bounded by the size of a single record.
+ * </p>
+ * <p>
+ * The repository is safe for use by multiple threads. Mutations share a read lock, so that mutations of different
+ * tasks run in parallel, while mutations of the same task are serialized by one of a fixed set of lock stripes
+ * selected by the task ID. Shared bookkeeping, such as the in-memory map and the indexes, is updated within a short
+ * critical section. Persisting takes the write lock, so it observes a consistent state of all tasks with no mutation
+ * in progress. Iteration captures the tasks under the write lock, but consumes them after releasing it, so that
+ * a slow consumer, such as a daemon client reading a long listing, never blocks other commands. Stored tasks are
+ * never changed in place, an update stores a changed copy instead, so captured tasks stay consistent while they
+ * are consumed.
+ * </p>
  */
 public class TaskRepository {
 
+    /**
+     * Separator preceding every record but the first in the storage file, as written by {@link TaskFileWriter}.
+     */
+    private static final byte[] RECORD_SEPARATOR = ",\n  ".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Terminator of the JSON array following the last record in the storage file, as written by {@link TaskFileWriter}.
+     */
+    private static final byte[] ARRAY_END = "\n]\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Number of lock stripes, a power of two.
+     */
+    private static final int STRIPES = 64;
+
     /**
      * Path to the storage file.
      */
@@ -35,83 +83,544 @@ public class TaskRepository {
      */
     private Path sequencePath;
 
+    /**
+     * Path to the offset index file.
+     */
+    private Path indexPath;
+
     /**
      * In-memory map of tasks.
+     * <p>
+     * Until the storage file is loaded, and in lazy mode, the map only holds tasks read from the storage file
+     * on demand, or created or updated since the storage file was written.
+     * </p>
+     */
+    private TaskMap tasks;
+
+    /**
+     * Whether all tasks of the storage file are loaded into the in-memory map.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * Index of records in the storage file, null unless in lazy mode.
+     */
+    private OffsetIndex index;
+
+    /**
+     * Path to the status index file.
      */
-    private Map<Integer, Task> tasks;
+    private Path statusPath;
+
+    /**
+     * Index of task IDs by status, null until the storage file is loaded, unless in lazy mode.
+     */
+    private StatusIndex statusIndex;
+
+    /**
+     * Path to the persisted time index in lazy mode.
+     */
+    private Path timePath;
+
+    /**
+     * Index of tasks by creation and update time, null until first needed by {@link #forEachBetween}.
+     */
+    private TimeIndex timeIndex;
+
+    /**
+     * Whether task IDs are in ascending order of insertion, which allows listing tasks in order through the status index.
+     */
+    private boolean ordered;
+
+    /**
+     * IDs of tasks in the storage file deleted since the storage file was written.
+     */
+    private Set<Integer> deleted;
+
+    /**
+     * IDs of tasks created or updated since the storage file was written.
+     */
+    private BitSet changed;
+
+    /**
+     * Whether the repository holds changes which were not persisted yet.
+     */
+    private volatile boolean dirty;
 
     /**
      * Sequence number for generating unique task IDs.
      */
-    private int sequence;
+    private final AtomicInteger sequence;
 
     /**
-     * Constructs a new TaskRepository.
+     * Storage configuration.
+     */
+    private StorageOptions options;
+
+    /**
+     * Journal of mutations not yet folded into the storage file.
+     */
+    private TaskJournal journal;
+
+    /**
+     * Lock shared by mutations and held exclusively by operations which need a consistent view of all tasks.
+     */
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Locks serializing mutations of the same task, selected by the task ID.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Monitor guarding the in-memory map, the status index and the change tracking while mutations run in parallel.
+     */
+    private final Object mutex;
+
+    /**
+     * Number of open snapshots reading the storage file in lazy mode, which must not be updated in place meanwhile.
+     */
+    private final AtomicInteger readers;
+
+    /**
+     * Constructs a new TaskRepository with default storage options.
      * @param storagePath Path to the storage file
      * @param sequencePath Path to the sequence file
      * @throws IOException if an I/O error occurs
      */
     public TaskRepository(Path storagePath, Path sequencePath) throws IOException {
+        this(storagePath, sequencePath, StorageOptions.defaults());
+    }
+
+    /**
+     * Constructs a new TaskRepository.
+     * <p>
+     * The journal, the offset index, the status index and the time index are stored next to the storage file,
+     * with the {@code .journal}, {@code .idx}, {@code .sidx} and {@code .tidx} extensions respectively.
+     * </p>
+     * @param storagePath Path to the storage file
+     * @param sequencePath Path to the sequence file
+     * @param options Storage configuration
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if lazy mode is combined with the binary storage format
+     */
+    public TaskRepository(Path storagePath, Path sequencePath, StorageOptions options) throws IOException {
+        if (options.isLazy() && options.getFormat() == StorageFormat.BINARY) {
+            throw new IllegalArgumentException("Lazy mode is not supported by the binary storage format.");
+        }
         this.storagePath = storagePath;
         this.sequencePath = sequencePath;
+        this.options = options;
+        this.indexPath = siblingPath(storagePath, ".idx");
+        this.statusPath = siblingPath(storagePath, ".sidx");
+        this.timePath = siblingPath(storagePath, ".tidx");
+        this.journal = new TaskJournal(siblingPath(storagePath, ".journal"), options.getDurability());
+        this.sequence = new AtomicInteger(1);
+        this.lock = new ReentrantReadWriteLock();
+        this.stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mutex = new Object();
+        this.readers = new AtomicInteger();
         this.initializeStorage();
-        this.initializeSequence();
     }
 
     /**
      * Creates a new task with the given description.
+     * <p>
+     * IDs are allocated atomically, so tasks created concurrently always get distinct IDs.
+     * </p>
      * @param desc Task description
      * @return ID of the newly created task
      */
     public int create(String desc) {
-        var now = Instant.now();
-        int id = this.sequence;
-        this.tasks.put(
-            id,
-            new Task(
+        this.awaitLoaded();
+        this.lock.readLock().lock();
+        try {
+            var now = Instant.now();
+            int id = this.sequence.getAndIncrement();
+            var task = new Task(
                 id,
                 desc,
                 TaskStatus.TODO,
                 now,
                 now
-            )
-        );
-        this.sequence++;
-        return id;
+            );
+            if (this.options.isJournaled()) {
+                this.journal.recordPut(task);
+            }
+            synchronized (this.mutex) {
+                this.tasks.put(task);
+                this.statusIndex.put(id, task.getStatus());
+                if (this.timeIndex != null) {
+                    this.timeIndex.put(task);
+                }
+                this.changed.set(id);
+                this.dirty = true;
+            }
+            return id;
+        } finally {
+            this.lock.readLock().unlock();
+        }
     }
 
     /**
-     * Returns all tasks in the repository.
+     * Returns a snapshot of all tasks in the repository.
+     * <p>
+     * In lazy mode, all tasks are read from the storage file.
+     * </p>
      * @return Collection of all tasks
+     * @throws UncheckedIOException if an I/O error occurs
      */
     public Collection<Task> listAll() {
-        return Collections.unmodifiableCollection(this.tasks.values());
+        this.awaitLoaded();
+        var result = new ArrayList<Task>();
+        this.forEach(result::add);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Passes all tasks in the repository to a consumer, one at a time.
+     * <p>
+     * If the storage file is not loaded, tasks are parsed from it as they are consumed and are not retained.
+     * Tasks are consumed in the same order as returned by {@link #listAll()}.
+     * </p>
+     * <p>
+     * Tasks are captured under the write lock, which is released before the first task is consumed, so that a slow
+     * consumer blocks neither mutations nor persisting. Tasks are consumed as they were when the iteration started.
+     * Consumed tasks are shared with the repository and must not be changed.
+     * </p>
+     * @param consumer Consumer of tasks
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    public void forEach(Consumer<Task> consumer) {
+        List<Task> captured = null;
+        Snapshot snapshot = null;
+        this.lock.writeLock().lock();
+        try {
+            if (this.loaded) {
+                captured = new ArrayList<Task>(this.tasks.values());
+            } else {
+                snapshot = new Snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        if (captured != null) {
+            captured.forEach(consumer);
+            return;
+        }
+        try (var stored = snapshot) {
+            stored.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passes all tasks with a given status to a consumer, one at a time.
+     * <p>
+     * Once the status index is available, only the matching tasks are looked up, otherwise all tasks are scanned.
+     * In lazy mode, matching tasks are read from the storage file without being retained.
+     * </p>
+     * @param status TaskStatus to filter tasks by
+     * @param consumer Consumer of tasks
+     * @throws UncheckedIOException if an I/O error occurs
+     * @see #forEach(Consumer)
+     */
+    public void forEach(TaskStatus status, Consumer<Task> consumer) {
+        List<Task> captured = null;
+        int[] ids = null;
+        Snapshot snapshot = null;
+        this.lock.writeLock().lock();
+        try {
+            if (this.loaded) {
+                captured = new ArrayList<Task>(this.statusIndex.count(status));
+                if (this.ordered) {
+                    for (int id = this.statusIndex.next(status, 0); id >= 0; id = this.statusIndex.next(status, id + 1)) {
+                        captured.add(this.tasks.get(id));
+                    }
+                } else {
+                    for (Task task : this.tasks.values()) {
+                        if (task.getStatus() == status) {
+                            captured.add(task);
+                        }
+                    }
+                }
+            } else {
+                snapshot = new Snapshot();
+                if (this.statusIndex != null && this.ordered) {
+                    var matching = IntStream.builder();
+                    for (int id = this.statusIndex.next(status, 0); id >= 0; id = this.statusIndex.next(status, id + 1)) {
+                        matching.add(id);
+                    }
+                    ids = matching.build().toArray();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        if (captured != null) {
+            captured.forEach(consumer);
+            return;
+        }
+        try (var stored = snapshot) {
+            if (ids == null) {
+                stored.forEach(task -> {
+                    if (task.getStatus() == status) {
+                        consumer.accept(task);
+                    }
+                });
+                return;
+            }
+            for (int id : ids) {
+                var task = stored.find(id);
+                if (task != null) {
+                    consumer.accept(task);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passes tasks to a consumer, one at a time, until the consumer declines further tasks.
+     * <p>
+     * Tasks are consumed in the same order as by {@link #forEach(Consumer)}. Once the consumer declines,
+     * the rest of the storage file is neither read nor parsed.
+     * </p>
+     * @param status TaskStatus to filter tasks by, or null to consume all tasks
+     * @param consumer Consumer of tasks, returning false to stop
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    public void forEachWhile(TaskStatus status, Predicate<Task> consumer) {
+        Consumer<Task> stopping = task -> {
+            if (!consumer.test(task)) {
+                throw StopIteration.INSTANCE;
+            }
+        };
+        try {
+            if (status == null) {
+                this.forEach(stopping);
+            } else {
+                this.forEach(status, stopping);
+            }
+        } catch (StopIteration e) {
+            // Consumer declined further tasks
+        }
+    }
+
+    /**
+     * Returns whether tasks are known to be consumed in ascending order of their IDs.
+     * <p>
+     * The order is known once the storage file is loaded, or indexed in lazy mode.
+     * </p>
+     * @return True if tasks are consumed in ascending order of IDs, false if not or unknown
+     */
+    public boolean isOrdered() {
+        this.lock.readLock().lock();
+        try {
+            return this.ordered && (this.loaded || this.index != null);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes tasks with a creation or update time within a range to a consumer, latest first, until the consumer
+     * declines further tasks.
+     * <p>
+     * Tasks are consumed in the order of {@link SortKey#comparator()}. The first range query builds the time index,
+     * see {@link TimeIndex}, from the loaded tasks, or from the persisted index in lazy mode. The index is kept up to
+     * date by later mutations, so subsequent queries take logarithmic time plus the number of tasks in the range.
+     * Matching tasks are captured under the write lock and consumed after it is released, see
+     * {@link #forEach(Consumer)}.
+     * </p>
+     * @param key Timestamp to filter tasks by, either {@link SortKey#CREATED} or {@link SortKey#UPDATED}
+     * @param since Start of the range, inclusive, or null for no lower bound
+     * @param until End of the range, exclusive, or null for no upper bound
+     * @param consumer Consumer of tasks, returning false to stop
+     * @throws IllegalArgumentException if the key is not a timestamp
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    public void forEachBetween(SortKey key, Instant since, Instant until, Predicate<Task> consumer) {
+        if (key == SortKey.ID) {
+            throw new IllegalArgumentException("Tasks can only be ranged by creation or update time.");
+        }
+        long from = since != null ? since.getEpochSecond() : Long.MIN_VALUE;
+        long to = until == null ? Long.MAX_VALUE
+            : until.getNano() > 0 ? until.getEpochSecond() : until.getEpochSecond() - 1;
+        var matching = IntStream.builder();
+        int[] ids;
+        List<Task> captured = null;
+        Snapshot snapshot = null;
+        this.lock.writeLock().lock();
+        try {
+            this.ensureTimeIndex();
+            this.timeIndex.forEachDescending(key, from, to, id -> {
+                matching.add(id);
+                return true;
+            });
+            ids = matching.build().toArray();
+            if (this.loaded) {
+                captured = new ArrayList<Task>(ids.length);
+                for (int id : ids) {
+                    captured.add(this.tasks.get(id));
+                }
+            } else {
+                snapshot = new Snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        try (var stored = snapshot) {
+            var bucket = new ArrayList<Task>();
+            long bucketSecond = Long.MIN_VALUE;
+            for (int i = 0; i < ids.length; i++) {
+                var task = captured != null ? captured.get(i) : stored.find(ids[i]);
+                if (task == null) {
+                    continue;
+                }
+                long second = timestamp(key, task).getEpochSecond();
+                if (second != bucketSecond) {
+                    if (!consumeBucket(bucket, key, since, until, consumer)) {
+                        return;
+                    }
+                    bucketSecond = second;
+                }
+                bucket.add(task);
+            }
+            consumeBucket(bucket, key, since, until, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passes tasks sharing a second to a consumer in order, skipping tasks outside of a range, and clears them.
+     * @param bucket Tasks sharing a second
+     * @param key Timestamp to filter tasks by
+     * @param since Start of the range, inclusive, or null for no lower bound
+     * @param until End of the range, exclusive, or null for no upper bound
+     * @param consumer Consumer of tasks, returning false to stop
+     * @return True if the consumer accepts further tasks, false otherwise
+     */
+    private static boolean consumeBucket(
+        List<Task> bucket,
+        SortKey key,
+        Instant since,
+        Instant until,
+        Predicate<Task> consumer
+    ) {
+        bucket.sort(key.comparator());
+        try {
+            for (Task task : bucket) {
+                var time = timestamp(key, task);
+                if ((since == null || !time.isBefore(since)) && (until == null || time.isBefore(until))
+                    && !consumer.test(task)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Returns a timestamp of a task.
+     * @param key Timestamp, either {@link SortKey#CREATED} or {@link SortKey#UPDATED}
+     * @param task Task
+     * @return Creation or update time of the task
+     */
+    private static Instant timestamp(SortKey key, Task task) {
+        return key == SortKey.CREATED ? task.getCreatedAt() : task.getUpdatedAt();
     }
 
     /**
      * Retrieves a task by its ID.
+     * <p>
+     * The returned task is a copy, changes to it are stored by {@link #update(Task)}. When tasks are mutated
+     * by multiple threads, use {@link #update(int, Consumer)} instead, so that concurrent changes are not lost.
+     * </p>
      * @param id Task ID
      * @return Corresponding Task
      * @throws NoSuchElementException if the task with the given ID does not exist
      */
     public Task get(int id) {
-        if (!this.tasks.containsKey(id)) {
-            throw new NoSuchElementException("Task ID " + id + " does not exist.");
+        this.awaitLoaded();
+        this.lock.readLock().lock();
+        var stripe = this.stripe(id);
+        stripe.lock();
+        try {
+            var task = this.find(id);
+            if (task == null) {
+                throw new NoSuchElementException("Task ID " + id + " does not exist.");
+            }
+            return task.copy();
+        } finally {
+            stripe.unlock();
+            this.lock.readLock().unlock();
         }
-        return this.tasks.get(id);
     }
 
     /**
      * Updates an existing task.
+     * <p>
+     * A copy of the task is stored, so later changes to the given task do not affect the repository.
+     * </p>
      * @param task Task to update
      * @throws NoSuchElementException if the task with the given ID does not exist
      */
     public void update(Task task) {
         var id = task.getId();
-        if (!this.tasks.containsKey(id)) {
-            throw new NoSuchElementException("Task ID %d does not exist" + id + '.');
+        this.awaitLoaded();
+        this.lock.readLock().lock();
+        var stripe = this.stripe(id);
+        stripe.lock();
+        try {
+            this.store(task.copy());
+        } finally {
+            stripe.unlock();
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically changes an existing task.
+     * <p>
+     * A copy of the task is retrieved, passed to the mutation and stored in place of the task while no other thread
+     * can change it. The stored task itself is never changed, so iterations which captured it are not affected.
+     * </p>
+     * @param id Task ID
+     * @param mutation Change applied to the task
+     * @throws NoSuchElementException if the task with the given ID does not exist
+     */
+    public void update(int id, Consumer<Task> mutation) {
+        this.awaitLoaded();
+        this.lock.readLock().lock();
+        var stripe = this.stripe(id);
+        stripe.lock();
+        try {
+            var task = this.find(id);
+            if (task == null) {
+                throw new NoSuchElementException("Task ID " + id + " does not exist.");
+            }
+            var changed = task.copy();
+            mutation.accept(changed);
+            this.store(changed);
+        } finally {
+            stripe.unlock();
+            this.lock.readLock().unlock();
         }
-        tasks.put(id, task);
     }
 
     /**
@@ -120,50 +629,604 @@ public class TaskRepository {
      * @throws NoSuchElementException if the task with the given ID does not exist
      */
     public void delete(int id) {
-        if (!this.tasks.containsKey(id)) {
-            throw new NoSuchElementException("Task ID %d does not exist" + id + '.');
+        this.awaitLoaded();
+        this.lock.readLock().lock();
+        var stripe = this.stripe(id);
+        stripe.lock();
+        try {
+            synchronized (this.mutex) {
+                if (!this.exists(id)) {
+                    throw new NoSuchElementException("Task ID %d does not exist" + id + '.');
+                }
+                this.forget(id);
+                this.dirty = true;
+            }
+            if (this.options.isJournaled()) {
+                this.journal.recordDelete(id);
+            }
+        } finally {
+            stripe.unlock();
+            this.lock.readLock().unlock();
         }
-        this.tasks.remove(id);
+    }
+
+    /**
+     * Imports a task, keeping its description, status and timestamps.
+     * <p>
+     * If a task with the same ID already exists, the imported task is merged according to the conflict policy.
+     * The sequence is advanced past the imported ID, so IDs of created tasks never collide with imported ones.
+     * </p>
+     * @param task Imported task
+     * @param policy How the task is merged if its ID is taken
+     * @return ID under which the task was stored, or zero if it was skipped
+     */
+    public int importTask(Task task, ConflictPolicy policy) {
+        this.lock.writeLock().lock();
+        try {
+            this.ensureLoaded();
+            int id = task.getId();
+            if (this.exists(id)) {
+                switch (policy) {
+                    case SKIP -> {
+                        return 0;
+                    }
+                    case RENUMBER -> {
+                        id = this.sequence.getAndIncrement();
+                        task = new Task(id, task.getDesc(), task.getStatus(), task.getCreatedAt(), task.getUpdatedAt());
+                    }
+                    case REPLACE -> {
+                    }
+                }
+            } else {
+                if (id < this.sequence.get()) {
+                    this.ordered = false;
+                }
+                this.sequence.accumulateAndGet(id + 1, Math::max);
+            }
+            this.deleted.remove(id);
+            this.tasks.put(task);
+            this.statusIndex.put(id, task.getStatus());
+            if (this.timeIndex != null) {
+                this.timeIndex.put(task);
+            }
+            this.changed.set(id);
+            if (this.options.isJournaled()) {
+                this.journal.recordPut(task);
+            }
+            this.dirty = true;
+            return id;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exports all tasks into a file in the given format.
+     * <p>
+     * Tasks are streamed into a temporary file, which then replaces the target file. Unsaved changes are included.
+     * </p>
+     * @param target Path to the exported file
+     * @param format Format of the exported file
+     * @return Size of the exported file in bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public long exportTasks(Path target, StorageFormat format) throws IOException {
+        var tmpPath = AtomicFiles.tempPath(target);
+        var writer = format.openWriter(tmpPath, this.options.getDurability().forcesData());
+        try (writer) {
+            this.forEach(task -> {
+                try {
+                    writer.write(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e;
+        }
+        AtomicFiles.commit(tmpPath, target, this.options.getDurability());
+        return writer.position();
+    }
+
+    /**
+     * Returns the storage configuration.
+     * @return Storage options
+     */
+    public StorageOptions getOptions() {
+        return this.options;
+    }
+
+    /**
+     * Returns whether the repository holds changes which were not persisted yet.
+     * @return True if there are unsaved changes, false otherwise
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * Loads all tasks of the storage file into memory, unless they are loaded already.
+     * <p>
+     * Later iterations consume the in-memory tasks instead of reading the storage file. In lazy mode, the storage
+     * file is indexed instead of loaded, see {@link StorageOptions#withLazy(boolean)}.
+     * </p>
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    public void load() {
+        this.awaitLoaded();
     }
 
     /**
      * Persists the current state of the repository to storage.
+     * <p>
+     * Nothing is written unless a task was created, updated or deleted since the last persist, or a leftover
+     * journal has to be folded into the storage file. Read-only commands therefore leave storage untouched.
+     * </p>
+     * <p>
+     * In journaled mode, only the mutations made since the last persist are appended to the journal.
+     * Once the journal grows past the compaction threshold, it is folded into a fresh storage file.
+     * Otherwise, the whole storage file is rewritten and any leftover journal is discarded.
+     * </p>
+     * <p>
+     * Files are replaced atomically and forced to the device according to the configured {@link Durability}.
+     * With in-place updates enabled in lazy mode, changed records are overwritten within the storage file instead,
+     * see {@link StorageOptions#withInPlace(boolean)}.
+     * The sequence file is committed first: sequence numbers only grow, so a crash before the tasks are committed
+     * leaves a sequence which is still ahead of every issued ID, and IDs of deleted tasks are never reused.
+     * </p>
+     * @return Number of written bytes, zero if there was nothing to persist
      * @throws IOException if an I/O error occurs
      */
-    public void persist() throws IOException {
-        Files.writeString(
-            this.storagePath,
-            FlatJsonProcessor.serialize(Collections.unmodifiableCollection(this.tasks.values())),
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING
-        );
-        Files.writeString(
+    public long persist() throws IOException {
+        if (!this.dirty) {
+            return 0;
+        }
+        this.lock.writeLock().lock();
+        var timer = CommandStats.time(Phase.PERSIST);
+        try {
+            if (!this.dirty) {
+                return 0;
+            }
+            // A replayed leftover journal makes the repository dirty before the sequence was initialized
+            this.ensureLoaded();
+            long written = this.writeSequence();
+            if (this.options.isJournaled()) {
+                written += this.journal.flush();
+            }
+            if (!this.options.isJournaled() || this.journal.size() >= this.options.getCompactionThreshold()) {
+                written += this.writeSnapshot();
+                this.journal.reset();
+            }
+            this.dirty = false;
+            return written;
+        } finally {
+            timer.close();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the storage file with all tasks in the repository.
+     * <p>
+     * Tasks are streamed into a temporary file by a {@link TaskWriter} of the configured {@link StorageFormat},
+     * without encoding the whole file in memory, which then replaces the storage file. The temporary file is removed
+     * if writing fails. Any offset or status index is removed, as it no longer describes the storage file.
+     * </p>
+     * @return Number of written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    private long writeSnapshot() throws IOException {
+        if (this.index != null) {
+            if (this.options.isInPlace()) {
+                long written = this.writeInPlace();
+                if (written >= 0) {
+                    return written;
+                }
+            }
+            return this.writeLazySnapshot();
+        }
+        var tmpPath = AtomicFiles.tempPath(this.storagePath);
+        var writer = this.options.getFormat().openWriter(tmpPath, this.options.getDurability().forcesData());
+        try (writer) {
+            for (Task task : this.tasks.values()) {
+                writer.write(task);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e;
+        }
+        AtomicFiles.commit(tmpPath, this.storagePath, this.options.getDurability());
+        Files.deleteIfExists(this.indexPath);
+        Files.deleteIfExists(this.statusPath);
+        Files.deleteIfExists(this.timePath);
+        return writer.position();
+    }
+
+    /**
+     * Rewrites the storage file in lazy mode, together with its offset and status indexes.
+     * <p>
+     * Runs of consecutive records which were not changed are copied from the current storage file
+     * without deserializing them, even if their tasks were read. The new file is written next to the current one and moved over it once complete.
+     * </p>
+     * @return Size of the storage file in bytes
+     * @throws IOException if an I/O error occurs
+     */
+    private long writeLazySnapshot() throws IOException {
+        var tmpPath = AtomicFiles.tempPath(this.storagePath);
+        var written = new OffsetIndex(this.index.size() + this.tasks.size());
+        var writer = new TaskFileWriter(tmpPath, this.options.getDurability().forcesData());
+        try (
+            writer;
+            var source = this.index.size() > 0 ? FileChannel.open(this.storagePath, StandardOpenOption.READ) : null
+        ) {
+            int pos = 0;
+            while (pos < this.index.size()) {
+                int id = this.index.id(pos);
+                if (this.deleted.contains(id)) {
+                    pos++;
+                    continue;
+                }
+                if (this.changed.get(id)) {
+                    long offset = writer.write(this.tasks.get(id));
+                    written.add(id, offset, (int) (writer.position() - offset));
+                    pos++;
+                    continue;
+                }
+                int runEnd = pos + 1;
+                while (runEnd < this.index.size() && this.isUntouched(this.index.id(runEnd))) {
+                    runEnd++;
+                }
+                long start = this.index.offset(pos);
+                long end = this.index.offset(runEnd - 1) + this.index.length(runEnd - 1);
+                long offset = writer.copy(source, start, end - start);
+                for (int i = pos; i < runEnd; i++) {
+                    written.add(this.index.id(i), offset + this.index.offset(i) - start, this.index.length(i));
+                }
+                pos = runEnd;
+            }
+            for (Task task : this.tasks.values()) {
+                if (this.index.find(task.getId()) < 0) {
+                    long offset = writer.write(task);
+                    written.add(task.getId(), offset, (int) (writer.position() - offset));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmpPath);
+            throw e;
+        }
+        AtomicFiles.commit(tmpPath, this.storagePath, this.options.getDurability());
+        written.seal();
+        written.save(this.indexPath, this.storagePath);
+        this.statusIndex.save(this.statusPath, this.storagePath);
+        this.saveTimeIndex();
+        this.index = written;
+        this.ordered = written.isAscending();
+        this.tasks.clear();
+        this.deleted.clear();
+        this.changed.clear();
+        return writer.position();
+    }
+
+    /**
+     * Updates the storage file in place in lazy mode, together with its offset and status indexes.
+     * <p>
+     * Changed records are overwritten within the bytes they occupy, a shorter record is padded with spaces
+     * in front of its closing brace. New records are appended in front of the closing bracket of the JSON array.
+     * The storage file is left untouched if a task was deleted, a changed record grew past its place, the file
+     * does not end the way {@link TaskFileWriter} ends it, or tasks are being read from it by an iteration,
+     * in which case the whole file has to be rewritten.
+     * </p>
+     * @return Number of written bytes, or -1 if the storage file cannot be updated in place
+     * @throws IOException if an I/O error occurs
+     */
+    private long writeInPlace() throws IOException {
+        int count = this.index.size();
+        if (!this.deleted.isEmpty() || count == 0 || this.readers.get() > 0) {
+            return -1;
+        }
+        long end = this.index.offset(count - 1) + this.index.length(count - 1);
+        var appended = new OffsetIndex(16);
+        long written = 0;
+        try (var channel = FileChannel.open(this.storagePath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var tail = ByteBuffer.allocate(ARRAY_END.length);
+            if (channel.size() != end + ARRAY_END.length) {
+                return -1;
+            }
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, end + tail.position()) < 0) {
+                    return -1;
+                }
+            }
+            if (!tail.flip().equals(ByteBuffer.wrap(ARRAY_END))) {
+                return -1;
+            }
+            var record = new StringBuilder();
+            int[] positions = new int[this.changed.cardinality()];
+            var slots = new ByteBuffer[positions.length];
+            int updated = 0;
+            for (int id = this.changed.nextSetBit(0); id >= 0; id = this.changed.nextSetBit(id + 1)) {
+                int pos = this.index.find(id);
+                if (pos < 0) {
+                    continue;
+                }
+                byte[] bytes = encode(this.tasks.get(id), record);
+                int length = this.index.length(pos);
+                if (bytes.length > length) {
+                    return -1;
+                }
+                var slot = ByteBuffer.allocate(length).put(bytes, 0, bytes.length - 1);
+                while (slot.position() < length - 1) {
+                    slot.put((byte) ' ');
+                }
+                positions[updated] = pos;
+                slots[updated++] = slot.put((byte) '}').flip();
+            }
+            var out = new ByteArrayOutputStream();
+            for (Task task : this.tasks.values()) {
+                if (this.changed.get(task.getId()) && this.index.find(task.getId()) < 0) {
+                    byte[] bytes = encode(task, record);
+                    out.writeBytes(RECORD_SEPARATOR);
+                    appended.add(task.getId(), end + out.size(), bytes.length);
+                    out.writeBytes(bytes);
+                }
+            }
+            for (int i = 0; i < updated; i++) {
+                written += writeFully(channel, slots[i], this.index.offset(positions[i]));
+            }
+            if (appended.size() > 0) {
+                out.writeBytes(ARRAY_END);
+                written += writeFully(channel, ByteBuffer.wrap(out.toByteArray()), end);
+            }
+            if (this.options.getDurability().forcesData()) {
+                channel.force(false);
+            }
+        }
+        for (int i = 0; i < appended.size(); i++) {
+            this.index.add(appended.id(i), appended.offset(i), appended.length(i));
+        }
+        this.index.seal();
+        if (appended.size() > 0 || !this.index.refresh(this.indexPath, this.storagePath)) {
+            this.index.save(this.indexPath, this.storagePath);
+        }
+        this.statusIndex.save(this.statusPath, this.storagePath);
+        this.saveTimeIndex();
+        this.ordered = this.index.isAscending();
+        this.tasks.clear();
+        this.changed.clear();
+        return written;
+    }
+
+    /**
+     * Rewrites the sequence file with the current sequence number.
+     * @return Number of written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    private long writeSequence() throws IOException {
+        return AtomicFiles.writeString(
             this.sequencePath,
-            new StringBuilder().append(this.sequence).append('\n').toString(),
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING
+            new StringBuilder().append(this.sequence.get()).append('\n'),
+            this.options.getDurability()
         );
     }
 
     /** 
-     * Initializes the in-memory storage from the storage file.
+     * Initializes the in-memory storage from the storage file and replays the journal on top of it.
+     * <p>
+     * Unless in journaled mode, replayed mutations are unsaved changes, as the journal has to be folded into
+     * the storage file by the next persist.
+     * </p>
      * @throws IOException if an I/O error occurs
      */
     private void initializeStorage() throws IOException {
-        this.tasks = new LinkedHashMap<Integer, Task>();
-        if (!Files.exists(this.storagePath)) {
+        this.tasks = new TaskMap();
+        this.deleted = new HashSet<Integer>();
+        this.changed = new BitSet();
+        this.loaded = false;
+        this.statusIndex = null;
+        this.timeIndex = null;
+        this.ordered = false;
+        var timer = CommandStats.time(Phase.LOAD);
+        try {
+            if (this.options.isLazy()) {
+                this.loadIndex();
+            }
+            this.journal.replay(
+                task -> {
+                    this.deleted.remove(task.getId());
+                    this.tasks.put(task);
+                    this.changed.set(task.getId());
+                    if (this.statusIndex != null) {
+                        this.statusIndex.put(task.getId(), task.getStatus());
+                    }
+                },
+                this::forget
+            );
+            long journalSize = this.journal.size();
+            CommandStats.count(Counter.BYTES_READ, journalSize);
+            this.dirty = !this.options.isJournaled() && journalSize > 0;
+            if (this.index != null) {
+                this.initializeSequence();
+            }
+        } finally {
+            timer.close();
+        }
+    }
+
+    /**
+     * Loads all tasks of the storage file under the write lock, unless they are loaded already or in lazy mode.
+     * <p>
+     * Called before taking the read lock, which cannot be upgraded to the write lock.
+     * </p>
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    private void awaitLoaded() {
+        if (this.loaded || this.index != null) {
             return;
         }
-        try (BufferedReader reader = Files.newBufferedReader(this.storagePath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.isEmpty() || line.startsWith("[") || line.startsWith("]") || line.startsWith("[]")) {
-                    continue;
-                } 
-                var task = FlatJsonProcessor.deserializeObject(line);
-                this.tasks.put(task.getId(), task);
+        this.lock.writeLock().lock();
+        try {
+            this.ensureLoaded();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads all tasks of the storage file into the in-memory map, unless in lazy mode.
+     * <p>
+     * Tasks changed or deleted by the replayed journal take precedence over the storage file.
+     * </p>
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    private void ensureLoaded() {
+        if (this.loaded || this.index != null) {
+            return;
+        }
+        var changed = this.tasks;
+        this.tasks = new TaskMap();
+        var timer = CommandStats.time(Phase.LOAD);
+        try {
+            this.loadSnapshot(changed);
+            this.initializeSequence();
+        } catch (IOException e) {
+            this.tasks = changed;
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            this.tasks = changed;
+            throw e;
+        } finally {
+            timer.close();
+        }
+        for (Task task : changed.values()) {
+            this.tasks.putIfAbsent(task);
+        }
+        this.deleted.clear();
+        this.statusIndex = new StatusIndex();
+        this.timeIndex = null;
+        this.ordered = true;
+        int previous = 0;
+        for (Task task : this.tasks.values()) {
+            this.statusIndex.put(task.getId(), task.getStatus());
+            this.ordered &= task.getId() > previous;
+            previous = task.getId();
+        }
+        this.loaded = true;
+    }
+
+    /**
+     * Loads the offset and status indexes of the storage file.
+     * <p>
+     * If either index is missing or stale, both are rebuilt by scanning the storage file and saved. Only the ID
+     * and the status of each record are parsed, see {@link OffsetIndex#build(Path, StatusIndex)}.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    private void loadIndex() throws IOException {
+        this.index = OffsetIndex.load(this.indexPath, this.storagePath);
+        this.statusIndex = StatusIndex.load(this.statusPath, this.storagePath);
+        if (this.index == null || this.statusIndex == null) {
+            var statuses = new StatusIndex();
+            var offsets = OffsetIndex.build(this.storagePath, statuses);
+            if (Files.exists(this.storagePath)) {
+                CommandStats.count(Counter.RECORDS_READ, offsets.size());
+                CommandStats.count(Counter.BYTES_READ, Files.size(this.storagePath));
+                offsets.save(this.indexPath, this.storagePath);
+                statuses.save(this.statusPath, this.storagePath);
             }
+            this.index = offsets;
+            this.statusIndex = statuses;
         }
+        this.ordered = this.index.isAscending();
+    }
+
+    /**
+     * Builds the time index unless it is built already, while holding the write lock.
+     * <p>
+     * Outside of lazy mode, all tasks are loaded and indexed. In lazy mode, the persisted index is loaded, or rebuilt
+     * by scanning the storage file and saved if missing or stale, and unsaved changes are applied on top of it.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    private void ensureTimeIndex() throws IOException {
+        if (this.index == null) {
+            this.ensureLoaded();
+        }
+        if (this.timeIndex == null && this.index == null) {
+            var times = new TimeIndex();
+            for (Task task : this.tasks.values()) {
+                times.put(task);
+            }
+            this.timeIndex = times;
+        } else if (this.timeIndex == null) {
+            var timer = CommandStats.time(Phase.LOAD);
+            try {
+                var times = TimeIndex.load(this.timePath, this.storagePath);
+                if (times == null) {
+                    var scanned = new TimeIndex();
+                    if (Files.exists(this.storagePath)) {
+                        new MappedTaskReader().read(this.storagePath, scanned::put);
+                        CommandStats.count(Counter.RECORDS_READ, scanned.size());
+                        CommandStats.count(Counter.BYTES_READ, Files.size(this.storagePath));
+                        scanned.save(this.timePath, this.storagePath);
+                    }
+                    times = scanned;
+                }
+                for (int id : this.deleted) {
+                    times.remove(id);
+                }
+                for (Task task : this.tasks.values()) {
+                    times.put(task);
+                }
+                this.timeIndex = times;
+            } finally {
+                timer.close();
+            }
+        }
+    }
+
+    /**
+     * Saves the time index for a rewritten storage file in lazy mode, or removes it if it was never built.
+     * <p>
+     * A removed index is rebuilt by the next range query.
+     * </p>
+     * @throws IOException if an I/O error occurs
+     */
+    private void saveTimeIndex() throws IOException {
+        if (this.timeIndex != null) {
+            this.timeIndex.save(this.timePath, this.storagePath);
+        } else {
+            Files.deleteIfExists(this.timePath);
+        }
+    }
+
+    /**
+     * Loads tasks from the storage file.
+     * <p>
+     * A JSON file is memory-mapped and parsed without decoding it into Strings, see {@link MappedTaskReader},
+     * a binary file is decoded by a {@link BinaryTaskReader}.
+     * </p>
+     * @param changed Tasks changed since the storage file was written, replacing their stored versions
+     * @throws IOException if an I/O error occurs
+     */
+    private void loadSnapshot(TaskMap changed) throws IOException {
+        if (!Files.exists(this.storagePath)) {
+            return;
+        }
+        long[] records = new long[1];
+        this.options.getFormat().newReader().read(this.storagePath, task -> {
+            records[0]++;
+            int id = task.getId();
+            if (!this.deleted.contains(id)) {
+                var current = changed.get(id);
+                this.tasks.put(current != null ? current : task);
+            }
+        });
+        CommandStats.count(Counter.RECORDS_READ, records[0]);
+        CommandStats.count(Counter.BYTES_READ, Files.size(this.storagePath));
     }
 
     /**
@@ -174,16 +1237,341 @@ public class TaskRepository {
      * @throws IOException if an I/O error occurs
      */
     private void initializeSequence() throws IOException {
-        int maxId = this.tasks.keySet().stream()
-            .mapToInt(Integer::intValue)
-            .max()
-            .orElse(0);
-        int sequenceCandidate = 1;
-        if (Files.exists(sequencePath)) {
-            var content = Files.readString(this.sequencePath).trim();
-            sequenceCandidate = Integer.parseInt(content);
+        var timer = CommandStats.time(Phase.SEQUENCE);
+        try {
+            int maxId = this.tasks.maxId();
+            if (this.index != null) {
+                maxId = Math.max(maxId, this.index.maxId());
+            }
+            int sequenceCandidate = 1;
+            if (Files.exists(sequencePath)) {
+                var content = Files.readString(this.sequencePath).trim();
+                sequenceCandidate = Integer.parseInt(content);
+            }
+            this.sequence.set(Math.max(maxId + 1, sequenceCandidate));
+        } finally {
+            timer.close();
+        }
+    }
+
+    /**
+     * Checks whether a task exists, within the critical section of the mutex.
+     * @param id Task ID
+     * @return True if the task exists, false otherwise
+     */
+    private boolean exists(int id) {
+        if (this.tasks.containsKey(id)) {
+            return true;
+        }
+        return this.index != null && !this.deleted.contains(id) && this.index.find(id) >= 0;
+    }
+
+    /**
+     * Checks whether an indexed task was neither changed nor deleted since the storage file was written.
+     * @param id Task ID
+     * @return True if untouched, false otherwise
+     */
+    private boolean isUntouched(int id) {
+        return !this.changed.get(id) && !this.deleted.contains(id);
+    }
+
+    /**
+     * Finds a task by its ID, while holding the lock stripe of the task.
+     * <p>
+     * In lazy mode, a task which was not accessed yet is read from the storage file outside the critical section
+     * of the mutex, so reads of different tasks run in parallel.
+     * </p>
+     * @param id Task ID
+     * @return Corresponding Task, or null if the task does not exist
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    private Task find(int id) {
+        synchronized (this.mutex) {
+            var task = this.tasks.get(id);
+            if (task != null || this.index == null || this.deleted.contains(id)) {
+                return task;
+            }
+        }
+        int pos = this.index.find(id);
+        if (pos < 0) {
+            return null;
+        }
+        Task task;
+        try (var channel = FileChannel.open(this.storagePath, StandardOpenOption.READ)) {
+            task = readStored(channel, this.index, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (this.mutex) {
+            this.tasks.put(task);
+        }
+        return task;
+    }
+
+    /**
+     * Stores a created or updated task, while holding the lock stripe of the task.
+     * <p>
+     * The journal record is encoded outside the critical section of the mutex.
+     * </p>
+     * @param task Task to store
+     * @throws NoSuchElementException if the task with the given ID does not exist
+     */
+    private void store(Task task) {
+        int id = task.getId();
+        synchronized (this.mutex) {
+            if (!this.exists(id)) {
+                throw new NoSuchElementException("Task ID %d does not exist" + id + '.');
+            }
+        }
+        if (this.options.isJournaled()) {
+            this.journal.recordPut(task);
+        }
+        synchronized (this.mutex) {
+            this.tasks.put(task);
+            this.statusIndex.put(id, task.getStatus());
+            if (this.timeIndex != null) {
+                this.timeIndex.put(task);
+            }
+            this.changed.set(id);
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Returns the lock stripe serializing mutations of a task.
+     * @param id Task ID
+     * @return Lock stripe
+     */
+    private ReentrantLock stripe(int id) {
+        return this.stripes[id & (STRIPES - 1)];
+    }
+
+    /**
+     * Reads an indexed task from the storage file in lazy mode.
+     * @param channel Channel of the storage file
+     * @param index Offset index of the storage file
+     * @param pos Position of the task record in the offset index
+     * @return Deserialized task
+     * @throws IOException if an I/O error occurs
+     */
+    private static Task readStored(FileChannel channel, OffsetIndex index, int pos) throws IOException {
+        var buf = index.read(channel, pos);
+        CommandStats.count(Counter.RECORDS_READ, 1);
+        CommandStats.count(Counter.BYTES_READ, buf.limit());
+        return FlatJsonProcessor.deserializeObject(buf, 0, buf.limit());
+    }
+
+    /**
+     * Removes a task from the repository.
+     * @param id Task ID
+     */
+    private void forget(int id) {
+        this.tasks.remove(id);
+        this.changed.clear(id);
+        if (this.statusIndex != null) {
+            this.statusIndex.remove(id);
         }
-        this.sequence = Math.max(maxId + 1, sequenceCandidate);
+        if (this.timeIndex != null) {
+            this.timeIndex.remove(id);
+        }
+        boolean stored = this.index != null ? this.index.find(id) >= 0 : !this.loaded;
+        if (stored) {
+            this.deleted.add(id);
+        }
+    }
+
+    /**
+     * Serializes a task into a UTF-8 encoded storage record.
+     * @param task Task to serialize
+     * @param record StringBuilder reused for serialization
+     * @return Encoded record
+     */
+    private static byte[] encode(Task task, StringBuilder record) {
+        record.setLength(0);
+        return TaskSerializer.jsonSerialize(task, record).toString().getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * Writes a whole buffer into a file at a given offset.
+     * @param channel Channel of the file
+     * @param buf Buffer to write
+     * @param offset Offset in the file
+     * @return Number of written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    private static long writeFully(FileChannel channel, ByteBuffer buf, long offset) throws IOException {
+        long position = offset;
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+        return position - offset;
+    }
+
+    /**
+     * Resolves a file next to the given file, replacing its extension.
+     * @param path Path to the original file
+     * @param extension Extension of the sibling file, including the leading dot
+     * @return Path to the sibling file
+     */
+    private static Path siblingPath(Path path, String extension) {
+        var name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return path.resolveSibling(name + extension);
+    }
+
+    /**
+     * Tasks of a repository which is not loaded, captured under the write lock and read once it is released.
+     * <p>
+     * The snapshot holds copies of the unsaved and cached tasks and of the deleted IDs, and the storage file opened
+     * at capture. Storage files are replaced by renaming, so the open file keeps its contents when the repository is
+     * persisted meanwhile. In lazy mode, the file is not updated in place until the snapshot is closed.
+     * </p>
+     */
+    private final class Snapshot implements Closeable {
+
+        /**
+         * Unsaved and cached tasks, taking precedence over the storage file.
+         */
+        private final TaskMap tasks;
+
+        /**
+         * IDs of stored tasks which were deleted.
+         */
+        private final Set<Integer> deleted;
+
+        /**
+         * Offset index of the storage file in lazy mode, null otherwise.
+         */
+        private final OffsetIndex index;
+
+        /**
+         * Channel of the storage file, null if there is no storage file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Captures the repository, while holding the write lock.
+         * @throws IOException if an I/O error occurs
+         */
+        Snapshot() throws IOException {
+            this.tasks = new TaskMap(TaskRepository.this.tasks.size());
+            for (Task task : TaskRepository.this.tasks.values()) {
+                this.tasks.put(task);
+            }
+            this.deleted = new HashSet<Integer>(TaskRepository.this.deleted);
+            this.index = TaskRepository.this.index;
+            var path = TaskRepository.this.storagePath;
+            this.channel = Files.exists(path) ? FileChannel.open(path, StandardOpenOption.READ) : null;
+            if (this.index != null) {
+                TaskRepository.this.readers.incrementAndGet();
+            }
+        }
+
+        /**
+         * Passes all tasks to a consumer, stored tasks in file order followed by tasks which were not stored yet.
+         * @param consumer Consumer of tasks
+         * @throws IOException if an I/O error occurs
+         */
+        void forEach(Consumer<Task> consumer) throws IOException {
+            var consumed = new HashSet<Integer>();
+            long[] records = new long[1];
+            try {
+                if (this.channel != null && TaskRepository.this.options.getFormat() == StorageFormat.BINARY) {
+                    new BinaryTaskReader().read(this.channel, stored -> {
+                        records[0]++;
+                        if (this.deleted.contains(stored.getId())) {
+                            return;
+                        }
+                        var task = this.tasks.get(stored.getId());
+                        if (task == null) {
+                            task = stored;
+                        } else {
+                            consumed.add(stored.getId());
+                        }
+                        consumer.accept(task);
+                    });
+                } else if (this.channel != null) {
+                    new MappedTaskReader().scan(this.channel, (buf, start, end, offset) -> {
+                        records[0]++;
+                        int id = FlatJsonProcessor.deserializeId(buf, start, end);
+                        if (this.deleted.contains(id)) {
+                            return;
+                        }
+                        var task = this.tasks.get(id);
+                        if (task == null) {
+                            task = FlatJsonProcessor.deserializeObject(buf, start, end);
+                        } else {
+                            consumed.add(id);
+                        }
+                        consumer.accept(task);
+                    });
+                }
+            } finally {
+                if (records[0] > 0) {
+                    CommandStats.count(Counter.RECORDS_READ, records[0]);
+                    CommandStats.count(Counter.BYTES_READ, this.channel.size());
+                }
+            }
+            for (Task task : this.tasks.values()) {
+                if (!consumed.contains(task.getId())) {
+                    consumer.accept(task);
+                }
+            }
+        }
+
+        /**
+         * Finds a task by its ID, reading it from the storage file in lazy mode.
+         * @param id Task ID
+         * @return Corresponding task, or null if it does not exist
+         * @throws IOException if an I/O error occurs
+         */
+        Task find(int id) throws IOException {
+            var task = this.tasks.get(id);
+            if (task != null || this.index == null || this.channel == null || this.deleted.contains(id)) {
+                return task;
+            }
+            int pos = this.index.find(id);
+            return pos >= 0 ? readStored(this.channel, this.index, pos) : null;
+        }
+
+        /**
+         * Closes the storage file and allows it to be updated in place again.
+         * @throws IOException if an I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            if (this.index != null) {
+                TaskRepository.this.readers.decrementAndGet();
+            }
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Thrown by a consumer of tasks to stop an iteration early, see {@link #forEachWhile(TaskStatus, Predicate)}.
+     */
+    private static final class StopIteration extends RuntimeException {
+
+        /**
+         * Serialization version, the exception never leaves the repository.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Shared instance, which carries no stack trace.
+         */
+        static final StopIteration INSTANCE = new StopIteration();
+
+        /**
+         * Constructs a new StopIteration without a stack trace.
+         */
+        private StopIteration() {
+            super(null, null, false, false);
+        }
+    }
 }
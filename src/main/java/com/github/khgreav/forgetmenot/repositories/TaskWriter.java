@@ -0,0 +1,26 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Streaming writer of a task storage file in one of the {@link StorageFormat}s.
+ */
+public interface TaskWriter extends Closeable {
+
+    /**
+     * Encodes and writes a task.
+     * @param task Task to write
+     * @return Offset of the record in the written file
+     * @throws IOException if an I/O error occurs
+     */
+    long write(Task task) throws IOException;
+
+    /**
+     * Returns the number of bytes written so far, including buffered bytes.
+     * @return Offset of the next written byte
+     */
+    long position();
+}
@@ -0,0 +1,463 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Secondary index of task IDs by the epoch second of their creation and last update.
+ * <p>
+ * For both timestamps, the index holds the IDs of all tasks in ascending order of seconds in a pair of primitive
+ * arrays, so looking up tasks within a time range costs a binary search plus time proportional to the number of
+ * matching tasks. Changes since the arrays were built are kept in a small ordered map and merged into the arrays
+ * once they grow past a fraction of the index. The index can be persisted in a binary file together with the size
+ * and modification time of the storage file it was built for.
+ * </p>
+ */
+public final class TimeIndex {
+
+    /**
+     * Magic number of the index file.
+     */
+    private static final int MAGIC = 0x464D4E54;
+
+    /**
+     * Minimum number of changes merged into the arrays at once.
+     */
+    private static final int MIN_MERGE = 1024;
+
+    /**
+     * Index of creation timestamps.
+     */
+    private final Timeline created;
+
+    /**
+     * Index of update timestamps.
+     */
+    private final Timeline updated;
+
+    /**
+     * Constructs a new empty TimeIndex.
+     */
+    public TimeIndex() {
+        this(new Timeline(), new Timeline());
+    }
+
+    /**
+     * Constructs a new TimeIndex.
+     * @param created Index of creation timestamps
+     * @param updated Index of update timestamps
+     */
+    private TimeIndex(Timeline created, Timeline updated) {
+        this.created = created;
+        this.updated = updated;
+    }
+
+    /**
+     * Loads the index from an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index should describe
+     * @return Loaded index, or null if the index file does not exist, is invalid, or was built for a different storage file
+     * @throws IOException if an I/O error occurs
+     */
+    public static TimeIndex load(Path indexPath, Path storagePath) throws IOException {
+        if (!Files.exists(indexPath) || !Files.exists(storagePath)) {
+            return null;
+        }
+        try (var channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            var buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!IndexFiles.readHeader(buf, MAGIC, storagePath)) {
+                return null;
+            }
+            var created = Timeline.read(buf);
+            var updated = created != null ? Timeline.read(buf) : null;
+            return updated == null || buf.hasRemaining() ? null : new TimeIndex(created, updated);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the index into an index file.
+     * @param indexPath Path to the index file
+     * @param storagePath Path to the storage file the index describes
+     * @throws IOException if an I/O error occurs
+     */
+    public void save(Path indexPath, Path storagePath) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath), 1 << 16))) {
+            IndexFiles.writeHeader(out, MAGIC, storagePath);
+            this.created.write(out);
+            this.updated.write(out);
+        }
+    }
+
+    /**
+     * Sets the timestamps of a task, replacing its previous timestamps.
+     * @param task Created, updated or loaded task
+     */
+    public void put(Task task) {
+        this.created.put(task.getId(), task.getCreatedAt().getEpochSecond());
+        this.updated.put(task.getId(), task.getUpdatedAt().getEpochSecond());
+    }
+
+    /**
+     * Removes a task from the index.
+     * @param id Task ID
+     */
+    public void remove(int id) {
+        this.created.remove(id);
+        this.updated.remove(id);
+    }
+
+    /**
+     * Passes IDs of tasks with a timestamp within a range of seconds to a consumer, latest second first.
+     * <p>
+     * IDs sharing a second are passed one after another, in no particular order.
+     * </p>
+     * @param key Timestamp of tasks, either {@link SortKey#CREATED} or {@link SortKey#UPDATED}
+     * @param from First second of the range, inclusive
+     * @param to Last second of the range, inclusive
+     * @param consumer Consumer of task IDs, returning false to stop
+     * @throws IllegalArgumentException if the key is not a timestamp
+     */
+    public void forEachDescending(SortKey key, long from, long to, IntPredicate consumer) {
+        this.timeline(key).forEachDescending(from, to, consumer);
+    }
+
+    /**
+     * Returns the number of indexed tasks.
+     * @return Number of tasks
+     */
+    public int size() {
+        return this.created.count;
+    }
+
+    /**
+     * Returns the index of a timestamp.
+     * @param key Timestamp of tasks
+     * @return Index of the timestamp
+     * @throws IllegalArgumentException if the key is not a timestamp
+     */
+    private Timeline timeline(SortKey key) {
+        return switch (key) {
+            case CREATED -> this.created;
+            case UPDATED -> this.updated;
+            default -> throw new IllegalArgumentException(
+                new StringBuilder()
+                    .append("Tasks are not indexed by ")
+                    .append(key)
+                    .append('.')
+                    .toString()
+            );
+        };
+    }
+
+    /**
+     * Index of task IDs by a single timestamp.
+     */
+    private static final class Timeline {
+
+        /**
+         * Second of a task which is not indexed.
+         */
+        private static final long NONE = Long.MIN_VALUE;
+
+        /**
+         * Seconds of merged entries in ascending order.
+         */
+        private long[] seconds;
+
+        /**
+         * IDs of merged entries, in ascending order within the same second.
+         */
+        private int[] ids;
+
+        /**
+         * Number of merged entries, including stale ones.
+         */
+        private int size;
+
+        /**
+         * Current second of every task by ID.
+         */
+        private long[] current;
+
+        /**
+         * Entries added since the arrays were merged, IDs by second.
+         */
+        private final NavigableMap<Long, TreeSet<Integer>> added;
+
+        /**
+         * Number of stale merged entries and added entries.
+         */
+        private int changes;
+
+        /**
+         * Number of indexed tasks.
+         */
+        private int count;
+
+        /**
+         * Constructs a new empty Timeline.
+         */
+        Timeline() {
+            this(new long[0], new int[0], 0);
+        }
+
+        /**
+         * Constructs a new Timeline of merged entries.
+         * @param seconds Seconds of entries in ascending order
+         * @param ids IDs of entries, in ascending order within the same second
+         * @param size Number of entries
+         */
+        private Timeline(long[] seconds, int[] ids, int size) {
+            this.seconds = seconds;
+            this.ids = ids;
+            this.size = size;
+            int maxId = 0;
+            for (int i = 0; i < size; i++) {
+                maxId = Math.max(maxId, ids[i]);
+            }
+            this.current = new long[size > 0 ? maxId + 1 : 16];
+            Arrays.fill(this.current, NONE);
+            for (int i = 0; i < size; i++) {
+                this.current[ids[i]] = seconds[i];
+            }
+            this.added = new TreeMap<Long, TreeSet<Integer>>();
+            this.count = size;
+        }
+
+        /**
+         * Reads merged entries written by {@link #write(DataOutputStream)}.
+         * @param buf Buffer positioned at the entries
+         * @return Read timeline, or null if the entries are invalid
+         */
+        static Timeline read(ByteBuffer buf) {
+            int size = buf.getInt();
+            if (size < 0 || buf.remaining() < size * 12L) {
+                return null;
+            }
+            var seconds = new long[size];
+            var ids = new int[size];
+            buf.asLongBuffer().get(seconds);
+            buf.position(buf.position() + size * 8);
+            buf.asIntBuffer().get(ids);
+            buf.position(buf.position() + size * 4);
+            for (int i = 0; i < size; i++) {
+                if (ids[i] < 0 || (i > 0 && compare(seconds[i - 1], ids[i - 1], seconds[i], ids[i]) >= 0)) {
+                    return null;
+                }
+            }
+            return new Timeline(seconds, ids, size);
+        }
+
+        /**
+         * Merges all changes and writes the entries.
+         * @param out Output of the index file
+         * @throws IOException if an I/O error occurs
+         */
+        void write(DataOutputStream out) throws IOException {
+            this.merge();
+            out.writeInt(this.size);
+            for (int i = 0; i < this.size; i++) {
+                out.writeLong(this.seconds[i]);
+            }
+            for (int i = 0; i < this.size; i++) {
+                out.writeInt(this.ids[i]);
+            }
+        }
+
+        /**
+         * Sets the second of a task.
+         * @param id Task ID
+         * @param second Epoch second of the timestamp
+         */
+        void put(int id, long second) {
+            if (id >= this.current.length) {
+                int length = this.current.length;
+                this.current = Arrays.copyOf(this.current, Math.max(id + 1, length * 2));
+                Arrays.fill(this.current, length, this.current.length, NONE);
+            }
+            long previous = this.current[id];
+            if (previous == second) {
+                return;
+            }
+            if (previous == NONE) {
+                this.count++;
+            } else {
+                this.unlink(id, previous);
+            }
+            this.current[id] = second;
+            if (this.find(second, id) < 0) {
+                this.added.computeIfAbsent(second, s -> new TreeSet<Integer>()).add(id);
+                this.changes++;
+            }
+            this.mergeIfChanged();
+        }
+
+        /**
+         * Removes a task.
+         * @param id Task ID
+         */
+        void remove(int id) {
+            if (id >= this.current.length || this.current[id] == NONE) {
+                return;
+            }
+            this.unlink(id, this.current[id]);
+            this.current[id] = NONE;
+            this.count--;
+            this.mergeIfChanged();
+        }
+
+        /**
+         * Passes IDs of tasks within a range of seconds to a consumer, latest second first.
+         * @param from First second of the range, inclusive
+         * @param to Last second of the range, inclusive
+         * @param consumer Consumer of task IDs, returning false to stop
+         */
+        void forEachDescending(long from, long to, IntPredicate consumer) {
+            if (from > to) {
+                return;
+            }
+            int pos = this.find(to, Integer.MAX_VALUE);
+            pos = (pos < 0 ? -pos - 1 : pos + 1) - 1;
+            Iterator<Map.Entry<Long, TreeSet<Integer>>> entries =
+                this.added.subMap(from, true, to, true).descendingMap().entrySet().iterator();
+            var entry = entries.hasNext() ? entries.next() : null;
+            while (true) {
+                boolean merged = pos >= 0 && this.seconds[pos] >= from;
+                if (entry != null && (!merged || entry.getKey() >= this.seconds[pos])) {
+                    for (int id : entry.getValue()) {
+                        if (!consumer.test(id)) {
+                            return;
+                        }
+                    }
+                    entry = entries.hasNext() ? entries.next() : null;
+                } else if (merged) {
+                    int id = this.ids[pos];
+                    if (this.current[id] == this.seconds[pos] && !consumer.test(id)) {
+                        return;
+                    }
+                    pos--;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Marks the entry of a task at its previous second as stale.
+         * @param id Task ID
+         * @param second Previous second of the task
+         */
+        private void unlink(int id, long second) {
+            var ids = this.added.get(second);
+            if (ids != null && ids.remove(id)) {
+                if (ids.isEmpty()) {
+                    this.added.remove(second);
+                }
+                this.changes--;
+            } else {
+                this.changes++;
+            }
+        }
+
+        /**
+         * Merges changes into the arrays once they make up a quarter of the index.
+         */
+        private void mergeIfChanged() {
+            if (this.changes >= MIN_MERGE && this.changes >= this.size / 4) {
+                this.merge();
+            }
+        }
+
+        /**
+         * Merges added entries into the arrays and drops stale entries.
+         */
+        private void merge() {
+            if (this.changes == 0) {
+                return;
+            }
+            var seconds = new long[this.count];
+            var ids = new int[this.count];
+            int n = 0;
+            int pos = 0;
+            for (var entry : this.added.entrySet()) {
+                long second = entry.getKey();
+                for (int id : entry.getValue()) {
+                    for (; pos < this.size && compare(this.seconds[pos], this.ids[pos], second, id) < 0; pos++) {
+                        if (this.current[this.ids[pos]] == this.seconds[pos]) {
+                            seconds[n] = this.seconds[pos];
+                            ids[n++] = this.ids[pos];
+                        }
+                    }
+                    seconds[n] = second;
+                    ids[n++] = id;
+                }
+            }
+            for (; pos < this.size; pos++) {
+                if (this.current[this.ids[pos]] == this.seconds[pos]) {
+                    seconds[n] = this.seconds[pos];
+                    ids[n++] = this.ids[pos];
+                }
+            }
+            this.seconds = seconds;
+            this.ids = ids;
+            this.size = n;
+            this.added.clear();
+            this.changes = 0;
+        }
+
+        /**
+         * Finds a merged entry by binary search.
+         * @param second Second of the entry
+         * @param id ID of the entry
+         * @return Position of the entry, or {@code -(insertion point) - 1} if there is no such entry
+         */
+        private int find(long second, int id) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(this.seconds[mid], this.ids[mid], second, id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Compares two entries by second and then by ID.
+         * @param s1 Second of the first entry
+         * @param id1 ID of the first entry
+         * @param s2 Second of the second entry
+         * @param id2 ID of the second entry
+         * @return Negative, zero or positive if the first entry precedes, equals or follows the second
+         */
+        private static int compare(long s1, int id1, long s2, int id2) {
+            int cmp = Long.compare(s1, s2);
+            return cmp != 0 ? cmp : Integer.compare(id1, id2);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.khgreav.forgetmenot.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import com.github.khgreav.forgetmenot.utils.CliArgUtils;
+
+/**
+ * Utility class executing many task commands against a single {@link TaskService}.
+ * <p>
+ * Commands are read one per line, with the same syntax as on the command line, e.g. {@code add "Buy milk"}.
+ * Blank lines and lines starting with {@code #} are skipped. Storage is loaded once and saved once at the end,
+ * or after every given number of commands, instead of once per command.
+ * </p>
+ */
+public final class BatchRunner {
+
+    private BatchRunner() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Executes all commands read from a reader and saves changed tasks.
+     * <p>
+     * A failed command is reported to the error output together with its line number, and does not stop the batch.
+     * </p>
+     * @param reader Source of commands, one per line
+     * @param service Service executing the commands
+     * @param saveInterval Number of commands after which changed tasks are saved, zero to save only at the end
+     * @param err Output of failed commands
+     * @return Summary of the batch
+     * @throws IOException if an I/O error occurs while reading commands or saving
+     */
+    public static Summary run(BufferedReader reader, TaskService service, int saveInterval, PrintStream err) throws IOException {
+        long start = System.nanoTime();
+        int executed = 0;
+        int failed = 0;
+        long written = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            var trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                var command = CliArgUtils.tokenize(trimmed);
+                if (!CommandDispatcher.isTaskCommand(command) || CommandDispatcher.isVerbose(command)) {
+                    throw new IllegalArgumentException(
+                        new StringBuilder()
+                            .append("Invalid batch command: ")
+                            .append(command[0])
+                            .append('.')
+                            .toString()
+                    );
+                }
+                CommandDispatcher.dispatch(command, service);
+            } catch (RuntimeException e) {
+                err.println("Line " + lineNumber + ": " + e.getMessage());
+                failed++;
+            }
+            executed++;
+            if (saveInterval > 0 && executed % saveInterval == 0) {
+                written += service.save();
+            }
+        }
+        written += service.save();
+        return new Summary(executed, failed, written, System.nanoTime() - start);
+    }
+
+    /**
+     * Summary of an executed batch.
+     */
+    public static final class Summary {
+
+        /**
+         * Number of executed commands, including failed ones.
+         */
+        private final int executed;
+
+        /**
+         * Number of failed commands.
+         */
+        private final int failed;
+
+        /**
+         * Number of bytes written to storage.
+         */
+        private final long written;
+
+        /**
+         * Time spent in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Constructs a new Summary.
+         * @param executed Number of executed commands
+         * @param failed Number of failed commands
+         * @param written Number of bytes written to storage
+         * @param nanos Time spent in nanoseconds
+         */
+        Summary(int executed, int failed, long written, long nanos) {
+            this.executed = executed;
+            this.failed = failed;
+            this.written = written;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the number of executed commands, including failed ones.
+         * @return Number of executed commands
+         */
+        public int getExecuted() {
+            return this.executed;
+        }
+
+        /**
+         * Returns the number of failed commands.
+         * @return Number of failed commands
+         */
+        public int getFailed() {
+            return this.failed;
+        }
+
+        /**
+         * Returns the number of bytes written to storage.
+         * @return Number of written bytes
+         */
+        public long getWritten() {
+            return this.written;
+        }
+
+        /**
+         * Returns the summary printed after a batch.
+         * @return Summary string
+         */
+        @Override
+        public String toString() {
+            return new StringBuilder()
+                .append("Executed ")
+                .append(this.executed)
+                .append(" commands (")
+                .append(this.failed)
+                .append(" failed) in ")
+                .append(this.nanos / 1_000_000)
+                .append('.')
+                .append(this.nanos / 100_000 % 10)
+                .append(" ms, ")
+                .append(Math.round(this.executed * 1e9 / Math.max(1, this.nanos)))
+                .append(" ops/s, saved ")
+                .append(this.written)
+                .append(" bytes.")
+                .toString();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.khgreav.forgetmenot.services;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.IllegalArgumentException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.metrics.CommandStats;
+import com.github.khgreav.forgetmenot.metrics.Counter;
+import com.github.khgreav.forgetmenot.metrics.Phase;
+import com.github.khgreav.forgetmenot.utils.CliArgUtils;
+
+/**
+ * Utility class dispatching task commands of the CLI to a {@link TaskService}.
+ * <p>
+ * Task commands list, add, update, mark and delete tasks. They are executed the same way whether they are run
+ * by the CLI itself or forwarded to a daemon, see {@link com.github.khgreav.forgetmenot.daemon.TaskDaemon}.
+ * </p>
+ */
+public final class CommandDispatcher {
+
+    /**
+     * Option preceding a command which reports bytes written to storage and time spent saving.
+     */
+    public static final String VERBOSE_OPTION = "--verbose";
+
+    /**
+     * Option preceding a command which reports time spent in every phase of the command and work it did.
+     */
+    public static final String STATS_OPTION = "--stats";
+
+    /**
+     * Option preceding a command which reports the same as {@link #STATS_OPTION} as a single JSON line.
+     */
+    public static final String STATS_JSON_OPTION = "--stats=json";
+
+    /**
+     * Maximum number of arguments of a command, including the command itself.
+     */
+    public static final int MAX_ARGS = ListQuery.MAX_ARGS;
+
+    private CommandDispatcher() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Checks whether command-line arguments hold a task command.
+     * @param args Command-line arguments, optionally starting with options
+     * @return True if the command is a task command, false otherwise
+     */
+    public static boolean isTaskCommand(String[] args) {
+        var command = stripOptions(args);
+        if (command.length == 0) {
+            return false;
+        }
+        return switch (command[0]) {
+            case "list", "add", "update", "mark", "delete" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Checks whether options preceding the command include the verbose option.
+     * @param args Command-line arguments
+     * @return True if verbose, false otherwise
+     */
+    public static boolean isVerbose(String[] args) {
+        return hasOption(args, VERBOSE_OPTION);
+    }
+
+    /**
+     * Checks whether options preceding the command include either stats option.
+     * @param args Command-line arguments
+     * @return True if statistics are reported, false otherwise
+     */
+    public static boolean isStats(String[] args) {
+        return hasOption(args, STATS_OPTION) || hasOption(args, STATS_JSON_OPTION);
+    }
+
+    /**
+     * Removes options preceding the command from command-line arguments.
+     * @param args Command-line arguments, optionally starting with options
+     * @return Command and its arguments
+     */
+    public static String[] stripOptions(String[] args) {
+        int count = countOptions(args);
+        return count > 0 ? Arrays.copyOfRange(args, count, args.length) : args;
+    }
+
+    /**
+     * Counts options preceding the command.
+     * @param args Command-line arguments
+     * @return Number of options
+     */
+    private static int countOptions(String[] args) {
+        int count = 0;
+        while (count < args.length) {
+            switch (args[count]) {
+                case VERBOSE_OPTION, STATS_OPTION, STATS_JSON_OPTION -> count++;
+                default -> {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether options preceding the command include an option.
+     * @param args Command-line arguments
+     * @param option Option
+     * @return True if the option is present, false otherwise
+     */
+    private static boolean hasOption(String[] args, String option) {
+        int count = countOptions(args);
+        for (int i = 0; i < count; i++) {
+            if (args[i].equals(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes a task command and saves changed tasks.
+     * <p>
+     * Statistics of the command are collected if requested by an option or recorded by Flight Recorder.
+     * If statistics are already bound to the current thread, e.g. to include loading of the storage by
+     * the constructor of the service, they are completed and unbound.
+     * </p>
+     * @param args Command-line arguments, optionally starting with options
+     * @param service Service executing the command
+     * @param err Output of the verbose save report and statistics
+     * @throws IOException if an I/O error occurs while saving
+     * @throws IllegalArgumentException if the command or its arguments are invalid
+     * @throws NoSuchElementException if the task with the given ID does not exist
+     */
+    public static void execute(String[] args, TaskService service, PrintStream err) throws IOException {
+        boolean verbose = isVerbose(args);
+        var command = stripOptions(args);
+        var stats = CommandStats.current();
+        if (stats == null && (isStats(args) || CommandStats.isRecorded())) {
+            stats = CommandStats.begin();
+        }
+        try {
+            var executeTimer = CommandStats.time(Phase.EXECUTE);
+            try {
+                dispatch(command, service);
+            } finally {
+                executeTimer.close();
+            }
+            long start = System.nanoTime();
+            long written;
+            var persistTimer = CommandStats.time(Phase.PERSIST);
+            try {
+                written = service.save();
+            } finally {
+                persistTimer.close();
+            }
+            CommandStats.count(Counter.BYTES_WRITTEN, written);
+            if (verbose) {
+                err.println(constructSaveReport(written, System.nanoTime() - start));
+            }
+            if (stats != null) {
+                stats.commitEvent(command[0]);
+                if (hasOption(args, STATS_JSON_OPTION)) {
+                    err.println(stats.toJson());
+                } else if (hasOption(args, STATS_OPTION)) {
+                    err.println(stats);
+                }
+            }
+        } finally {
+            if (stats != null) {
+                CommandStats.end();
+            }
+        }
+    }
+
+    /**
+     * Executes a task command without saving changed tasks.
+     * @param command Command and its arguments
+     * @param service Service executing the command
+     * @throws IllegalArgumentException if the command or its arguments are invalid
+     * @throws NoSuchElementException if the task with the given ID does not exist
+     */
+    public static void dispatch(String[] command, TaskService service) {
+        CliArgUtils.validateArgCount(command.length, 1, MAX_ARGS);
+        String cmd = command[0];
+        switch (cmd) {
+            case "list" -> service.list(ListQuery.parse(command));
+            case "add" -> {
+                CliArgUtils.validateArgCount(command.length, 2, 2);
+                service.addTask(command[1]);
+            }
+            case "update" -> {
+                CliArgUtils.validateArgCount(command.length, 3, 3);
+                service.update(
+                    CliArgUtils.parseId(command[1]),
+                    command[2]
+                );
+            }
+            case "mark" -> {
+                CliArgUtils.validateArgCount(command.length, 3, 3);
+                service.update(
+                    CliArgUtils.parseId(command[1]),
+                    TaskStatus.fromString(command[2])
+                );
+            }
+            case "delete" -> {
+                CliArgUtils.validateArgCount(command.length, 2, 2);
+                service.delete(CliArgUtils.parseId(command[1]));
+            }
+            default -> throw new IllegalArgumentException(
+                new StringBuilder()
+                    .append("Invalid command: ")
+                    .append(cmd)
+                    .append('.')
+                    .toString()
+            );
+        }
+    }
+
+    /**
+     * Constructs the report of a save printed in verbose mode.
+     * @param written Number of bytes written to storage
+     * @param nanos Time spent saving in nanoseconds
+     * @return Report string
+     */
+    public static String constructSaveReport(long written, long nanos) {
+        if (written == 0) {
+            return "No changes to save.";
+        }
+        return new StringBuilder()
+            .append("Saved ")
+            .append(written)
+            .append(" bytes in ")
+            .append(nanos / 1_000_000)
+            .append('.')
+            .append(nanos / 100_000 % 10)
+            .append(" ms.")
+            .toString();
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.khgreav.forgetmenot.services;
+
+import java.time.Instant;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.utils.CliArgUtils;
+
+/**
+ * Immutable query of the list command: an optional status filter, an optional time range, an optional order
+ * and a page of tasks.
+ * <p>
+ * The time range applies to the update time of tasks, or to their creation time when sorted by it.
+ * </p>
+ */
+public final class ListQuery {
+
+    /**
+     * Option followed by the maximum number of listed tasks.
+     */
+    public static final String LIMIT_OPTION = "--limit";
+
+    /**
+     * Option followed by the number of skipped tasks.
+     */
+    public static final String OFFSET_OPTION = "--offset";
+
+    /**
+     * Option followed by the order of listed tasks, see {@link SortKey}.
+     */
+    public static final String SORT_OPTION = "--sort";
+
+    /**
+     * Option followed by the start of the listed time range, inclusive.
+     */
+    public static final String SINCE_OPTION = "--since";
+
+    /**
+     * Option followed by the end of the listed time range, exclusive.
+     */
+    public static final String UNTIL_OPTION = "--until";
+
+    /**
+     * Maximum number of arguments of the list command, including the command itself.
+     */
+    public static final int MAX_ARGS = 12;
+
+    /**
+     * Query listing all tasks in storage order.
+     */
+    public static final ListQuery ALL = new ListQuery(null, null, 0, Integer.MAX_VALUE);
+
+    /**
+     * Status of listed tasks, null to list tasks of any status.
+     */
+    private final TaskStatus status;
+
+    /**
+     * Order of listed tasks, null to list tasks in storage order.
+     */
+    private final SortKey sort;
+
+    /**
+     * Start of the listed time range, inclusive, null for no lower bound.
+     */
+    private final Instant since;
+
+    /**
+     * End of the listed time range, exclusive, null for no upper bound.
+     */
+    private final Instant until;
+
+    /**
+     * Number of skipped tasks.
+     */
+    private final int offset;
+
+    /**
+     * Maximum number of listed tasks.
+     */
+    private final int limit;
+
+    /**
+     * Constructs a new ListQuery.
+     * @param status Status of listed tasks, null to list tasks of any status
+     * @param sort Order of listed tasks, null to list tasks in storage order
+     * @param offset Number of skipped tasks
+     * @param limit Maximum number of listed tasks
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public ListQuery(TaskStatus status, SortKey sort, int offset, int limit) {
+        this(status, sort, null, null, offset, limit);
+    }
+
+    /**
+     * Constructs a new ListQuery of tasks within a time range.
+     * @param status Status of listed tasks, null to list tasks of any status
+     * @param sort Order of listed tasks, null to list tasks in storage order, or most recently updated first
+     *             within a time range
+     * @param since Start of the time range, inclusive, null for no lower bound
+     * @param until End of the time range, exclusive, null for no upper bound
+     * @param offset Number of skipped tasks
+     * @param limit Maximum number of listed tasks
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public ListQuery(TaskStatus status, SortKey sort, Instant since, Instant until, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Invalid count argument value.");
+        }
+        this.status = status;
+        this.sort = sort == null && (since != null || until != null) ? SortKey.UPDATED : sort;
+        this.since = since;
+        this.until = until;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Parses the arguments of the list command.
+     * <p>
+     * The optional status is followed by any of the {@code --limit <N>}, {@code --offset <N>},
+     * {@code --sort <key>}, {@code --since <time>} and {@code --until <time>} options, in any order.
+     * Relative times are resolved against the current time, see {@link CliArgUtils#parseTime(String, Instant)}.
+     * </p>
+     * @param command List command and its arguments
+     * @return Parsed query
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public static ListQuery parse(String[] command) {
+        return parse(command, Instant.now());
+    }
+
+    /**
+     * Parses the arguments of the list command, resolving relative times against a given time.
+     * @param command List command and its arguments
+     * @param now Current time
+     * @return Parsed query
+     * @throws IllegalArgumentException if the arguments are invalid
+     * @see #parse(String[])
+     */
+    public static ListQuery parse(String[] command, Instant now) {
+        CliArgUtils.validateArgCount(command.length, 1, MAX_ARGS);
+        TaskStatus status = null;
+        SortKey sort = null;
+        Instant since = null;
+        Instant until = null;
+        int offset = 0;
+        int limit = Integer.MAX_VALUE;
+        int i = 1;
+        if (i < command.length && !command[i].startsWith("--")) {
+            status = TaskStatus.fromString(command[i++]);
+        }
+        while (i < command.length) {
+            var option = command[i++];
+            if (i == command.length) {
+                throw invalidArgument(option);
+            }
+            var value = command[i++];
+            switch (option) {
+                case LIMIT_OPTION -> limit = CliArgUtils.parseCount(value);
+                case OFFSET_OPTION -> offset = CliArgUtils.parseCount(value);
+                case SORT_OPTION -> sort = SortKey.fromString(value);
+                case SINCE_OPTION -> since = CliArgUtils.parseTime(value, now);
+                case UNTIL_OPTION -> until = CliArgUtils.parseTime(value, now);
+                default -> throw invalidArgument(option);
+            }
+        }
+        return new ListQuery(status, sort, since, until, offset, limit);
+    }
+
+    /**
+     * Creates the exception thrown for an invalid argument of the list command.
+     * @param arg Invalid argument
+     * @return Exception to throw
+     */
+    private static IllegalArgumentException invalidArgument(String arg) {
+        return new IllegalArgumentException(
+            new StringBuilder()
+                .append("Invalid list argument: ")
+                .append(arg)
+                .append('.')
+                .toString()
+        );
+    }
+
+    /**
+     * Returns the status of listed tasks.
+     * @return Status, null to list tasks of any status
+     */
+    public TaskStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns the order of listed tasks.
+     * @return Order, null to list tasks in storage order
+     */
+    public SortKey getSort() {
+        return this.sort;
+    }
+
+    /**
+     * Returns the start of the listed time range.
+     * @return Start of the range, inclusive, null for no lower bound
+     */
+    public Instant getSince() {
+        return this.since;
+    }
+
+    /**
+     * Returns the end of the listed time range.
+     * @return End of the range, exclusive, null for no upper bound
+     */
+    public Instant getUntil() {
+        return this.until;
+    }
+
+    /**
+     * Returns whether only tasks within a time range are listed.
+     * @return True if either end of the range is bounded, false otherwise
+     */
+    public boolean isRanged() {
+        return this.since != null || this.until != null;
+    }
+
+    /**
+     * Returns the number of skipped tasks.
+     * @return Offset
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Returns the maximum number of listed tasks.
+     * @return Limit
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+}
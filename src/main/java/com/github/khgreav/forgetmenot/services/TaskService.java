@@ -1,13 +1,27 @@
 package com.github.khgreav.forgetmenot.services;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import com.github.khgreav.forgetmenot.enums.SortKey;
 import com.github.khgreav.forgetmenot.enums.TaskStatus;
 import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.ConflictPolicy;
+import com.github.khgreav.forgetmenot.repositories.GroupCommitter;
+import com.github.khgreav.forgetmenot.repositories.ParallelTaskReader;
+import com.github.khgreav.forgetmenot.repositories.StorageFormat;
+import com.github.khgreav.forgetmenot.repositories.StorageOptions;
 import com.github.khgreav.forgetmenot.repositories.TaskRepository;
-import com.github.khgreav.forgetmenot.utils.TaskSerializer;
+import com.github.khgreav.forgetmenot.utils.TableRenderer;
+import com.github.khgreav.forgetmenot.utils.TopN;
 
 /**
  * Service layer for managing tasks.
@@ -23,6 +37,16 @@ public class TaskService {
      */
     private TaskRepository repo;
 
+    /**
+     * Output of command results
+     */
+    private PrintStream out;
+
+    /**
+     * Group commit of the repository, or null to persist the repository directly
+     */
+    private GroupCommitter committer;
+
     /**
      * Constructs a new TaskService.
      * @param storagePath Path to the storage file
@@ -31,30 +55,165 @@ public class TaskService {
      */
     public TaskService(Path storagePath, Path sequencePath) throws IOException {
         this.repo = new TaskRepository(storagePath, sequencePath);
+        this.out = openStandardOutput();
+    }
+
+    /**
+     * Constructs a new TaskService with custom storage configuration.
+     * @param storagePath Path to the storage file
+     * @param sequencePath Path to the sequence file
+     * @param options Storage configuration
+     * @throws IOException if an I/O error occurs
+     */
+    public TaskService(Path storagePath, Path sequencePath, StorageOptions options) throws IOException {
+        this.repo = new TaskRepository(storagePath, sequencePath, options);
+        this.out = openStandardOutput();
+    }
+
+    /**
+     * Constructs a new TaskService over an already opened repository.
+     * <p>
+     * Allows a long-running process to keep a single repository and serve every command with its own output.
+     * </p>
+     * @param repo Repository for managing tasks
+     * @param out Output of command results
+     */
+    public TaskService(TaskRepository repo, PrintStream out) {
+        this(repo, out, null);
+    }
+
+    /**
+     * Constructs a new TaskService over an already opened repository shared by concurrent writers.
+     * <p>
+     * Saves are committed by the given {@link GroupCommitter} together with saves of other writers.
+     * </p>
+     * @param repo Repository for managing tasks
+     * @param out Output of command results
+     * @param committer Group commit of the repository, or null to persist the repository directly
+     */
+    public TaskService(TaskRepository repo, PrintStream out, GroupCommitter committer) {
+        this.repo = repo;
+        this.out = out;
+        this.committer = committer;
     }
 
     /**
-     * Retrieves a list of all tasks and prints them to standard output in a tabular format.
+     * Opens standard output for command results.
+     * <p>
+     * Unlike {@link System#out}, the stream neither buffers nor flushes by itself, so that rows rendered by
+     * a {@link TableRenderer} reach the file descriptor in large chunks, while messages are written as printed.
+     * </p>
+     * @return Stream writing to standard output
+     */
+    private static PrintStream openStandardOutput() {
+        return new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves a list of all tasks and prints them to the output in a tabular format.
+     * <p>
+     * Tasks are streamed from storage, see {@link TaskRepository#forEach(java.util.function.Consumer)},
+     * and rendered in chunks by a {@link TableRenderer}.
+     * </p>
+     * @throws UncheckedIOException if an I/O error occurs
      */
     public void listAll() {
-        var tasks = repo.listAll();
-        System.out.println(TaskSerializer.buildTableHeader());
-        for (Task task : tasks) {
-            System.out.println(TaskSerializer.cliSerialize(task));
-        }
+        this.list(ListQuery.ALL);
     }
 
     /**
-     * Retrieves a list of tasks filtered by status and prints them to standard output in a tabular format.
+     * Retrieves a list of tasks filtered by status and prints them to the output in a tabular format.
      * @param status TaskStatus to filter tasks by
+     * @throws UncheckedIOException if an I/O error occurs
      */
     public void listByStatus(TaskStatus status) {
-        var tasks = repo.listAll();
-        System.out.println(TaskSerializer.buildTableHeader());
-        for (Task task : tasks) {
-            if (task.getStatus().equals(status)) {
-                System.out.println(TaskSerializer.cliSerialize(task));
+        this.list(new ListQuery(status, null, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Retrieves a page of tasks, optionally filtered by status and time range and sorted, and prints them
+     * in a tabular format.
+     * <p>
+     * Tasks listed in storage order, or by ID if stored in ascending order of IDs, are streamed and reading of
+     * storage stops once the page is complete. Tasks within a time range are looked up in the time index of the
+     * repository, latest first, see {@link TaskRepository#forEachBetween}, and are streamed the same way unless
+     * sorted by ID. Otherwise, the first tasks in order up to the end of the page are selected by a bounded heap,
+     * see {@link TopN}, without sorting all tasks.
+     * </p>
+     * @param query Status filter, time range, order and page of listed tasks
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    public void list(ListQuery query) {
+        this.render(renderer -> {
+            if (query.getLimit() == 0) {
+                return;
+            }
+            int offset = query.getOffset();
+            long end = (long) offset + query.getLimit();
+            var sort = query.getSort();
+            var status = query.getStatus();
+            Consumer<Predicate<Task>> source;
+            boolean streamed;
+            if (query.isRanged()) {
+                var key = sort == SortKey.CREATED ? SortKey.CREATED : SortKey.UPDATED;
+                source = consumer -> this.repo.forEachBetween(
+                    key,
+                    query.getSince(),
+                    query.getUntil(),
+                    task -> (status != null && task.getStatus() != status) || consumer.test(task)
+                );
+                streamed = sort != SortKey.ID;
+            } else {
+                source = consumer -> this.repo.forEachWhile(status, consumer);
+                streamed = sort == null || (sort == SortKey.ID && this.repo.isOrdered());
+            }
+            if (streamed) {
+                long[] seen = new long[1];
+                source.accept(task -> {
+                    if (seen[0]++ >= offset) {
+                        renderTask(renderer, task);
+                    }
+                    return seen[0] < end;
+                });
+                return;
             }
+            var top = new TopN<Task>((int) Math.min(end, Integer.MAX_VALUE), sort.comparator());
+            source.accept(task -> {
+                top.offer(task);
+                return true;
+            });
+            var page = top.toSortedList();
+            for (int i = offset; i < page.size(); i++) {
+                renderTask(renderer, page.get(i));
+            }
+        });
+    }
+
+    /**
+     * Renders the task table to the output.
+     * @param rows Renders the rows of the table
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    private void render(Consumer<TableRenderer> rows) {
+        try (var renderer = new TableRenderer(this.out)) {
+            renderer.renderHeader();
+            rows.accept(renderer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Renders a row of the task table.
+     * @param renderer Renderer of the table
+     * @param task Rendered task
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    private static void renderTask(TableRenderer renderer, Task task) {
+        try {
+            renderer.render(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -64,7 +223,7 @@ public class TaskService {
      */
     public void addTask(String desc) {
         var id = this.repo.create(desc);
-        System.out.println("New task created with ID " + id + '.');
+        this.out.println("New task created with ID " + id + '.');
     }
 
     /**
@@ -74,10 +233,8 @@ public class TaskService {
      * @throws NoSuchElementException if the task with the given ID does not exist
      */
     public void update(int id, String desc) {
-        var task = this.getTask(id);
-        task.setDesc(desc);
-        this.repo.update(task);
-        System.out.println("Task successully updated.");
+        this.repo.update(id, task -> task.setDesc(desc));
+        this.out.println("Task successully updated.");
     }
 
     /**
@@ -87,10 +244,8 @@ public class TaskService {
      * @throws NoSuchElementException if the task with the given ID does not exist
      */
     public void update(int id, TaskStatus status) {
-        var task = this.getTask(id);
-        task.setStatus(status);
-        this.repo.update(task);
-        System.out.println("Task status successfully changed.");
+        this.repo.update(id, task -> task.setStatus(status));
+        this.out.println("Task status successfully changed.");
     }
 
     /**
@@ -100,24 +255,71 @@ public class TaskService {
      */
     public void delete(int id) throws NoSuchElementException {
         this.repo.delete(id);
-        System.out.println("Task successfully deleted.");
+        this.out.println("Task successfully deleted.");
     }
 
     /**
-     * Saves the current state of tasks to persistent storage.
+     * Imports tasks from a JSON file in the storage file format, e.g. written by {@link #exportTasks(Path)}.
+     * <p>
+     * Records are parsed in parallel, see {@link ParallelTaskReader}, and merged in file order.
+     * </p>
+     * @param source Path to the imported file
+     * @param policy How tasks with IDs which are already taken are merged
      * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file contains an invalid record
      */
-    public void save() throws IOException {
-        this.repo.persist();
+    public void importTasks(Path source, ConflictPolicy policy) throws IOException {
+        int[] counts = new int[3];
+        new ParallelTaskReader().read(source, task -> {
+            int id = this.repo.importTask(task, policy);
+            if (id == 0) {
+                counts[2]++;
+                return;
+            }
+            counts[0]++;
+            if (id != task.getId()) {
+                counts[1]++;
+            }
+        });
+        this.out.println(
+            new StringBuilder()
+                .append("Imported ")
+                .append(counts[0])
+                .append(" tasks (")
+                .append(counts[1])
+                .append(" renumbered, ")
+                .append(counts[2])
+                .append(" skipped).")
+                .toString()
+        );
     }
 
     /**
-     * Retrieves a task by its ID.
-     * @param id Task ID
-     * @return Corresponding Task
-     * @throws NoSuchElementException if the task with the given ID does not exist
+     * Exports all tasks into a JSON file in the storage file format.
+     * @param target Path to the exported file
+     * @throws IOException if an I/O error occurs
+     */
+    public void exportTasks(Path target) throws IOException {
+        long size = this.repo.exportTasks(target, StorageFormat.JSON);
+        this.out.println("Tasks exported into " + target.getFileName() + " (" + size + " bytes).");
+    }
+
+    /**
+     * Saves the current state of tasks to persistent storage.
+     * <p>
+     * Nothing is written if no task was changed, see {@link TaskRepository#persist()}. With a group commit,
+     * the method waits until the changes are committed, possibly together with changes of other writers.
+     * </p>
+     * @return Number of written bytes, zero if there was nothing to save
+     * @throws IOException if an I/O error occurs
      */
-    private Task getTask(int id) {
-        return this.repo.get(id);
+    public long save() throws IOException {
+        if (this.committer == null) {
+            return this.repo.persist();
+        }
+        if (!this.repo.isDirty()) {
+            return 0;
+        }
+        return this.committer.commitAndWait();
     }
 }
@@ -1,6 +1,11 @@
 package com.github.khgreav.forgetmenot.utils;
 
 import java.lang.AssertionError;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 
 /**
  * Utility class for command-line argument parsing and validation.
@@ -44,4 +49,110 @@ public final class CliArgUtils {
             throw new IllegalArgumentException("Invalid ID argument value.", e);
         }
     }
+
+    /**
+     * Parses and validates a count from string.
+     * @param val String value representing the count
+     * @return Parsed count as an integer
+     * @throws IllegalArgumentException if the value is not a valid non-negative integer
+     */
+    public static int parseCount(String val) throws IllegalArgumentException {
+        try {
+            int count = Integer.parseInt(val);
+            if (count < 0) {
+                throw new IllegalArgumentException("Count argument value should be non-negative integer.");
+            }
+            return count;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid count argument value.", e);
+        }
+    }
+
+    /**
+     * Parses a point in time from string.
+     * <p>
+     * The value is either a timestamp as listed by the CLI ({@code 2025-12-26T18:00:00Z}), a date standing for
+     * its midnight in UTC ({@code 2025-12-26}), or a number of minutes, hours or days before now ({@code 30m},
+     * {@code 24h}, {@code 7d}).
+     * </p>
+     * @param val String value representing the point in time
+     * @param now Current time, relative values are resolved against
+     * @return Parsed point in time
+     * @throws IllegalArgumentException if the value is not a valid point in time
+     */
+    public static Instant parseTime(String val, Instant now) throws IllegalArgumentException {
+        try {
+            var unit = switch (val.isEmpty() ? ' ' : val.charAt(val.length() - 1)) {
+                case 'm' -> ChronoUnit.MINUTES;
+                case 'h' -> ChronoUnit.HOURS;
+                case 'd' -> ChronoUnit.DAYS;
+                default -> null;
+            };
+            if (unit != null) {
+                long amount = Long.parseLong(val, 0, val.length() - 1, 10);
+                if (amount < 0) {
+                    throw new IllegalArgumentException("Relative time argument value should be non-negative.");
+                }
+                return now.minus(amount, unit);
+            }
+            if (val.indexOf('T') < 0) {
+                return LocalDate.parse(val).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return InstantCodec.parse(val);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid time argument value.", e);
+        }
+    }
+
+    /**
+     * Splits a command line into arguments the way a shell does for simple commands.
+     * <p>
+     * Arguments are separated by whitespace. Double or single quotes group characters, including whitespace,
+     * into a single argument. Outside single quotes, a backslash escapes the following character.
+     * </p>
+     * @param line Command line
+     * @return Arguments, empty if the line is blank
+     * @throws IllegalArgumentException if a quote is not terminated or the line ends with a backslash
+     */
+    public static String[] tokenize(String line) {
+        var args = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean inArg = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && quote != '\'') {
+                if (++i == line.length()) {
+                    throw new IllegalArgumentException("Command line should not end with a backslash.");
+                }
+                current.append(line.charAt(i));
+                inArg = true;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inArg = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArg) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inArg = false;
+                }
+            } else {
+                current.append(c);
+                inArg = true;
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unterminated quote in command line.");
+        }
+        if (inArg) {
+            args.add(current.toString());
+        }
+        return args.toArray(new String[0]);
+    }
 }
@@ -1,12 +1,11 @@
 package com.github.khgreav.forgetmenot.utils;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
 
 import com.github.khgreav.forgetmenot.enums.TaskStatus;
 import com.github.khgreav.forgetmenot.models.Task;
@@ -21,120 +20,354 @@ public final class FlatJsonProcessor {
     }
 
     /**
-     * Set of required keys in the JSON representation of a Task.
+     * Bit flag of the {@code id} key.
      */
-    private static final Set<String> REQUIRED_KEYS = Set.of(
-        "id",
-        "desc",
-        "status",
-        "createdAt",
-        "updatedAt"
-    );
+    private static final int ID_KEY = 1;
+
+    /**
+     * Bit flag of the {@code desc} key.
+     */
+    private static final int DESC_KEY = 2;
+
+    /**
+     * Bit flag of the {@code status} key.
+     */
+    private static final int STATUS_KEY = 4;
+
+    /**
+     * Bit flag of the {@code createdAt} key.
+     */
+    private static final int CREATED_AT_KEY = 8;
+
+    /**
+     * Bit flag of the {@code updatedAt} key.
+     */
+    private static final int UPDATED_AT_KEY = 16;
+
+    /**
+     * Bit flags of all keys, which have to be present in a valid record.
+     */
+    private static final int ALL_KEYS = ID_KEY | DESC_KEY | STATUS_KEY | CREATED_AT_KEY | UPDATED_AT_KEY;
 
     /**
      * Deserializes a JSON string into a {@link Task} object.
      * @param line JSON string representing a Task
      * @return Deserialized Task object
      * @throws IllegalArgumentException if the JSON string is invalid, contains invalid keys, or values
+     * @see #deserializeObject(String, int, int)
      */
     public static Task deserializeObject(String line) {
-        int i = 0;
-        int n = line.length();
+        return deserializeObject(line, 0, line.length());
+    }
 
-        Map<String, Object> props = new HashMap<String, Object>();
+    /**
+     * Deserializes a region of a JSON string into a {@link Task} object.
+     * <p>
+     * Fields are parsed straight into the Task constructor arguments, keys are dispatched by their length
+     * and characters. Apart from the task itself, only the description String and a small wrapper of the record
+     * are allocated for records in the layout written by {@link TaskSerializer}.
+     * </p>
+     * @param line String containing the record
+     * @param start Index of the first character of the record
+     * @param end Index after the last character of the record
+     * @return Deserialized Task object
+     * @throws IllegalArgumentException if the record is invalid, contains invalid keys, or values
+     */
+    public static Task deserializeObject(String line, int start, int end) {
+        return deserializeObject(new StringSource(line), start, end);
+    }
+
+    /**
+     * Deserializes a JSON record stored as UTF-8 bytes into a {@link Task} object.
+     * <p>
+     * Keys and values are parsed directly from the buffer without decoding the record into a String,
+     * only the task description is materialized. Records are validated the same way as by
+     * {@link #deserializeObject(String, int, int)}. The buffer position is not modified.
+     * </p>
+     * @param buf Buffer containing the record
+     * @param start Index of the first byte of the record
+     * @param end Index after the last byte of the record
+     * @return Deserialized Task object
+     * @throws IllegalArgumentException if the record is invalid, contains invalid keys, or values
+     */
+    public static Task deserializeObject(ByteBuffer buf, int start, int end) {
+        return deserializeObject(new BufferSource(buf), start, end);
+    }
+
+    /**
+     * Extracts the task ID of a JSON record stored as UTF-8 bytes, without deserializing other properties.
+     * <p>
+     * Values of other keys are skipped without validation, the record is fully validated once
+     * it is deserialized by {@link #deserializeObject(ByteBuffer, int, int)}.
+     * </p>
+     * @param buf Buffer containing the record
+     * @param start Index of the first byte of the record
+     * @param end Index after the last byte of the record
+     * @return Task ID
+     * @throws IllegalArgumentException if the record does not contain a valid ID
+     */
+    public static int deserializeId(ByteBuffer buf, int start, int end) {
+        var source = new BufferSource(buf);
+        long region = findValue(source, start, end, "id");
+        if (region < 0) {
+            throw new IllegalArgumentException("Task record should contain ID property.");
+        }
+        return parseId(source, (int) (region >>> 32), (int) region);
+    }
+
+    /**
+     * Extracts the task status of a JSON record stored as UTF-8 bytes, without deserializing other properties.
+     * <p>
+     * Values of other keys are skipped without validation, the same way as by {@link #deserializeId(ByteBuffer, int, int)}.
+     * </p>
+     * @param buf Buffer containing the record
+     * @param start Index of the first byte of the record
+     * @param end Index after the last byte of the record
+     * @return Task status
+     * @throws IllegalArgumentException if the record does not contain a valid status
+     */
+    public static TaskStatus deserializeStatus(ByteBuffer buf, int start, int end) {
+        var source = new BufferSource(buf);
+        long region = findValue(source, start, end, "status");
+        if (region < 0) {
+            throw new IllegalArgumentException("Task record should contain status property.");
+        }
+        return parseStatus(source, (int) (region >>> 32), (int) region);
+    }
 
-        while (i < n) {
+    /**
+     * Deserializes a record into a {@link Task} object.
+     * @param source Characters of the record
+     * @param start Index of the first character of the record
+     * @param end Index after the last character of the record
+     * @return Deserialized Task object
+     * @throws IllegalArgumentException if the record is invalid, contains invalid keys, or values
+     */
+    private static Task deserializeObject(Source source, int start, int end) {
+        int i = start;
+        int seen = 0;
+
+        int id = 0;
+        String desc = null;
+        TaskStatus status = null;
+        Instant createdAt = null;
+        Instant updatedAt = null;
+
+        while (i < end) {
             // process one key per outer loop
-            while (i < n && line.charAt(i) != '"') {
+            while (i < end && source.charAt(i) != '"') {
                 i++;
             }
-            if (i >= n) {
+            if (i >= end) {
                 break;
             }
-            // found start of key
-            i++;
-            int start = i;
-            // find end of key
-            while (i < n && line.charAt(i) != '"') {
+            int keyStart = ++i;
+            while (i < end && source.charAt(i) != '"') {
                 i++;
             }
-            if (i >= n) {
+            if (i >= end) {
                 break;
             }
-            var key = line.substring(start, i);
+            int key = matchKey(source, keyStart, i);
             i++;
-            // check if key is valid
-            if (!REQUIRED_KEYS.contains(key)) {
-                throw new IllegalArgumentException("Invalid record key: " + key);
-            }
-            // check for duplicate key
-            if (props.containsKey(key)) {
-                throw new IllegalArgumentException("Duplicate record key detected: " + key);
+            if ((seen & key) != 0) {
+                throw new IllegalArgumentException("Duplicate record key detected: " + source.substring(keyStart, i - 1));
             }
             // find k-v separator
-            while (i < n && (Character.isWhitespace(line.charAt(i)) || line.charAt(i) == ':')) {
+            while (i < end && (source.charAt(i) == ':' || isWhitespace(source.charAt(i)))) {
                 i++;
             }
-            if (i >= n) {
+            if (i >= end) {
                 break;
             }
-            String value;
-            if (line.charAt(i) == '"') {
-                i++;
-                start = i;
-                while (i < n && line.charAt(i) != '"') {
+            int valueStart;
+            int valueEnd;
+            if (source.charAt(i) == '"') {
+                valueStart = ++i;
+                while (i < end && source.charAt(i) != '"') {
                     i++;
                 }
-                if (i >= n) {
+                if (i >= end) {
                     break;
                 }
-                value = line.substring(start, i);
+                valueEnd = i;
             } else {
-                start = i;
-                while (i < n && line.charAt(i) != ',' && line.charAt(i) != '}' && !Character.isWhitespace(n)) {
-                    if (!Character.isDigit(line.charAt(i))) {
+                valueStart = i;
+                while (i < end && source.charAt(i) != ',' && source.charAt(i) != '}' && !isWhitespace(source.charAt(i))) {
+                    if (!isDigit(source.charAt(i))) {
                         throw new IllegalArgumentException("ID property should contain a numeric value.");
                     }
                     i++;
                 }
-                if (i >= n) {
+                if (i >= end) {
                     break;
                 }
-                value = line.substring(start, i);
+                valueEnd = i;
             }
             i++;
-            if (key.equals("id")) {
-                try {
-                    var id = Integer.parseInt(value);
-                    if (id < 1) {
-                        throw new IllegalArgumentException("ID property value should be non-zero positive integere.");
-                    }
-                    props.put(key, id);
-                } catch (Exception e) {
-                    throw new IllegalArgumentException(
-                        "Invalid ID property value: " + e.getMessage(),
-                        e
-                    );
-                }
-            } else if (key.equals("status")) {
-                props.put(key, TaskStatus.fromString(value));
-            } else if (key.equals("createdAt") || key.equals("updatedAt")) {
-                try {
-                    props.put(key, Instant.parse(value));
-                } catch (DateTimeParseException e) {
-                    throw new IllegalArgumentException(
-                        "Invalid datetime property value format: " +  e.getMessage(),
-                        e
-                    );
+            switch (key) {
+                case ID_KEY -> id = parseId(source, valueStart, valueEnd);
+                case DESC_KEY -> desc = source.substring(valueStart, valueEnd);
+                case STATUS_KEY -> status = parseStatus(source, valueStart, valueEnd);
+                case CREATED_AT_KEY -> createdAt = parseInstant(source, valueStart, valueEnd);
+                default -> updatedAt = parseInstant(source, valueStart, valueEnd);
+            }
+            seen |= key;
+        }
+        if (seen != ALL_KEYS) {
+            throw new IllegalArgumentException("Task record should contain 5 properties.");
+        }
+        return new Task(id, desc, status, createdAt, updatedAt);
+    }
+
+    /**
+     * Finds the value of a key in a record, skipping values of other keys.
+     * @param source Characters of the record
+     * @param start Index of the first character of the record
+     * @param end Index after the last character of the record
+     * @param name Key to find
+     * @return Index of the first character of the value in the upper 32 bits and index after its last character
+     * in the lower 32 bits, or -1 if the record does not contain the key
+     */
+    private static long findValue(Source source, int start, int end, String name) {
+        int i = start;
+        while (i < end) {
+            while (i < end && source.charAt(i) != '"') {
+                i++;
+            }
+            int keyStart = ++i;
+            while (i < end && source.charAt(i) != '"') {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            boolean found = i - keyStart == name.length() && source.regionEquals(keyStart, name);
+            i++;
+            while (i < end && (source.charAt(i) == ':' || isWhitespace(source.charAt(i)))) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            int valueStart;
+            if (source.charAt(i) == '"') {
+                valueStart = ++i;
+                while (i < end && source.charAt(i) != '"') {
+                    i++;
                 }
             } else {
-                props.put(key, value);
+                valueStart = i;
+                while (i < end && source.charAt(i) != ',' && source.charAt(i) != '}' && !isWhitespace(source.charAt(i))) {
+                    i++;
+                }
             }
+            if (found) {
+                return ((long) valueStart << 32) | Math.min(i, end);
+            }
+            i++;
         }
-        if (props.size() != 5) {
-            throw new IllegalArgumentException("Task record should contain 5 properties.");
+        return -1;
+    }
+
+    /**
+     * Matches a record key against the known Task keys.
+     * @param source Characters of the record
+     * @param start Index of the first character of the key
+     * @param end Index after the last character of the key
+     * @return Bit flag of the key
+     * @throws IllegalArgumentException if the key is not a Task key
+     */
+    private static int matchKey(Source source, int start, int end) {
+        int key = switch (end - start) {
+            case 2 -> source.regionEquals(start, "id") ? ID_KEY : 0;
+            case 4 -> source.regionEquals(start, "desc") ? DESC_KEY : 0;
+            case 6 -> source.regionEquals(start, "status") ? STATUS_KEY : 0;
+            case 9 -> source.regionEquals(start, "createdAt")
+                ? CREATED_AT_KEY
+                : source.regionEquals(start, "updatedAt") ? UPDATED_AT_KEY : 0;
+            default -> 0;
+        };
+        if (key == 0) {
+            throw new IllegalArgumentException("Invalid record key: " + source.substring(start, end));
+        }
+        return key;
+    }
+
+    /**
+     * Parses a positive task ID from digits.
+     * @param source Characters of the record
+     * @param start Index of the first character of the value
+     * @param end Index after the last character of the value
+     * @return Parsed ID
+     * @throws IllegalArgumentException if the value is not a positive integer
+     */
+    private static int parseId(Source source, int start, int end) {
+        if (start == end) {
+            throw new IllegalArgumentException("Invalid ID property value: empty value.");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (!isDigit(c)) {
+                throw new IllegalArgumentException("Invalid ID property value: " + source.substring(start, end));
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid ID property value: " + source.substring(start, end));
+            }
+        }
+        if (value < 1) {
+            throw new IllegalArgumentException("Invalid ID property value: ID property value should be non-zero positive integer.");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a task status without extracting the value.
+     * @param source Characters of the record
+     * @param start Index of the first character of the value
+     * @param end Index after the last character of the value
+     * @return Parsed status
+     * @throws IllegalArgumentException if the value is not a valid status
+     */
+    private static TaskStatus parseStatus(Source source, int start, int end) {
+        return switch (end - start) {
+            case 4 -> source.regionEquals(start, "todo")
+                ? TaskStatus.TODO
+                : source.regionEquals(start, "done") ? TaskStatus.DONE : TaskStatus.fromString(source.substring(start, end));
+            case 11 -> source.regionEquals(start, "in-progress")
+                ? TaskStatus.IN_PROGRESS
+                : TaskStatus.fromString(source.substring(start, end));
+            default -> TaskStatus.fromString(source.substring(start, end));
+        };
+    }
+
+    /**
+     * Parses a datetime value by {@link InstantCodec}.
+     * @param source Characters of the record
+     * @param start Index of the first character of the value
+     * @param end Index after the last character of the value
+     * @return Parsed instant
+     * @throws IllegalArgumentException if the value is not a valid datetime
+     */
+    private static Instant parseInstant(Source source, int start, int end) {
+        try {
+            return source.parseInstant(start, end);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                "Invalid datetime property value format: " +  e.getMessage(),
+                e
+            );
         }
-        return Task.fromJson(props);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
     }
 
     /**
@@ -149,8 +382,8 @@ public final class FlatJsonProcessor {
         while (itr.hasNext()) {
             sb.append('\n');
             Task task = itr.next();
-            sb.append("  ")
-                .append(TaskSerializer.jsonSerialize(task));
+            sb.append("  ");
+            TaskSerializer.jsonSerialize(task, sb);
             if (itr.hasNext()) {
                 sb.append(',');
             } else {
@@ -160,4 +393,134 @@ public final class FlatJsonProcessor {
         sb.append("]\n");
         return sb.toString();
     }
+
+    /**
+     * Characters of a record being deserialized.
+     * <p>
+     * Keys and all values but the description are ASCII, so a record is scanned the same way whether it is held
+     * in a String or stored as UTF-8 bytes, only the description is decoded.
+     * </p>
+     */
+    private interface Source {
+
+        /**
+         * Returns the character at an index, bytes of multi-byte UTF-8 sequences are returned as non-ASCII characters.
+         * @param i Index
+         * @return Character
+         */
+        char charAt(int i);
+
+        /**
+         * Checks whether a region equals an ASCII string.
+         * @param start Index of the first character of the region
+         * @param s ASCII string of the same length as the region
+         * @return True if equal, false otherwise
+         */
+        boolean regionEquals(int start, String s);
+
+        /**
+         * Extracts a region as a String.
+         * @param start Index of the first character of the region
+         * @param end Index after the last character of the region
+         * @return Extracted string
+         */
+        String substring(int start, int end);
+
+        /**
+         * Parses a region as a datetime.
+         * @param start Index of the first character of the region
+         * @param end Index after the last character of the region
+         * @return Parsed instant
+         * @throws DateTimeParseException if the region is not a valid datetime
+         */
+        Instant parseInstant(int start, int end);
+    }
+
+    /**
+     * Record held in a String.
+     */
+    private static final class StringSource implements Source {
+
+        /**
+         * String containing the record.
+         */
+        private final String line;
+
+        /**
+         * Constructs a new StringSource.
+         * @param line String containing the record
+         */
+        StringSource(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public char charAt(int i) {
+            return this.line.charAt(i);
+        }
+
+        @Override
+        public boolean regionEquals(int start, String s) {
+            return this.line.startsWith(s, start);
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            return this.line.substring(start, end);
+        }
+
+        @Override
+        public Instant parseInstant(int start, int end) {
+            return InstantCodec.parse(this.line, start, end);
+        }
+    }
+
+    /**
+     * Record stored as UTF-8 bytes in a buffer, read by absolute indexes.
+     */
+    private static final class BufferSource implements Source {
+
+        /**
+         * Buffer containing the record.
+         */
+        private final ByteBuffer buf;
+
+        /**
+         * Constructs a new BufferSource.
+         * @param buf Buffer containing the record
+         */
+        BufferSource(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public char charAt(int i) {
+            return (char) (this.buf.get(i) & 0xFF);
+        }
+
+        @Override
+        public boolean regionEquals(int start, String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (this.buf.get(start + i) != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String substring(int start, int end) {
+            if (this.buf.hasArray()) {
+                return new String(this.buf.array(), this.buf.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+            }
+            byte[] bytes = new byte[end - start];
+            this.buf.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Instant parseInstant(int start, int end) {
+            return InstantCodec.parse(this.buf, start, end);
+        }
+    }
 }
@@ -35,4 +35,37 @@ public final class Formatter {
         }
         return s + String.valueOf(padchar).repeat(length - s.length());
     }
+
+    /**
+     * Pads the text appended to a StringBuilder since a given index on the right with spaces
+     * or truncates it to fit the specified length.
+     * @param sb StringBuilder holding the text
+     * @param from Index of the first character of the text
+     * @param length Desired length
+     */
+    public static void padRightFrom(StringBuilder sb, int from, int length) {
+        padRightFrom(sb, from, length, ' ');
+    }
+
+    /**
+     * Pads the text appended to a StringBuilder since a given index on the right with the specified character
+     * or truncates it to fit the specified length.
+     * <p>
+     * Allows padding values appended directly into an output buffer, without creating intermediate Strings.
+     * </p>
+     * @param sb StringBuilder holding the text
+     * @param from Index of the first character of the text
+     * @param length Desired length
+     * @param padchar Character to use for padding
+     */
+    public static void padRightFrom(StringBuilder sb, int from, int length, char padchar) {
+        int end = from + length;
+        if (sb.length() >= end) {
+            sb.setLength(end);
+            return;
+        }
+        while (sb.length() < end) {
+            sb.append(padchar);
+        }
+    }
 }
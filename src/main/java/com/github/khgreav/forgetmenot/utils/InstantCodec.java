@@ -0,0 +1,265 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Utility class for parsing and formatting timestamps of {@link com.github.khgreav.forgetmenot.models.Task} objects.
+ * <p>
+ * Timestamps are stored in the {@code yyyy-MM-ddTHH:mm:ssZ} layout produced by
+ * {@code new DateTimeFormatterBuilder().appendInstant(0)}. Values in this layout are parsed and formatted
+ * by plain arithmetic, anything else falls back to {@link Instant#parse(CharSequence)} and the equivalent
+ * {@link DateTimeFormatter}, so results are identical to the general implementations.
+ * </p>
+ */
+public final class InstantCodec {
+
+    /**
+     * Length of the {@code yyyy-MM-ddTHH:mm:ssZ} layout.
+     */
+    public static final int LENGTH = 20;
+
+    /**
+     * Formatter of instants without fractional seconds, used outside of the fast path.
+     */
+    private static final DateTimeFormatter FORMATTER = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
+
+    /**
+     * Number of seconds in a day.
+     */
+    private static final int SECONDS_PER_DAY = 86400;
+
+    /**
+     * Number of days from 0000-03-01 to 1970-01-01.
+     */
+    private static final long DAYS_0000_TO_1970 = 719468;
+
+    /**
+     * Number of days in a 400-year cycle.
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    private InstantCodec() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Parses a timestamp.
+     * @param s Text to parse
+     * @return Parsed instant
+     * @throws DateTimeParseException if the text is not a valid timestamp
+     */
+    public static Instant parse(CharSequence s) {
+        return parse(s, 0, s.length());
+    }
+
+    /**
+     * Parses a timestamp from a region of text.
+     * @param s Text containing the timestamp
+     * @param start Index of the first character of the timestamp
+     * @param end Index after the last character of the timestamp
+     * @return Parsed instant
+     * @throws DateTimeParseException if the region is not a valid timestamp
+     */
+    public static Instant parse(CharSequence s, int start, int end) {
+        if (end - start == LENGTH
+            && s.charAt(start + 4) == '-' && s.charAt(start + 7) == '-' && s.charAt(start + 10) == 'T'
+            && s.charAt(start + 13) == ':' && s.charAt(start + 16) == ':' && s.charAt(start + 19) == 'Z') {
+            var instant = instantOf(
+                digits(s, start, 4),
+                digits(s, start + 5, 2),
+                digits(s, start + 8, 2),
+                digits(s, start + 11, 2),
+                digits(s, start + 14, 2),
+                digits(s, start + 17, 2)
+            );
+            if (instant != null) {
+                return instant;
+            }
+        }
+        return Instant.parse(s.subSequence(start, end));
+    }
+
+    /**
+     * Parses a timestamp from a region of a buffer holding ASCII or UTF-8 bytes.
+     * <p>
+     * The buffer position is not modified.
+     * </p>
+     * @param buf Buffer containing the timestamp
+     * @param start Index of the first byte of the timestamp
+     * @param end Index after the last byte of the timestamp
+     * @return Parsed instant
+     * @throws DateTimeParseException if the region is not a valid timestamp
+     */
+    public static Instant parse(ByteBuffer buf, int start, int end) {
+        if (end - start == LENGTH
+            && buf.get(start + 4) == '-' && buf.get(start + 7) == '-' && buf.get(start + 10) == 'T'
+            && buf.get(start + 13) == ':' && buf.get(start + 16) == ':' && buf.get(start + 19) == 'Z') {
+            var instant = instantOf(
+                digits(buf, start, 4),
+                digits(buf, start + 5, 2),
+                digits(buf, start + 8, 2),
+                digits(buf, start + 11, 2),
+                digits(buf, start + 14, 2),
+                digits(buf, start + 17, 2)
+            );
+            if (instant != null) {
+                return instant;
+            }
+        }
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes);
+        return Instant.parse(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Formats a timestamp, dropping fractional seconds.
+     * @param instant Instant to format
+     * @return Formatted timestamp
+     */
+    public static String format(Instant instant) {
+        var sb = new StringBuilder(LENGTH);
+        formatTo(instant, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats a timestamp into a StringBuilder, dropping fractional seconds.
+     * @param instant Instant to format
+     * @param sb StringBuilder to append the timestamp to
+     */
+    public static void formatTo(Instant instant, StringBuilder sb) {
+        long epochSecond = instant.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        // shift the year to start in March so that the leap day is the last day of the year
+        long days = epochDay + DAYS_0000_TO_1970;
+        long cycle = Math.floorDiv(days, DAYS_PER_CYCLE);
+        int dayOfCycle = (int) (days - cycle * DAYS_PER_CYCLE);
+        int yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524 - dayOfCycle / 146096) / 365;
+        int dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = cycle * 400 + yearOfCycle + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            FORMATTER.formatTo(instant, sb);
+            return;
+        }
+        appendDigits(sb, (int) year, 4);
+        sb.append('-');
+        appendDigits(sb, month, 2);
+        sb.append('-');
+        appendDigits(sb, day, 2);
+        sb.append('T');
+        appendDigits(sb, secondOfDay / 3600, 2);
+        sb.append(':');
+        appendDigits(sb, secondOfDay / 60 % 60, 2);
+        sb.append(':');
+        appendDigits(sb, secondOfDay % 60, 2);
+        sb.append('Z');
+    }
+
+    /**
+     * Creates an instant from UTC datetime fields.
+     * @param year Year, negative if unparsable
+     * @param month Month from 1 to 12
+     * @param day Day of month
+     * @param hour Hour of day
+     * @param minute Minute of hour
+     * @param second Second of minute
+     * @return Instant, or null if a field is out of range
+     */
+    private static Instant instantOf(int year, int month, int day, int hour, int minute, int second) {
+        if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+            && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+            return Instant.ofEpochSecond(epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second);
+        }
+        return null;
+    }
+
+    /**
+     * Parses a fixed number of digits.
+     * @param s Text containing the digits
+     * @param start Index of the first digit
+     * @param count Number of digits
+     * @return Parsed value, or -1 if a non-digit character is encountered
+     */
+    private static int digits(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses a fixed number of ASCII digits.
+     * @param buf Buffer containing the digits
+     * @param start Index of the first digit
+     * @param count Number of digits
+     * @return Parsed value, or -1 if a non-digit byte is encountered
+     */
+    private static int digits(ByteBuffer buf, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buf.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Appends a non-negative number padded with leading zeros.
+     * @param sb StringBuilder to append to
+     * @param value Value to append
+     * @param count Number of digits
+     */
+    private static void appendDigits(StringBuilder sb, int value, int count) {
+        for (int divisor = count == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Returns the number of days in a month of the proleptic Gregorian calendar.
+     * @param year Year
+     * @param month Month from 1 to 12
+     * @return Number of days
+     */
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Returns the number of days since 1970-01-01 of a date in the proleptic Gregorian calendar.
+     * @param year Year
+     * @param month Month from 1 to 12
+     * @param day Day of month
+     * @return Epoch day
+     */
+    private static long epochDay(int year, int month, int day) {
+        // shift the year to start in March so that the leap day is the last day of the year
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+/**
+ * Renderer of the task table for CLI output.
+ * <p>
+ * Rows are formatted by {@link TaskSerializer} into a reused character buffer, encoded as UTF-8 into a reused
+ * byte buffer and written to the output in chunks of about {@link #BUFFER_SIZE} bytes, rather than printing every
+ * row on its own. Listing many tasks thus takes a single write per chunk instead of a lock and a flush per row.
+ * </p>
+ * <p>
+ * Closing the renderer writes the remaining rows and flushes the output, without closing it.
+ * </p>
+ */
+public final class TableRenderer implements Closeable {
+
+    /**
+     * Number of buffered characters after which rows are written to the output.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Output of rendered rows.
+     */
+    private final OutputStream out;
+
+    /**
+     * Rows not yet written to the output.
+     */
+    private final StringBuilder rows;
+
+    /**
+     * Characters of the rows being encoded, grown as needed.
+     */
+    private char[] chars;
+
+    /**
+     * Encoded bytes of the rows being written, large enough for a chunk of ASCII rows to be written at once.
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Encoder of the rows, replacing characters which cannot be encoded like {@link java.io.PrintStream}.
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * Constructs a new TableRenderer.
+     * @param out Output of rendered rows
+     */
+    public TableRenderer(OutputStream out) {
+        this.out = out;
+        this.rows = new StringBuilder(BUFFER_SIZE + TaskSerializer.CLI_LEN * 2);
+        this.chars = new char[BUFFER_SIZE];
+        this.bytes = ByteBuffer.allocate(BUFFER_SIZE * 2);
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Renders the table header.
+     * @throws IOException if an I/O error occurs
+     */
+    public void renderHeader() throws IOException {
+        this.rows.append(TaskSerializer.buildTableHeader()).append('\n');
+        this.writeIfFull();
+    }
+
+    /**
+     * Renders a row of a task.
+     * @param task Rendered task
+     * @throws IOException if an I/O error occurs
+     */
+    public void render(Task task) throws IOException {
+        TaskSerializer.cliSerialize(task, this.rows).append('\n');
+        this.writeIfFull();
+    }
+
+    /**
+     * Writes rendered rows and flushes the output.
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        this.writeRows();
+        this.out.flush();
+    }
+
+    /**
+     * Writes rendered rows and flushes the output, which is left open.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.flush();
+    }
+
+    /**
+     * Writes rendered rows once the buffer is full.
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeIfFull() throws IOException {
+        if (this.rows.length() >= BUFFER_SIZE) {
+            this.writeRows();
+        }
+    }
+
+    /**
+     * Encodes rendered rows and writes them to the output.
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeRows() throws IOException {
+        int length = this.rows.length();
+        if (length == 0) {
+            return;
+        }
+        if (this.chars.length < length) {
+            this.chars = new char[length];
+        }
+        this.rows.getChars(0, length, this.chars, 0);
+        var input = CharBuffer.wrap(this.chars, 0, length);
+        this.encoder.reset();
+        CoderResult result;
+        do {
+            result = this.encoder.encode(input, this.bytes, true);
+            this.drain();
+        } while (result.isOverflow());
+        while (this.encoder.flush(this.bytes).isOverflow()) {
+            this.drain();
+        }
+        this.drain();
+        this.rows.setLength(0);
+    }
+
+    /**
+     * Writes encoded bytes to the output.
+     * @throws IOException if an I/O error occurs
+     */
+    private void drain() throws IOException {
+        if (this.bytes.position() > 0) {
+            this.out.write(this.bytes.array(), 0, this.bytes.position());
+            this.bytes.clear();
+        }
+    }
+}
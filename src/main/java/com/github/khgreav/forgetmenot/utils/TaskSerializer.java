@@ -1,8 +1,5 @@
 package com.github.khgreav.forgetmenot.utils;
 
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-
 import com.github.khgreav.forgetmenot.models.Task;
 
 /**
@@ -29,6 +26,11 @@ public final class TaskSerializer {
      * Fixed length of datetime table column.
      */
     public static final int DATETIME_LEN = 20;
+
+    /**
+     * Length of a task table row.
+     */
+    public static final int CLI_LEN = ID_LEN + DESC_LEN + STATUS_LEN + (2 * DATETIME_LEN) + 12;
     
     private TaskSerializer() {
         throw new AssertionError("Cannot instantiate.");
@@ -58,7 +60,7 @@ public final class TaskSerializer {
             .append(
                 Formatter.padRight(
                     null,
-                    ID_LEN + DESC_LEN + STATUS_LEN + (2 * DATETIME_LEN) + 12,
+                    CLI_LEN,
                     '='
                 )
             ).toString();
@@ -70,24 +72,39 @@ public final class TaskSerializer {
      * @return CLI-formatted task string
      */
     public static String cliSerialize(Task task) {
-        DateTimeFormatter fmt = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
-        return new StringBuilder()
-            .append(
-                Formatter.padRight(String.valueOf(task.getId()), ID_LEN)
-            ).append(" | ")
-            .append(
-                Formatter.padRight(task.getDesc(), DESC_LEN)
-            ).append(" | ")
-            .append(
-                Formatter.padRight(task.getStatus().toString(), STATUS_LEN)
-            ).append(" | ")
-            .append(
-                Formatter.padRight(fmt.format(task.getCreatedAt()), DATETIME_LEN)
-            ).append(" | ")
-            .append(
-                Formatter.padRight(fmt.format(task.getUpdatedAt()), DATETIME_LEN)
-            )
-            .toString();
+        return cliSerialize(task, new StringBuilder(CLI_LEN)).toString();
+    }
+
+    /**
+     * Serializes a {@link Task} object for CLI output, appending it to a StringBuilder.
+     * <p>
+     * Columns are written and padded in place, no intermediate Strings are created.
+     * </p>
+     * @param task Task object to serialize
+     * @param sb StringBuilder to append the row to
+     * @return The StringBuilder
+     */
+    public static StringBuilder cliSerialize(Task task, StringBuilder sb) {
+        int from = sb.length();
+        sb.append(task.getId());
+        Formatter.padRightFrom(sb, from, ID_LEN);
+        sb.append(" | ");
+        from = sb.length();
+        sb.append(task.getDesc());
+        Formatter.padRightFrom(sb, from, DESC_LEN);
+        sb.append(" | ");
+        from = sb.length();
+        sb.append(task.getStatus().toString());
+        Formatter.padRightFrom(sb, from, STATUS_LEN);
+        sb.append(" | ");
+        from = sb.length();
+        InstantCodec.formatTo(task.getCreatedAt(), sb);
+        Formatter.padRightFrom(sb, from, DATETIME_LEN);
+        sb.append(" | ");
+        from = sb.length();
+        InstantCodec.formatTo(task.getUpdatedAt(), sb);
+        Formatter.padRightFrom(sb, from, DATETIME_LEN);
+        return sb;
     }
 
     /**
@@ -96,14 +113,26 @@ public final class TaskSerializer {
      * @return JSON representation of the task
      */
     public static String jsonSerialize(Task task) {
-        DateTimeFormatter fmt = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
-        return String.format(
-            "{\"id\":%d,\"desc\":\"%s\",\"status\":\"%s\",\"createdAt\":\"%s\",\"updatedAt\":\"%s\"}",
-            task.getId(),
-            task.getDesc(),
-            task.getStatus().toString(),
-            fmt.format(task.getCreatedAt()),
-            fmt.format(task.getUpdatedAt())
-        );
+        return jsonSerialize(task, new StringBuilder(128)).toString();
+    }
+
+    /**
+     * Serializes a {@link Task} object into JSON, appending it to a StringBuilder.
+     * @param task Task object to serialize
+     * @param sb StringBuilder to append the JSON representation to
+     * @return The StringBuilder
+     */
+    public static StringBuilder jsonSerialize(Task task, StringBuilder sb) {
+        sb.append("{\"id\":")
+            .append(task.getId())
+            .append(",\"desc\":\"")
+            .append(task.getDesc())
+            .append("\",\"status\":\"")
+            .append(task.getStatus().toString())
+            .append("\",\"createdAt\":\"");
+        InstantCodec.formatTo(task.getCreatedAt(), sb);
+        sb.append("\",\"updatedAt\":\"");
+        InstantCodec.formatTo(task.getUpdatedAt(), sb);
+        return sb.append("\"}");
     }
 }
@@ -0,0 +1,76 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for creating threads of concurrent request handling.
+ * <p>
+ * The application is compiled for Java 17. When it runs on Java 21 or newer, virtual threads are looked up
+ * reflectively, so that every request can get its own cheap thread. On older runtimes a bounded pool
+ * of platform threads is used instead.
+ * </p>
+ */
+public final class ThreadUtils {
+
+    /**
+     * Factory method of the virtual thread per task executor, null if virtual threads are not available.
+     */
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private ThreadUtils() {
+        throw new AssertionError("Cannot instantiate.");
+    }
+
+    /**
+     * Returns whether the runtime supports virtual threads.
+     * @return True if virtual threads are available, false otherwise
+     */
+    public static boolean hasVirtualThreads() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Creates an executor running every submitted task in its own virtual thread.
+     * <p>
+     * If virtual threads are not available, tasks are run by a fixed pool of platform daemon threads
+     * and tasks exceeding the pool size wait in a queue.
+     * </p>
+     * @param name Name prefix of platform threads
+     * @param fallbackThreads Number of platform threads used without virtual threads
+     * @return New executor
+     * @throws IllegalArgumentException if the number of platform threads is not positive
+     */
+    public static ExecutorService newVirtualThreadExecutor(String name, int fallbackThreads) {
+        if (fallbackThreads < 1) {
+            throw new IllegalArgumentException("Number of threads should be a non-zero positive integer.");
+        }
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to platform threads
+            }
+        }
+        var counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+            var thread = new Thread(runnable, name + '-' + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looks up the factory method of the virtual thread per task executor.
+     * @return Factory method, null if virtual threads are not available
+     */
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selection of the first elements of a stream in a given order.
+ * <p>
+ * Elements are kept in a bounded heap whose head is the last kept element, so that offering an element takes
+ * O(log k) time and O(k) memory for k kept elements, instead of sorting the whole stream. Kept elements must not
+ * change their order, e.g. tasks offered by a repository are never changed once stored.
+ * </p>
+ * @param <T> Type of elements
+ */
+public final class TopN<T> {
+
+    /**
+     * Maximum number of kept elements.
+     */
+    private final int capacity;
+
+    /**
+     * Order of elements.
+     */
+    private final Comparator<? super T> order;
+
+    /**
+     * Kept elements, the last one in order at the head.
+     */
+    private final PriorityQueue<T> heap;
+
+    /**
+     * Constructs a new TopN.
+     * @param capacity Maximum number of kept elements
+     * @param order Order of elements, first to last
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public TopN(int capacity, Comparator<? super T> order) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity should be a non-negative number.");
+        }
+        this.capacity = capacity;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(capacity, 1024) + 1, order.reversed());
+    }
+
+    /**
+     * Offers an element, which is kept if it precedes the last kept element or there are fewer than capacity elements.
+     * @param element Offered element
+     */
+    public void offer(T element) {
+        if (this.heap.size() < this.capacity) {
+            this.heap.add(element);
+        } else if (this.capacity > 0 && this.order.compare(element, this.heap.peek()) < 0) {
+            this.heap.poll();
+            this.heap.add(element);
+        }
+    }
+
+    /**
+     * Returns the number of kept elements.
+     * @return Number of kept elements
+     */
+    public int size() {
+        return this.heap.size();
+    }
+
+    /**
+     * Returns the kept elements in order.
+     * @return Sorted list of kept elements
+     */
+    public List<T> toSortedList() {
+        var result = new ArrayList<T>(this.heap);
+        result.sort(this.order);
+        return result;
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.khgreav.forgetmenot.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+public class TaskDaemonTest {
+
+    @TempDir
+    Path dir;
+
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int forward(Path socketPath, String... args) throws IOException {
+        this.out.reset();
+        this.err.reset();
+        var channel = DaemonClient.connect(socketPath);
+        return DaemonClient.forward(channel, args, this.out, this.err);
+    }
+
+    @Test
+    void testForwardCommands() throws Exception {
+        var socketPath = dir.resolve("tasks.sock");
+        var storagePath = dir.resolve("tasks.json");
+        var repo = new TaskRepository(storagePath, dir.resolve("sequence.txt"));
+        var daemon = new TaskDaemon(socketPath, repo);
+        var thread = new Thread(() -> {
+            try (daemon) {
+                daemon.serve();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+
+        assertEquals(0, forward(socketPath, "add", "Buy milk ž"));
+        assertEquals("New task created with ID 1.\n", out.toString(StandardCharsets.UTF_8));
+        assertTrue(Files.readString(storagePath).contains("Buy milk ž"));
+
+        assertEquals(0, forward(socketPath, "--verbose", "mark", "1", "done"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("Saved "));
+
+        assertEquals(0, forward(socketPath, "list", "done"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Buy milk ž"));
+
+        assertEquals(1, forward(socketPath, "mark", "2", "done"));
+        assertEquals("Task ID 2 does not exist.\n", err.toString(StandardCharsets.UTF_8));
+
+        assertEquals(1, forward(socketPath, "serve"));
+        assertEquals("Invalid command: serve.\n", err.toString(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> {
+            new TaskDaemon(socketPath, repo);
+        });
+
+        assertEquals(0, forward(socketPath, TaskDaemon.STOP_COMMAND));
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        assertFalse(Files.exists(socketPath));
+        assertNull(DaemonClient.connect(socketPath));
+    }
+
+    @Test
+    void testConcurrentClients() throws Exception {
+        var socketPath = dir.resolve("tasks.sock");
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var daemon = new TaskDaemon(socketPath, repo);
+        var thread = new Thread(() -> {
+            try (daemon) {
+                daemon.serve();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+
+        int clients = 32;
+        var codes = new ConcurrentLinkedQueue<Integer>();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < clients; i++) {
+            var desc = "task " + i;
+            var client = new Thread(() -> {
+                try {
+                    var channel = DaemonClient.connect(socketPath);
+                    codes.add(DaemonClient.forward(
+                        channel,
+                        new String[] { "add", desc },
+                        OutputStream.nullOutputStream(),
+                        OutputStream.nullOutputStream()
+                    ));
+                } catch (IOException e) {
+                    codes.add(-1);
+                }
+            });
+            client.start();
+            threads.add(client);
+        }
+        for (var client : threads) {
+            client.join();
+        }
+        assertEquals(Collections.nCopies(clients, 0), new ArrayList<>(codes));
+
+        assertEquals(0, forward(socketPath, TaskDaemon.STOP_COMMAND));
+        thread.join(10_000);
+        var ids = new HashSet<Integer>();
+        new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt")).forEach(task -> ids.add(task.getId()));
+        assertEquals(clients, ids.size());
+        assertTrue(ids.contains(1) && ids.contains(clients));
+    }
+
+    @Test
+    void testListReadsResidentTasks() throws Exception {
+        var socketPath = dir.resolve("tasks.sock");
+        var storagePath = dir.resolve("tasks.json");
+        var sequencePath = dir.resolve("sequence.txt");
+        var stored = new TaskRepository(storagePath, sequencePath);
+        for (int i = 1; i <= 100; i++) {
+            stored.create("task " + i);
+        }
+        stored.persist();
+        var daemon = new TaskDaemon(socketPath, new TaskRepository(storagePath, sequencePath));
+        var thread = new Thread(() -> {
+            try (daemon) {
+                daemon.serve();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0, forward(socketPath, "--stats=json", "list"));
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("task 100"));
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains("\"bytes.read\":0,"));
+        }
+
+        assertEquals(0, forward(socketPath, TaskDaemon.STOP_COMMAND));
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void testIdleClients() throws Exception {
+        var socketPath = dir.resolve("tasks.sock");
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var daemon = new TaskDaemon(socketPath, repo, 500);
+        var thread = new Thread(() -> {
+            try (daemon) {
+                daemon.serve();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+
+        var idle = new ArrayList<SocketChannel>();
+        for (int i = 0; i < TaskDaemon.FALLBACK_THREADS; i++) {
+            idle.add(DaemonClient.connect(socketPath));
+        }
+        // A partial request does not extend the deadline
+        idle.get(0).write(ByteBuffer.allocate(2));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertEquals(0, forward(socketPath, "add", "task"));
+        });
+        assertEquals("New task created with ID 1.\n", out.toString(StandardCharsets.UTF_8));
+        for (var channel : idle) {
+            try (channel) {
+                assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+            }
+        }
+
+        assertEquals(0, forward(socketPath, TaskDaemon.STOP_COMMAND));
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void testStaleSocket() throws IOException {
+        var socketPath = dir.resolve("tasks.sock");
+        Files.createFile(socketPath);
+        assertNull(DaemonClient.connect(socketPath));
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var daemon = new TaskDaemon(socketPath, repo);
+        assertTrue(Files.exists(socketPath));
+        daemon.close();
+        assertFalse(Files.exists(socketPath));
+    }
+}
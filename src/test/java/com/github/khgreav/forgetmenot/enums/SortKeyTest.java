@@ -0,0 +1,60 @@
+package com.github.khgreav.forgetmenot.enums;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.github.khgreav.forgetmenot.models.Task;
+
+class SortKeyTest {
+
+    static Stream<Arguments> keyAndStringProvider() {
+        return Stream.of(
+            Arguments.of(SortKey.ID, "id"),
+            Arguments.of(SortKey.CREATED, "created"),
+            Arguments.of(SortKey.UPDATED, "updated")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("keyAndStringProvider")
+    void testFromString(SortKey expected, String value) {
+        assertEquals(expected, SortKey.fromString(value));
+        assertEquals(value, expected.toString());
+    }
+
+    @Test
+    void testFromStringInvalid() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                SortKey.fromString("status");
+            }
+        );
+    }
+
+    @Test
+    void testComparator() {
+        var early = Instant.parse("2025-12-26T18:00:05Z");
+        var late = Instant.parse("2025-12-27T18:00:05Z");
+        var tasks = new ArrayList<>(List.of(
+            new Task(3, "third", TaskStatus.TODO, early, late),
+            new Task(1, "first", TaskStatus.TODO, late, early),
+            new Task(2, "second", TaskStatus.TODO, early, late)
+        ));
+        tasks.sort(SortKey.ID.comparator());
+        assertEquals(List.of(1, 2, 3), tasks.stream().map(Task::getId).toList());
+        tasks.sort(SortKey.CREATED.comparator());
+        assertEquals(List.of(1, 2, 3), tasks.stream().map(Task::getId).toList());
+        tasks.sort(SortKey.UPDATED.comparator());
+        assertEquals(List.of(2, 3, 1), tasks.stream().map(Task::getId).toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.khgreav.forgetmenot.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class CommandStatsTest {
+
+    @AfterEach
+    void tearDown() {
+        CommandStats.end();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testNestedPhasesAreExclusive() {
+        var stats = CommandStats.begin();
+        assertSame(stats, CommandStats.current());
+        var executeTimer = CommandStats.time(Phase.EXECUTE);
+        sleep(20);
+        var loadTimer = CommandStats.time(Phase.LOAD);
+        sleep(50);
+        loadTimer.close();
+        executeTimer.close();
+        long execute = stats.getNanos(Phase.EXECUTE);
+        long load = stats.getNanos(Phase.LOAD);
+        assertTrue(load >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(execute >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(execute < TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(stats.getTotalNanos() >= execute + load);
+    }
+
+    @Test
+    void testCountersRequireBoundStats() {
+        CommandStats.count(Counter.RECORDS_READ, 10);
+        var timer = CommandStats.time(Phase.LOAD);
+        sleep(1);
+        timer.close();
+        assertNull(CommandStats.current());
+
+        var stats = CommandStats.begin();
+        CommandStats.count(Counter.RECORDS_READ, 3);
+        CommandStats.count(Counter.RECORDS_READ, 4);
+        CommandStats.count(Counter.BYTES_WRITTEN, 100);
+        assertEquals(7, stats.getCount(Counter.RECORDS_READ));
+        assertEquals(0, stats.getCount(Counter.BYTES_READ));
+        assertEquals(100, stats.getCount(Counter.BYTES_WRITTEN));
+
+        CommandStats.end();
+        CommandStats.count(Counter.RECORDS_READ, 1);
+        assertEquals(7, stats.getCount(Counter.RECORDS_READ));
+    }
+
+    @Test
+    void testReports() {
+        var stats = CommandStats.begin();
+        CommandStats.count(Counter.BYTES_READ, 42);
+        var json = stats.toJson();
+        assertTrue(json.startsWith("{\"startup.ns\":0,\"load.ns\":0,"));
+        assertTrue(json.contains(",\"bytes.read\":42,"));
+        assertTrue(json.endsWith("}"));
+
+        var lines = stats.toString().split("\n");
+        assertEquals("startup         0.0 ms", lines[0]);
+        assertEquals("bytes.read      42", lines[8]);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+public class BinaryTaskReaderTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    @TempDir
+    Path dir;
+
+    private static List<Task> tasks(int count) {
+        var tasks = new ArrayList<Task>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Task(i * 37, "task " + i + " ž", TaskStatus.values()[i % 3], CREATED_AT, UPDATED_AT));
+        }
+        return tasks;
+    }
+
+    private static void write(Path path, List<Task> tasks) throws IOException {
+        try (var writer = new BinaryTaskWriter(path)) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+    }
+
+    private static List<Task> read(Path path) throws IOException {
+        var result = new ArrayList<Task>();
+        new BinaryTaskReader().read(path, result::add);
+        return result;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        var path = dir.resolve("tasks.bin");
+        for (int count : new int[] { 0, 1, 5000 }) {
+            var tasks = tasks(count);
+            write(path, tasks);
+            assertEquals(tasks, read(path));
+        }
+        write(path, List.of());
+        assertEquals(BinaryTaskWriter.HEADER_SIZE + BinaryTaskWriter.TRAILER_SIZE, Files.size(path));
+    }
+
+    @Test
+    void testLargeRecords() throws IOException {
+        var path = dir.resolve("tasks.bin");
+        var tasks = tasks(3);
+        tasks.set(1, new Task(Integer.MAX_VALUE, "č".repeat(100000), TaskStatus.DONE, Instant.EPOCH, Instant.ofEpochSecond(-1)));
+        write(path, tasks);
+        assertEquals(tasks, read(path));
+    }
+
+    @Test
+    void testWriteOffsets() throws IOException {
+        var path = dir.resolve("tasks.bin");
+        var offsets = new ArrayList<Long>();
+        long size;
+        var writer = new BinaryTaskWriter(path);
+        try (writer) {
+            for (Task task : tasks(3)) {
+                offsets.add(writer.write(task));
+            }
+            size = writer.position();
+        }
+        assertEquals(List.of(8L, 36L, 64L), offsets);
+        assertEquals(size + BinaryTaskWriter.TRAILER_SIZE, writer.position());
+        assertEquals(Files.size(path), writer.position());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 4, 8, 20, -9, -5, -1 })
+    void testCorruptedFile(int index) throws IOException {
+        var path = dir.resolve("tasks.bin");
+        write(path, tasks(2));
+        var bytes = Files.readAllBytes(path);
+        bytes[index < 0 ? bytes.length + index : index] ^= 0x01;
+        Files.write(path, bytes);
+        var e = assertThrows(IllegalArgumentException.class, () -> {
+            read(path);
+        });
+        assertTrue(e.getMessage().startsWith("Invalid binary storage file: "));
+    }
+
+    @Test
+    void testTruncatedFile() throws IOException {
+        var path = dir.resolve("tasks.bin");
+        write(path, tasks(2));
+        var bytes = Files.readAllBytes(path);
+        for (int length : new int[] { 0, 7, 20, bytes.length - 1 }) {
+            Files.write(path, Arrays.copyOf(bytes, length));
+            assertThrows(IllegalArgumentException.class, () -> {
+                read(path);
+            });
+        }
+    }
+}
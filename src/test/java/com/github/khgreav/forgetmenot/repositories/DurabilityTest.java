@@ -0,0 +1,37 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class DurabilityTest {
+
+    @ParameterizedTest
+    @EnumSource(Durability.class)
+    void testFromString(Durability durability) {
+        assertEquals(durability, Durability.fromString(durability.toString()));
+    }
+
+    @Test
+    void testFromStringInvalid() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                Durability.fromString("always");
+            }
+        );
+    }
+
+    @Test
+    void testFromProperties() {
+        assertEquals(Durability.NONE, StorageOptions.fromProperties(new Properties()).getDurability());
+        var props = new Properties();
+        props.setProperty(StorageOptions.DURABILITY_PROPERTY, "data+dir");
+        assertEquals(Durability.DATA_AND_DIRECTORY, StorageOptions.fromProperties(props).getDurability());
+    }
+}
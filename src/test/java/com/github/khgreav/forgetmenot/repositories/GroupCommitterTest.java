@@ -0,0 +1,112 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GroupCommitterTest {
+
+    @TempDir
+    Path dir;
+
+    private TaskRepository open(StorageOptions options) throws IOException {
+        return new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"), options);
+    }
+
+    @Test
+    void testBatchEndsWindow() throws Exception {
+        var repo = open(StorageOptions.defaults().withCommitWindow(60_000_000).withCommitBatch(8));
+        try (var committer = new GroupCommitter(repo)) {
+            var futures = new ArrayList<CompletableFuture<Long>>();
+            for (int i = 0; i < 8; i++) {
+                repo.create("task " + i);
+                futures.add(committer.commit());
+            }
+            var written = new HashSet<Long>();
+            for (var future : futures) {
+                written.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, written.size());
+            assertTrue(written.iterator().next() > 0);
+            assertFalse(repo.isDirty());
+        }
+        assertEquals(8, open(StorageOptions.defaults()).listAll().size());
+    }
+
+    @Test
+    void testConcurrentWriters() throws Exception {
+        var repo = open(StorageOptions.defaults().withJournal(true).withCommitWindow(1000));
+        try (var committer = new GroupCommitter(repo)) {
+            var threads = new ArrayList<Thread>();
+            var failures = new ArrayList<Throwable>();
+            for (int t = 0; t < 8; t++) {
+                var thread = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 50; i++) {
+                            repo.create("task");
+                            committer.commitAndWait();
+                        }
+                    } catch (IOException e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (var thread : threads) {
+                thread.join();
+            }
+            assertTrue(failures.isEmpty());
+        }
+        assertEquals(400, open(StorageOptions.defaults().withJournal(true)).listAll().size());
+    }
+
+    @Test
+    void testClose() throws Exception {
+        var repo = open(StorageOptions.defaults().withCommitWindow(60_000_000));
+        var committer = new GroupCommitter(repo);
+        repo.create("task");
+        var future = committer.commit();
+        committer.close();
+        assertTrue(future.get(10, TimeUnit.SECONDS) > 0);
+        assertFalse(repo.isDirty());
+        assertThrows(IllegalStateException.class, () -> {
+            committer.commit();
+        });
+    }
+
+    @Test
+    void testOptions() {
+        var props = new Properties();
+        props.setProperty(StorageOptions.COMMIT_WINDOW_PROPERTY, "500");
+        props.setProperty(StorageOptions.COMMIT_BATCH_PROPERTY, "16");
+        var options = StorageOptions.fromProperties(props);
+        assertEquals(500, options.getCommitWindow());
+        assertEquals(16, options.getCommitBatch());
+        assertEquals(0, StorageOptions.defaults().getCommitWindow());
+        assertThrows(IllegalArgumentException.class, () -> {
+            StorageOptions.defaults().withCommitWindow(-1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            StorageOptions.defaults().withCommitBatch(0);
+        });
+        props.setProperty(StorageOptions.COMMIT_BATCH_PROPERTY, "0");
+        assertThrows(IllegalArgumentException.class, () -> {
+            StorageOptions.fromProperties(props);
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class MappedTaskReaderTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    @TempDir
+    Path dir;
+
+    private static List<Task> tasks(int count) {
+        var tasks = new ArrayList<Task>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Task(i, "task " + i, TaskStatus.values()[i % 3], CREATED_AT, UPDATED_AT));
+        }
+        return tasks;
+    }
+
+    private List<Task> read(MappedTaskReader reader, String content) throws IOException {
+        var path = dir.resolve("tasks.json");
+        Files.writeString(path, content);
+        var result = new ArrayList<Task>();
+        reader.read(path, result::add);
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 200, 256, 4096, MappedTaskReader.DEFAULT_WINDOW_SIZE })
+    void testRead(int windowSize) throws IOException {
+        var tasks = tasks(20);
+        assertEquals(tasks, read(new MappedTaskReader(windowSize), FlatJsonProcessor.serialize(tasks)));
+    }
+
+    @Test
+    void testReadEmpty() throws IOException {
+        var reader = new MappedTaskReader();
+        assertEquals(List.of(), read(reader, ""));
+        assertEquals(List.of(), read(reader, "[]\n"));
+        assertEquals(List.of(), read(reader, "[\n\n  \n]"));
+    }
+
+    @Test
+    void testReadLineExceedingWindow() {
+        assertThrows(
+            IOException.class,
+            () -> {
+                read(new MappedTaskReader(16), FlatJsonProcessor.serialize(tasks(2)));
+            }
+        );
+    }
+
+    @Test
+    void testReadInvalidRecord() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                read(new MappedTaskReader(), "[\n  {\"id\":1}\n]\n");
+            }
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class OffsetIndexTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    private static final List<Task> TASKS = List.of(
+        new Task(3, "third", TaskStatus.TODO, CREATED_AT, UPDATED_AT),
+        new Task(1, "first", TaskStatus.DONE, CREATED_AT, UPDATED_AT),
+        new Task(7, "seventh", TaskStatus.IN_PROGRESS, CREATED_AT, UPDATED_AT)
+    );
+
+    @TempDir
+    Path dir;
+
+    private Path storagePath;
+
+    private Path indexPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storagePath = dir.resolve("tasks.json");
+        indexPath = dir.resolve("tasks.idx");
+        Files.writeString(storagePath, FlatJsonProcessor.serialize(TASKS));
+    }
+
+    private void assertReadable(OffsetIndex index) throws IOException {
+        assertEquals(3, index.size());
+        assertEquals(7, index.maxId());
+        assertEquals(-1, index.find(2));
+        try (var channel = FileChannel.open(storagePath, StandardOpenOption.READ)) {
+            for (Task task : TASKS) {
+                var buf = index.read(channel, index.find(task.getId()));
+                assertEquals(task, FlatJsonProcessor.deserializeObject(buf, 0, buf.limit()));
+            }
+        }
+    }
+
+    @Test
+    void testBuild() throws IOException {
+        var statuses = new StatusIndex();
+        var index = OffsetIndex.build(storagePath, statuses);
+        assertEquals(List.of(3, 1, 7), List.of(index.id(0), index.id(1), index.id(2)));
+        assertReadable(index);
+        assertEquals(3, statuses.next(TaskStatus.TODO, 0));
+        assertEquals(1, statuses.next(TaskStatus.DONE, 0));
+        assertEquals(7, statuses.next(TaskStatus.IN_PROGRESS, 0));
+    }
+
+    @Test
+    void testBuildMissingStorage() throws IOException {
+        var index = OffsetIndex.build(dir.resolve("missing.json"), new StatusIndex());
+        assertEquals(0, index.size());
+        assertEquals(-1, index.find(1));
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        OffsetIndex.build(storagePath, new StatusIndex()).save(indexPath, storagePath);
+        var loaded = OffsetIndex.load(indexPath, storagePath);
+        assertNotNull(loaded);
+        assertReadable(loaded);
+    }
+
+    @Test
+    void testLoadStale() throws IOException {
+        assertNull(OffsetIndex.load(indexPath, storagePath));
+        OffsetIndex.build(storagePath, new StatusIndex()).save(indexPath, storagePath);
+        Files.writeString(storagePath, FlatJsonProcessor.serialize(TASKS.subList(0, 2)));
+        assertNull(OffsetIndex.load(indexPath, storagePath));
+    }
+
+    @Test
+    void testLoadInvalid() throws IOException {
+        Files.writeString(indexPath, "not an index");
+        assertNull(OffsetIndex.load(indexPath, storagePath));
+    }
+
+    @Test
+    void testRefresh() throws IOException {
+        var index = OffsetIndex.build(storagePath, new StatusIndex());
+        assertFalse(index.refresh(indexPath, storagePath));
+        index.save(indexPath, storagePath);
+        Files.writeString(storagePath, FlatJsonProcessor.serialize(TASKS).replace("seventh", "eleventh"));
+        assertNull(OffsetIndex.load(indexPath, storagePath));
+        assertTrue(index.refresh(indexPath, storagePath));
+        assertNotNull(OffsetIndex.load(indexPath, storagePath));
+
+        Files.writeString(indexPath, "not an index, but long enough");
+        assertFalse(index.refresh(indexPath, storagePath));
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class ParallelTaskReaderTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static List<Task> tasks(int count) {
+        var tasks = new ArrayList<Task>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Task(i, "task " + i, TaskStatus.values()[i % 3], CREATED_AT, UPDATED_AT));
+        }
+        return tasks;
+    }
+
+    private List<Task> read(TaskReader reader, String content) throws IOException {
+        var path = dir.resolve("tasks.json");
+        Files.writeString(path, content);
+        var result = new ArrayList<Task>();
+        reader.read(path, result::add);
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 4096, 1 << 20, MappedTaskReader.DEFAULT_WINDOW_SIZE })
+    void testReadInFileOrder(int windowSize) throws IOException {
+        var tasks = tasks(50_000);
+        assertEquals(tasks, read(new ParallelTaskReader(pool, windowSize), FlatJsonProcessor.serialize(tasks)));
+    }
+
+    @Test
+    void testReadEmpty() throws IOException {
+        var reader = new ParallelTaskReader(pool, MappedTaskReader.DEFAULT_WINDOW_SIZE);
+        assertEquals(List.of(), read(reader, ""));
+        assertEquals(List.of(), read(reader, "[]\n"));
+    }
+
+    @Test
+    void testReadInvalidRecord() {
+        var content = new StringBuilder(FlatJsonProcessor.serialize(tasks(20_000)));
+        content.insert(content.length() - 2, ",\n  {\"id\":0}");
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                read(new ParallelTaskReader(pool, 1 << 20), content.toString());
+            }
+        );
+    }
+
+    @Test
+    void testInvalidWindowSize() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                new ParallelTaskReader(pool, 0);
+            }
+        );
+    }
+}
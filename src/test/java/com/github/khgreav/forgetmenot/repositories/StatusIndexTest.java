@@ -0,0 +1,87 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+
+public class StatusIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private Path storagePath;
+
+    private Path indexPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storagePath = dir.resolve("tasks.json");
+        indexPath = dir.resolve("tasks.sidx");
+        Files.writeString(storagePath, "[]\n");
+    }
+
+    private static List<Integer> ids(StatusIndex index, TaskStatus status) {
+        var ids = new ArrayList<Integer>();
+        for (int id = index.next(status, 0); id >= 0; id = index.next(status, id + 1)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static StatusIndex sample() {
+        var index = new StatusIndex();
+        index.put(1, TaskStatus.TODO);
+        index.put(2, TaskStatus.DONE);
+        index.put(3, TaskStatus.TODO);
+        index.put(130, TaskStatus.IN_PROGRESS);
+        return index;
+    }
+
+    @Test
+    void testPutAndRemove() {
+        var index = sample();
+        assertEquals(List.of(1, 3), ids(index, TaskStatus.TODO));
+        index.put(1, TaskStatus.DONE);
+        index.remove(3);
+        assertEquals(List.of(), ids(index, TaskStatus.TODO));
+        assertEquals(List.of(1, 2), ids(index, TaskStatus.DONE));
+        assertEquals(List.of(130), ids(index, TaskStatus.IN_PROGRESS));
+        assertEquals(2, index.count(TaskStatus.DONE));
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        sample().save(indexPath, storagePath);
+        var loaded = StatusIndex.load(indexPath, storagePath);
+        assertNotNull(loaded);
+        for (TaskStatus status : TaskStatus.values()) {
+            assertEquals(ids(sample(), status), ids(loaded, status));
+        }
+    }
+
+    @Test
+    void testLoadStale() throws IOException {
+        assertNull(StatusIndex.load(indexPath, storagePath));
+        sample().save(indexPath, storagePath);
+        Files.writeString(storagePath, "[\n]\n");
+        assertNull(StatusIndex.load(indexPath, storagePath));
+    }
+
+    @Test
+    void testLoadInvalid() throws IOException {
+        Files.writeString(indexPath, "not an index");
+        assertNull(StatusIndex.load(indexPath, storagePath));
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class StorageConverterTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        var tasks = new ArrayList<Task>();
+        for (int i = 1; i <= 100; i++) {
+            tasks.add(new Task(i, "task " + i + " ž", TaskStatus.values()[i % 3], CREATED_AT, UPDATED_AT));
+        }
+        var json = dir.resolve("tasks.json");
+        var binary = dir.resolve("tasks.bin");
+        var content = FlatJsonProcessor.serialize(tasks);
+        Files.writeString(json, content);
+
+        long size = StorageConverter.convert(json, StorageFormat.JSON, binary, StorageFormat.BINARY, Durability.NONE);
+        assertEquals(Files.size(binary), size);
+        assertTrue(size < Files.size(json) / 2);
+        var decoded = new ArrayList<Task>();
+        new BinaryTaskReader().read(binary, decoded::add);
+        assertEquals(tasks, decoded);
+
+        Files.delete(json);
+        StorageConverter.convert(binary, StorageFormat.BINARY, json, StorageFormat.JSON, Durability.DATA);
+        assertEquals(content, Files.readString(json));
+        assertFalse(Files.exists(dir.resolve("tasks.json.tmp")));
+    }
+
+    @Test
+    void testInvalidSource() throws IOException {
+        var json = dir.resolve("tasks.json");
+        var binary = dir.resolve("tasks.bin");
+        assertThrows(NoSuchFileException.class, () -> {
+            StorageConverter.convert(binary, StorageFormat.BINARY, json, StorageFormat.JSON, Durability.NONE);
+        });
+        Files.writeString(binary, "not a binary storage file");
+        assertThrows(IllegalArgumentException.class, () -> {
+            StorageConverter.convert(binary, StorageFormat.BINARY, json, StorageFormat.JSON, Durability.NONE);
+        });
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of("tasks.bin"), files.map(path -> path.getFileName().toString()).toList());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class TaskFileWriterTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    @TempDir
+    Path dir;
+
+    private static List<Task> tasks(int count) {
+        var tasks = new ArrayList<Task>();
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Task(i, "task " + i + " ž", TaskStatus.values()[i % 3], CREATED_AT, UPDATED_AT));
+        }
+        return tasks;
+    }
+
+    @Test
+    void testWriteMatchesSerialize() throws IOException {
+        var path = dir.resolve("tasks.json");
+        for (int count : new int[] { 0, 1, 2000 }) {
+            var tasks = tasks(count);
+            try (var writer = new TaskFileWriter(path)) {
+                for (Task task : tasks) {
+                    writer.write(task);
+                }
+            }
+            assertEquals(FlatJsonProcessor.serialize(tasks), Files.readString(path));
+        }
+    }
+
+    @Test
+    void testWriteOffsets() throws IOException {
+        var path = dir.resolve("tasks.json");
+        var tasks = tasks(3);
+        tasks.set(1, new Task(2, "č".repeat(100000), TaskStatus.DONE, CREATED_AT, UPDATED_AT));
+        var offsets = new ArrayList<Long>();
+        try (var writer = new TaskFileWriter(path)) {
+            for (Task task : tasks) {
+                offsets.add(writer.write(task));
+            }
+        }
+        assertEquals(FlatJsonProcessor.serialize(tasks), Files.readString(path));
+        var index = OffsetIndex.build(path, new StatusIndex());
+        assertEquals(List.of(index.offset(0), index.offset(1), index.offset(2)), offsets);
+    }
+
+    @Test
+    void testCopy() throws IOException {
+        var tasks = tasks(3);
+        var source = dir.resolve("source.json");
+        Files.writeString(source, FlatJsonProcessor.serialize(tasks));
+        var index = OffsetIndex.build(source, new StatusIndex());
+
+        var path = dir.resolve("tasks.json");
+        long offset;
+        try (
+            var channel = FileChannel.open(source, StandardOpenOption.READ);
+            var writer = new TaskFileWriter(path)
+        ) {
+            writer.write(tasks.get(2));
+            long end = index.offset(1) + index.length(1);
+            offset = writer.copy(channel, index.offset(0), end - index.offset(0));
+        }
+        assertEquals(
+            FlatJsonProcessor.serialize(List.of(tasks.get(2), tasks.get(0), tasks.get(1))),
+            Files.readString(path)
+        );
+        assertEquals(OffsetIndex.build(path, new StatusIndex()).offset(1), offset);
+    }
+}
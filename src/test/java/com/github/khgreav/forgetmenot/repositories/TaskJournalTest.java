@@ -0,0 +1,124 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+public class TaskJournalTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+
+    private TaskJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("tasks.journal");
+        journal = new TaskJournal(path);
+    }
+
+    private static Task task(int id, String desc, TaskStatus status) {
+        return new Task(id, desc, status, CREATED_AT, UPDATED_AT);
+    }
+
+    @Test
+    void testFlush() throws IOException {
+        assertFalse(journal.hasPending());
+        assertEquals(0, journal.flush());
+        assertFalse(Files.exists(path));
+        journal.recordPut(task(1, "test", TaskStatus.TODO));
+        journal.recordDelete(1);
+        assertTrue(journal.hasPending());
+        long size = journal.flush();
+        assertFalse(journal.hasPending());
+        assertEquals(
+            List.of(
+                "P {\"id\":1,\"desc\":\"test\",\"status\":\"todo\",\"createdAt\":\"2025-12-26T18:00:05Z\",\"updatedAt\":\"2025-12-26T19:42:12Z\"}",
+                "D 1"
+            ),
+            Files.readAllLines(path)
+        );
+        assertEquals(Files.size(path), size);
+        journal.recordDelete(2);
+        assertEquals(4, journal.flush());
+        assertEquals(size + 4, Files.size(path));
+    }
+
+    @Test
+    void testReplay() throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        tasks.put(1, task(1, "first", TaskStatus.TODO));
+        tasks.put(2, task(2, "second", TaskStatus.TODO));
+        journal.recordPut(task(3, "third", TaskStatus.TODO));
+        journal.recordPut(task(1, "first", TaskStatus.DONE));
+        journal.recordDelete(2);
+        journal.flush();
+        journal.replay(task -> tasks.put(task.getId(), task), tasks::remove);
+        assertEquals(List.of(1, 3), List.copyOf(tasks.keySet()));
+        assertEquals(TaskStatus.DONE, tasks.get(1).getStatus());
+    }
+
+    @Test
+    void testReplayIgnoresTornRecord() throws IOException {
+        Files.writeString(path, "D 1\nP {\"id\":2,\"desc\":\"te");
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        tasks.put(1, task(1, "first", TaskStatus.TODO));
+        journal.replay(task -> tasks.put(task.getId(), task), tasks::remove);
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void testFlushCutsOffTornRecord() throws IOException {
+        Files.writeString(path, "D 1\nP {\"id\":2,\"desc\":\"te");
+        journal.replay(task -> {}, id -> {});
+        journal.recordDelete(3);
+        assertEquals(4, journal.flush());
+        assertEquals(List.of("D 1", "D 3"), Files.readAllLines(path));
+        journal.recordDelete(4);
+        journal.flush();
+        assertEquals(List.of("D 1", "D 3", "D 4"), Files.readAllLines(path));
+    }
+
+    @Test
+    void testReplayInvalidRecord() throws IOException {
+        Files.writeString(path, "X 1\n");
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                journal.replay(task -> {}, id -> {});
+            }
+        );
+    }
+
+    @Test
+    void testReset() throws IOException {
+        journal.recordDelete(1);
+        journal.flush();
+        journal.recordDelete(2);
+        journal.reset();
+        assertFalse(journal.hasPending());
+        assertFalse(Files.exists(path));
+    }
+}
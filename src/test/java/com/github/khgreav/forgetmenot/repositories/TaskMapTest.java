@@ -0,0 +1,92 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+public class TaskMapTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static Task task(int id, String desc) {
+        return new Task(id, desc, TaskStatus.TODO, NOW, NOW);
+    }
+
+    private static List<Integer> ids(TaskMap map) {
+        var ids = new ArrayList<Integer>();
+        for (Task task : map.values()) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testPutKeepsInsertionOrder() {
+        var map = new TaskMap();
+        map.put(task(3, "third"));
+        map.put(task(1, "first"));
+        map.put(task(2, "second"));
+        var replacement = task(3, "changed");
+        assertEquals("third", map.put(replacement).getDesc());
+        assertEquals(List.of(3, 1, 2), ids(map));
+        assertSame(replacement, map.get(3));
+        assertEquals("first", map.putIfAbsent(task(1, "other")).getDesc());
+        assertEquals(3, map.size());
+        assertEquals(3, map.maxId());
+    }
+
+    @Test
+    void testRemove() {
+        var map = new TaskMap();
+        for (int id = 1; id <= 5; id++) {
+            map.put(task(id, "task " + id));
+        }
+        assertEquals("task 2", map.remove(2).getDesc());
+        assertNull(map.remove(2));
+        assertEquals("task 5", map.remove(5).getDesc());
+        assertFalse(map.containsKey(2));
+        assertTrue(map.containsKey(4));
+        assertEquals(List.of(1, 3, 4), ids(map));
+        assertEquals(4, map.maxId());
+        map.put(task(2, "again"));
+        assertEquals(List.of(1, 3, 4, 2), ids(map));
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(List.of(), ids(map));
+        assertEquals(0, map.maxId());
+    }
+
+    @Test
+    void testMatchesLinkedHashMap() {
+        var random = new Random(42);
+        var map = new TaskMap();
+        var expected = new LinkedHashMap<Integer, Task>();
+        for (int i = 0; i < 100000; i++) {
+            int id = 1 + random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), map.remove(id));
+            } else {
+                var task = task(id, "task " + i);
+                assertEquals(expected.put(id, task), map.put(task));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        for (int id = 1; id <= 5000; id++) {
+            assertEquals(expected.get(id), map.get(id));
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.utils.FlatJsonProcessor;
+
+public class TaskRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private Path storagePath;
+
+    private Path sequencePath;
+
+    private Path journalPath;
+
+    @BeforeEach
+    void setUp() {
+        storagePath = dir.resolve("tasks.json");
+        sequencePath = dir.resolve("sequence.txt");
+        journalPath = dir.resolve("tasks.journal");
+    }
+
+    private TaskRepository open(StorageOptions options) throws IOException {
+        return new TaskRepository(storagePath, sequencePath, options);
+    }
+
+    private static List<String> descriptions(TaskRepository repo) {
+        return repo.listAll().stream().map(Task::getDesc).toList();
+    }
+
+    @Test
+    void testPersistAndReload() throws IOException {
+        var repo = open(StorageOptions.defaults());
+        int first = repo.create("first");
+        int second = repo.create("second");
+        repo.delete(first);
+        repo.persist();
+        assertFalse(Files.exists(journalPath));
+
+        var reloaded = open(StorageOptions.defaults());
+        assertEquals(List.of("second"), descriptions(reloaded));
+        assertEquals(second + 1, reloaded.create("third"));
+        assertThrows(NoSuchElementException.class, () -> reloaded.get(first));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Durability.class)
+    void testAtomicPersist(Durability durability) throws IOException {
+        for (boolean lazy : new boolean[] { false, true }) {
+            var options = StorageOptions.defaults().withDurability(durability).withLazy(lazy);
+            var repo = open(options);
+            int id = repo.create(lazy ? "lazy" : "eager");
+            repo.persist();
+            assertEquals(lazy ? List.of("eager", "lazy") : List.of("eager"), descriptions(open(options)));
+            assertEquals(String.valueOf(id + 1), Files.readString(sequencePath).trim());
+            try (var files = Files.list(dir)) {
+                assertTrue(files.noneMatch(path -> path.toString().endsWith(".tmp")));
+            }
+        }
+        var journaled = open(StorageOptions.defaults().withDurability(durability).withJournal(true));
+        journaled.create("journaled");
+        journaled.persist();
+        assertEquals(List.of("eager", "lazy", "journaled"), descriptions(open(StorageOptions.defaults())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testBinaryFormat(boolean journaled) throws IOException {
+        var binaryPath = dir.resolve("tasks.bin");
+        var options = StorageOptions.defaults().withFormat(StorageFormat.BINARY).withJournal(journaled);
+        var repo = new TaskRepository(binaryPath, sequencePath, options);
+        int first = repo.create("first");
+        repo.create("second ž");
+        repo.persist();
+        assertEquals(!journaled, Files.exists(binaryPath));
+
+        var reopened = new TaskRepository(binaryPath, sequencePath, options);
+        var streamed = new ArrayList<String>();
+        reopened.forEach(task -> streamed.add(task.getDesc()));
+        assertEquals(List.of("first", "second ž"), streamed);
+        var task = reopened.get(first);
+        task.setStatus(TaskStatus.DONE);
+        reopened.update(task);
+        reopened.create("third");
+        reopened.persist();
+
+        var reloaded = new TaskRepository(binaryPath, sequencePath, options.withJournal(false));
+        assertEquals(List.of("first", "second ž", "third"), descriptions(reloaded));
+        assertEquals(List.of("first"), descriptions(reloaded, TaskStatus.DONE));
+        assertFalse(Files.exists(storagePath));
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TaskRepository(binaryPath, sequencePath, options.withLazy(true));
+        });
+    }
+
+    @Test
+    void testLeftoverTempFileIgnored() throws IOException {
+        var repo = open(StorageOptions.defaults());
+        repo.create("first");
+        repo.persist();
+        Files.writeString(dir.resolve("tasks.json.tmp"), "[\n  {\"id\":");
+        assertEquals(List.of("first"), descriptions(open(StorageOptions.defaults())));
+        var reopened = open(StorageOptions.defaults());
+        reopened.create("second");
+        reopened.persist();
+        assertEquals(List.of("first", "second"), descriptions(open(StorageOptions.defaults())));
+    }
+
+    @Test
+    void testJournaledPersistAppendsToJournal() throws IOException {
+        var options = StorageOptions.defaults().withJournal(true);
+        var repo = open(options);
+        int id = repo.create("first");
+        repo.create("second");
+        repo.persist();
+        assertFalse(Files.exists(storagePath));
+        assertEquals(2, Files.readAllLines(journalPath).size());
+
+        var reloaded = open(options);
+        var task = reloaded.get(id);
+        task.setStatus(TaskStatus.DONE);
+        reloaded.update(task);
+        reloaded.persist();
+        assertEquals(3, Files.readAllLines(journalPath).size());
+
+        var replayed = open(options);
+        assertEquals(List.of("first", "second"), descriptions(replayed));
+        assertEquals(TaskStatus.DONE, replayed.get(id).getStatus());
+    }
+
+    @Test
+    void testJournalTornRecord() throws IOException {
+        var options = StorageOptions.defaults().withJournal(true);
+        var repo = open(options);
+        repo.create("first");
+        repo.persist();
+        // An append interrupted by a crash leaves a record without a line terminator
+        Files.writeString(journalPath, "P {\"id\":2,\"desc\":\"tw", StandardOpenOption.APPEND);
+
+        var reopened = open(options);
+        assertEquals(List.of("first"), descriptions(reopened));
+        reopened.create("second");
+        reopened.persist();
+        assertEquals(2, Files.readAllLines(journalPath).size());
+        assertEquals(List.of("first", "second"), descriptions(open(options)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testFailedPersistRemovesTemporaryFile(boolean lazy) throws IOException {
+        var repo = open(StorageOptions.defaults());
+        repo.create("first");
+        repo.persist();
+        var options = StorageOptions.defaults().withLazy(lazy);
+        var reopened = open(options);
+        // A task without timestamps cannot be serialized, so the write fails after the first record
+        reopened.importTask(new Task(2, "broken", TaskStatus.TODO, null, null), ConflictPolicy.SKIP);
+        assertThrows(
+            NullPointerException.class,
+            () -> {
+                reopened.persist();
+            }
+        );
+        assertFalse(Files.exists(dir.resolve("tasks.json.tmp")));
+        assertEquals(List.of("first"), descriptions(open(options)));
+    }
+
+    @Test
+    void testJournalCompaction() throws IOException {
+        var options = StorageOptions.defaults().withJournal(true).withCompactionThreshold(256);
+        var repo = open(options);
+        repo.create("first");
+        repo.persist();
+        assertTrue(Files.exists(journalPath));
+        repo.create("second");
+        repo.create("third");
+        repo.persist();
+        assertFalse(Files.exists(journalPath));
+        assertEquals(List.of("first", "second", "third"), descriptions(open(options)));
+    }
+
+    @Test
+    void testForEachAppliesJournal() throws IOException {
+        var repo = open(StorageOptions.defaults());
+        for (int i = 1; i <= 4; i++) {
+            repo.create("task " + i);
+        }
+        repo.persist();
+        var options = StorageOptions.defaults().withJournal(true);
+        var journaled = open(options);
+        var task = journaled.get(2);
+        task.setStatus(TaskStatus.DONE);
+        journaled.update(task);
+        journaled.delete(3);
+        journaled.create("task 5");
+        journaled.persist();
+
+        var streamed = open(options);
+        var all = new ArrayList<String>();
+        streamed.forEach(t -> all.add(t.getDesc()));
+        assertEquals(List.of("task 1", "task 2", "task 4", "task 5"), all);
+        var done = new ArrayList<Integer>();
+        streamed.forEach(TaskStatus.DONE, t -> done.add(t.getId()));
+        assertEquals(List.of(2), done);
+        assertEquals(all, descriptions(streamed));
+    }
+
+    @Test
+    void testPersistWithoutAccessKeepsStorage() throws IOException {
+        var content = "[\n\n  {\"id\":1,\"desc\":\"test\",\"status\":\"todo\",\"createdAt\":\"2025-12-27T12:50:30Z\",\"updatedAt\":\"2025-12-27T13:08:51Z\"}\n]\n";
+        Files.writeString(storagePath, content);
+        var repo = open(StorageOptions.defaults());
+        repo.forEach(TaskStatus.TODO, t -> {});
+        repo.persist();
+        assertEquals(content, Files.readString(storagePath));
+        assertFalse(Files.exists(sequencePath));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testPersistSkippedWithoutChanges(boolean lazy) throws IOException {
+        var options = StorageOptions.defaults().withLazy(lazy);
+        var repo = open(options);
+        int id = repo.create("first");
+        assertTrue(repo.isDirty());
+        assertTrue(repo.persist() > 0);
+        assertFalse(repo.isDirty());
+        assertEquals(0, repo.persist());
+
+        var modified = Files.getLastModifiedTime(storagePath);
+        Files.delete(sequencePath);
+        var reopened = open(options);
+        assertEquals("first", reopened.get(id).getDesc());
+        assertEquals(List.of("first"), descriptions(reopened));
+        assertThrows(NoSuchElementException.class, () -> reopened.delete(id + 1));
+        assertFalse(reopened.isDirty());
+        assertEquals(0, reopened.persist());
+        assertEquals(modified, Files.getLastModifiedTime(storagePath));
+        assertFalse(Files.exists(sequencePath));
+
+        reopened.delete(id);
+        long written = reopened.persist();
+        assertEquals(Files.size(storagePath) + Files.size(sequencePath), written);
+    }
+
+    @Test
+    void testLazyReadsOnlyAccessedTasks() throws IOException {
+        var repo = open(StorageOptions.defaults());
+        for (int i = 1; i <= 5; i++) {
+            repo.create("task " + i);
+        }
+        repo.persist();
+        var indexPath = dir.resolve("tasks.idx");
+        assertFalse(Files.exists(indexPath));
+
+        var options = StorageOptions.defaults().withLazy(true);
+        var lazy = open(options);
+        assertTrue(Files.exists(indexPath));
+        assertEquals("task 3", lazy.get(3).getDesc());
+        assertThrows(NoSuchElementException.class, () -> lazy.get(6));
+        assertEquals(6, lazy.create("task 6"));
+        assertEquals(List.of("task 1", "task 2", "task 3", "task 4", "task 5", "task 6"), descriptions(lazy));
+    }
+
+    @Test
+    void testLazyPersist() throws IOException {
+        var eager = open(StorageOptions.defaults());
+        for (int i = 1; i <= 6; i++) {
+            eager.create("task " + i);
+        }
+        eager.persist();
+
+        var options = StorageOptions.defaults().withLazy(true);
+        var lazy = open(options);
+        var task = lazy.get(3);
+        task.setDesc("changed");
+        lazy.update(task);
+        lazy.delete(5);
+        assertThrows(NoSuchElementException.class, () -> lazy.delete(5));
+        lazy.create("task 7");
+        lazy.persist();
+
+        var expected = List.of("task 1", "task 2", "changed", "task 4", "task 6", "task 7");
+        var reloaded = open(StorageOptions.defaults());
+        assertEquals(expected, descriptions(reloaded));
+        assertEquals(
+            FlatJsonProcessor.serialize(reloaded.listAll()),
+            Files.readString(storagePath)
+        );
+        var relazy = open(options);
+        assertEquals(expected, descriptions(relazy));
+        assertEquals("task 7", relazy.get(7).getDesc());
+        assertEquals(8, relazy.create("task 8"));
+    }
+
+    @Test
+    void testInPlacePersist() throws IOException {
+        var eager = open(StorageOptions.defaults());
+        for (int i = 1; i <= 4; i++) {
+            eager.create("task " + i);
+        }
+        eager.persist();
+        long size = Files.size(storagePath);
+
+        var options = StorageOptions.defaults().withLazy(true).withInPlace(true);
+        var repo = open(options);
+        var task = repo.get(2);
+        task.setDesc("task");
+        task.setStatus(TaskStatus.DONE);
+        repo.update(task);
+        repo.get(3);
+        long written = repo.persist();
+        assertEquals(size, Files.size(storagePath));
+        assertTrue(written < size / 2);
+        assertTrue(Files.readString(storagePath).contains("\"task\",\"status\":\"done\""));
+
+        var reopened = open(options);
+        assertEquals(List.of("task 1", "task", "task 3", "task 4"), descriptions(open(StorageOptions.defaults())));
+        assertEquals(List.of("task"), descriptions(reopened, TaskStatus.DONE));
+        task = reopened.get(2);
+        task.setDesc("task 2");
+        reopened.update(task);
+        reopened.create("task 5");
+        reopened.create("task 6");
+        reopened.persist();
+        assertTrue(Files.size(storagePath) > size);
+
+        var expected = List.of("task 1", "task 2", "task 3", "task 4", "task 5", "task 6");
+        assertEquals(expected, descriptions(open(StorageOptions.defaults())));
+        var relazy = open(options);
+        assertEquals(expected, descriptions(relazy));
+        assertEquals("task 6", relazy.get(6).getDesc());
+        task = relazy.get(1);
+        task.setDesc("a longer description of task 1");
+        relazy.update(task);
+        relazy.delete(4);
+        relazy.persist();
+        assertEquals(
+            List.of("a longer description of task 1", "task 2", "task 3", "task 5", "task 6"),
+            descriptions(open(options))
+        );
+        var reloaded = open(StorageOptions.defaults());
+        assertEquals(FlatJsonProcessor.serialize(reloaded.listAll()), Files.readString(storagePath));
+    }
+
+    @Test
+    void testLazyJournaled() throws IOException {
+        var options = StorageOptions.defaults().withLazy(true).withJournal(true);
+        var repo = open(options);
+        repo.create("first");
+        repo.create("second");
+        repo.persist();
+
+        var reopened = open(options);
+        reopened.delete(1);
+        reopened.persist();
+        assertEquals(List.of("second"), descriptions(open(options)));
+        assertEquals(List.of("second"), descriptions(open(StorageOptions.defaults())));
+    }
+
+    private static List<String> descriptions(TaskRepository repo, TaskStatus status) {
+        var result = new ArrayList<String>();
+        repo.forEach(status, task -> result.add(task.getDesc()));
+        return result;
+    }
+
+    @Test
+    void testForEachByStatus() throws IOException {
+        var repo = open(StorageOptions.defaults());
+        for (int i = 1; i <= 5; i++) {
+            repo.create("task " + i);
+        }
+        for (int id : new int[] { 2, 4 }) {
+            var task = repo.get(id);
+            task.setStatus(TaskStatus.DONE);
+            repo.update(task);
+        }
+        repo.delete(1);
+        assertEquals(List.of("task 3", "task 5"), descriptions(repo, TaskStatus.TODO));
+        assertEquals(List.of("task 2", "task 4"), descriptions(repo, TaskStatus.DONE));
+        repo.persist();
+
+        var options = StorageOptions.defaults().withLazy(true).withJournal(true);
+        var lazy = open(options);
+        assertTrue(Files.exists(dir.resolve("tasks.sidx")));
+        var task = lazy.get(3);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        lazy.update(task);
+        lazy.delete(4);
+        lazy.create("task 6");
+        assertEquals(List.of("task 5", "task 6"), descriptions(lazy, TaskStatus.TODO));
+        assertEquals(List.of("task 3"), descriptions(lazy, TaskStatus.IN_PROGRESS));
+        lazy.persist();
+
+        var reopened = open(options);
+        assertEquals(List.of("task 2"), descriptions(reopened, TaskStatus.DONE));
+        assertEquals(List.of("task 5", "task 6"), descriptions(reopened, TaskStatus.TODO));
+        assertEquals(List.of("task 3"), descriptions(open(StorageOptions.defaults()), TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void testLeftoverJournalFoldedByFullPersist() throws IOException {
+        var journaled = open(StorageOptions.defaults().withJournal(true));
+        journaled.create("first");
+        journaled.persist();
+
+        var repo = open(StorageOptions.defaults());
+        assertEquals(List.of("first"), descriptions(repo));
+        repo.persist();
+        assertFalse(Files.exists(journalPath));
+        assertEquals(List.of("first"), descriptions(open(StorageOptions.defaults())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testSlowConsumerDoesNotBlockMutations(boolean lazy) throws Exception {
+        var repo = open(StorageOptions.defaults());
+        repo.create("first");
+        repo.create("second");
+        repo.persist();
+        var options = StorageOptions.defaults().withLazy(lazy).withInPlace(lazy);
+        var reopened = open(options);
+        var executor = Executors.newSingleThreadExecutor();
+        var listed = new ArrayList<String>();
+        try {
+            reopened.forEach(task -> {
+                if (listed.isEmpty()) {
+                    var mutation = executor.submit(() -> {
+                        reopened.update(1, changed -> changed.setStatus(TaskStatus.DONE));
+                        reopened.create("third");
+                        return reopened.persist();
+                    });
+                    try {
+                        mutation.get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new AssertionError("Mutation blocked by the consumer", e);
+                    }
+                }
+                listed.add(task.getDesc());
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of("first", "second"), listed);
+        assertEquals(List.of("first", "second", "third"), descriptions(open(options)));
+        assertEquals(List.of("first"), descriptions(open(options), TaskStatus.DONE));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testUpdateWhileListing(boolean lazy) throws Exception {
+        var repo = open(StorageOptions.defaults());
+        repo.create("first");
+        repo.create("second");
+        repo.persist();
+        var reopened = open(StorageOptions.defaults().withLazy(lazy));
+        // Keeps the second task in memory, also in lazy mode
+        reopened.update(2, changed -> changed.setDesc("second"));
+        var executor = Executors.newSingleThreadExecutor();
+        var listed = new ArrayList<String>();
+        try {
+            reopened.forEach(task -> {
+                if (listed.isEmpty()) {
+                    var mutation = executor.submit(() -> {
+                        reopened.update(2, changed -> {
+                            changed.setDesc("changed");
+                            changed.setStatus(TaskStatus.DONE);
+                        });
+                    });
+                    try {
+                        mutation.get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new AssertionError("Mutation blocked by the consumer", e);
+                    }
+                }
+                listed.add(task.getDesc() + ' ' + task.getStatus());
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of("first todo", "second todo"), listed);
+        var updated = reopened.get(2);
+        assertEquals("changed", updated.getDesc());
+        assertEquals(TaskStatus.DONE, updated.getStatus());
+    }
+
+    @Test
+    void testLeftoverJournalKeepsSequence() throws IOException {
+        var journaled = open(StorageOptions.defaults().withJournal(true));
+        journaled.create("a");
+        journaled.create("b");
+        journaled.create("c");
+        journaled.delete(3);
+        journaled.persist();
+
+        var repo = open(StorageOptions.defaults());
+        var listed = new ArrayList<String>();
+        repo.forEach(task -> listed.add(task.getDesc()));
+        assertEquals(List.of("a", "b"), listed);
+        repo.persist();
+        assertEquals("4", Files.readString(sequencePath).trim());
+        assertEquals(4, open(StorageOptions.defaults()).create("d"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testConcurrentMutations(boolean journaled) throws Exception {
+        var repo = open(StorageOptions.defaults().withJournal(journaled));
+        int threads = 8;
+        int perThread = 200;
+        var executor = Executors.newFixedThreadPool(threads);
+        var futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int id = repo.create("task");
+                    repo.update(id, task -> task.setStatus(TaskStatus.DONE));
+                    repo.update(1, task -> task.setDesc(task.getDesc() + "x"));
+                }
+                return null;
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        repo.persist();
+
+        var reloaded = open(StorageOptions.defaults().withJournal(journaled));
+        var ids = reloaded.listAll().stream().map(Task::getId).distinct().count();
+        assertEquals(threads * perThread, ids);
+        assertEquals("task" + "x".repeat(threads * perThread), reloaded.get(1).getDesc());
+        var done = new ArrayList<Task>();
+        reloaded.forEach(TaskStatus.DONE, done::add);
+        assertEquals(threads * perThread, done.size());
+        assertEquals(threads * perThread + 1, reloaded.create("next"));
+    }
+
+    @Test
+    void testConcurrentDeletes() throws Exception {
+        var repo = open(StorageOptions.defaults().withLazy(true));
+        for (int i = 0; i < 100; i++) {
+            repo.create("task " + i);
+        }
+        repo.persist();
+        var reopened = open(StorageOptions.defaults().withLazy(true));
+        var executor = Executors.newFixedThreadPool(4);
+        var failures = new ArrayList<Future<Boolean>>();
+        for (int t = 0; t < 4; t++) {
+            failures.add(executor.submit(() -> {
+                try {
+                    reopened.delete(50);
+                    return false;
+                } catch (NoSuchElementException e) {
+                    return true;
+                }
+            }));
+        }
+        int failed = 0;
+        for (var future : failures) {
+            failed += future.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(3, failed);
+        assertEquals(99, reopened.listAll().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testImportTask(boolean journaled) throws IOException {
+        var repo = open(StorageOptions.defaults().withJournal(journaled));
+        repo.create("local one");
+        repo.create("local two");
+        var createdAt = Instant.parse("2025-12-26T18:00:05Z");
+        var imported = new Task(2, "imported", TaskStatus.DONE, createdAt, createdAt);
+
+        assertEquals(0, repo.importTask(imported, ConflictPolicy.SKIP));
+        assertEquals(3, repo.importTask(imported, ConflictPolicy.RENUMBER));
+        assertEquals(2, repo.importTask(imported, ConflictPolicy.REPLACE));
+        assertEquals(10, repo.importTask(new Task(10, "far", TaskStatus.TODO, createdAt, createdAt), ConflictPolicy.SKIP));
+        assertEquals(11, repo.create("next"));
+        repo.delete(1);
+        assertEquals(1, repo.importTask(new Task(1, "back", TaskStatus.TODO, createdAt, createdAt), ConflictPolicy.SKIP));
+        repo.persist();
+
+        var reloaded = open(StorageOptions.defaults().withJournal(journaled));
+        assertEquals(List.of("imported", "imported", "far", "next", "back"), descriptions(reloaded));
+        assertEquals(createdAt, reloaded.get(3).getCreatedAt());
+        assertEquals(List.of("imported", "imported"), descriptions(reloaded, TaskStatus.DONE));
+        assertEquals(12, reloaded.create("last"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testExportTasks(boolean lazy) throws IOException {
+        var repo = open(StorageOptions.defaults());
+        repo.create("first");
+        repo.create("second");
+        repo.persist();
+        var reopened = open(StorageOptions.defaults().withLazy(lazy));
+        reopened.delete(1);
+        reopened.create("third");
+        var target = dir.resolve("export.json");
+
+        long size = reopened.exportTasks(target, StorageFormat.JSON);
+        assertEquals(Files.size(target), size);
+        var exported = new ArrayList<String>();
+        new MappedTaskReader().read(target, task -> exported.add(task.getId() + " " + task.getDesc()));
+        assertEquals(List.of("2 second", "3 third"), exported);
+    }
+
+    private static List<Integer> between(TaskRepository repo, SortKey key, Instant since, Instant until) {
+        var ids = new ArrayList<Integer>();
+        repo.forEachBetween(key, since, until, task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testForEachBetween(boolean lazy) throws IOException {
+        var base = Instant.parse("2025-12-26T18:00:00Z");
+        var repo = open(StorageOptions.defaults());
+        for (int id = 1; id <= 6; id++) {
+            var updatedAt = base.plusSeconds(id % 3 * 60);
+            repo.importTask(new Task(id, "task " + id, TaskStatus.TODO, base.plusSeconds(id), updatedAt), ConflictPolicy.SKIP);
+        }
+        repo.persist();
+        var options = StorageOptions.defaults().withLazy(lazy);
+        var reopened = open(options);
+
+        assertEquals(List.of(2, 5, 1, 4, 3, 6), between(reopened, SortKey.UPDATED, null, null));
+        assertEquals(List.of(1, 4), between(reopened, SortKey.UPDATED, base.plusSeconds(1), base.plusSeconds(120)));
+        assertEquals(List.of(5, 4, 3), between(reopened, SortKey.CREATED, base.plusSeconds(3), base.plusSeconds(6)));
+        var stopped = new ArrayList<Integer>();
+        reopened.forEachBetween(SortKey.CREATED, null, null, task -> stopped.add(task.getId()) && stopped.size() < 2);
+        assertEquals(List.of(6, 5), stopped);
+
+        reopened.update(3, task -> task.setDesc("changed"));
+        reopened.delete(5);
+        reopened.create("new");
+        var recent = base.plusSeconds(3600);
+        assertEquals(Set.of(3, 7), Set.copyOf(between(reopened, SortKey.UPDATED, recent, null)));
+        assertEquals(List.of(2, 1, 4, 6), between(reopened, SortKey.UPDATED, null, recent));
+        reopened.persist();
+        assertEquals(lazy, Files.exists(dir.resolve("tasks.tidx")));
+
+        var reloaded = open(options);
+        assertEquals(Set.of(3, 7), Set.copyOf(between(reloaded, SortKey.UPDATED, recent, null)));
+        assertEquals(List.of(7, 6, 4, 3, 2, 1), between(reloaded, SortKey.CREATED, null, null));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                between(reloaded, SortKey.ID, null, null);
+            }
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.khgreav.forgetmenot.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.SortKey;
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+public class TimeIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private Path storagePath;
+
+    private Path indexPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storagePath = dir.resolve("tasks.json");
+        indexPath = dir.resolve("tasks.tidx");
+        Files.writeString(storagePath, "[]\n");
+    }
+
+    private static Task task(int id, long created, long updated) {
+        return new Task(id, "task " + id, TaskStatus.TODO, Instant.ofEpochSecond(created), Instant.ofEpochSecond(updated));
+    }
+
+    private static List<Integer> ids(TimeIndex index, SortKey key, long from, long to) {
+        var ids = new ArrayList<Integer>();
+        index.forEachDescending(key, from, to, id -> {
+            ids.add(id);
+            return true;
+        });
+        return ids;
+    }
+
+    private static TimeIndex sample() {
+        var index = new TimeIndex();
+        index.put(task(1, 100, 400));
+        index.put(task(2, 200, 200));
+        index.put(task(3, 300, 500));
+        index.put(task(130, 400, 300));
+        return index;
+    }
+
+    @Test
+    void testPutAndRemove() {
+        var index = sample();
+        assertEquals(List.of(130, 3, 2, 1), ids(index, SortKey.CREATED, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(3, 1, 130, 2), ids(index, SortKey.UPDATED, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(3, 2), ids(index, SortKey.CREATED, 200, 399));
+        index.put(task(2, 200, 600));
+        index.remove(3);
+        assertEquals(List.of(2, 1, 130), ids(index, SortKey.UPDATED, 300, 600));
+        assertEquals(List.of(130, 2, 1), ids(index, SortKey.CREATED, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(), ids(index, SortKey.UPDATED, 700, 800));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testStop() {
+        var ids = new ArrayList<Integer>();
+        sample().forEachDescending(SortKey.UPDATED, Long.MIN_VALUE, Long.MAX_VALUE, id -> {
+            ids.add(id);
+            return ids.size() < 2;
+        });
+        assertEquals(List.of(3, 1), ids);
+    }
+
+    @Test
+    void testIdKey() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                ids(sample(), SortKey.ID, 0, 1);
+            }
+        );
+    }
+
+    @Test
+    void testManyChanges() {
+        var random = new Random(42);
+        var index = new TimeIndex();
+        var updated = new HashMap<Integer, Long>();
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(3000) + 1;
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                updated.remove(id);
+            } else {
+                long second = random.nextInt(1000);
+                index.put(task(id, 0, second));
+                updated.put(id, second);
+            }
+            if (i % 1000 == 0) {
+                long from = random.nextInt(1000);
+                long to = from + random.nextInt(200);
+                var expected = updated.entrySet().stream()
+                    .filter(e -> e.getValue() >= from && e.getValue() <= to)
+                    .sorted((a, b) -> a.getValue().equals(b.getValue())
+                        ? Integer.compare(a.getKey(), b.getKey())
+                        : Long.compare(b.getValue(), a.getValue()))
+                    .map(e -> e.getKey())
+                    .toList();
+                var actual = ids(index, SortKey.UPDATED, from, to);
+                assertEquals(expected.size(), actual.size());
+                for (int j = 0; j < actual.size(); j++) {
+                    assertEquals((long) updated.get(expected.get(j)), (long) updated.get(actual.get(j)));
+                }
+                assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+            }
+        }
+        assertEquals(updated.size(), index.size());
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        var index = sample();
+        index.put(task(2, 200, 600));
+        index.save(indexPath, storagePath);
+        var loaded = TimeIndex.load(indexPath, storagePath);
+        assertNotNull(loaded);
+        for (SortKey key : List.of(SortKey.CREATED, SortKey.UPDATED)) {
+            assertEquals(ids(index, key, Long.MIN_VALUE, Long.MAX_VALUE), ids(loaded, key, Long.MIN_VALUE, Long.MAX_VALUE));
+        }
+        assertEquals(4, loaded.size());
+    }
+
+    @Test
+    void testLoadStale() throws IOException {
+        assertNull(TimeIndex.load(indexPath, storagePath));
+        sample().save(indexPath, storagePath);
+        Files.writeString(storagePath, "[\n]\n");
+        assertNull(TimeIndex.load(indexPath, storagePath));
+    }
+
+    @Test
+    void testLoadInvalid() throws IOException {
+        Files.writeString(indexPath, "not an index");
+        assertNull(TimeIndex.load(indexPath, storagePath));
+    }
+}
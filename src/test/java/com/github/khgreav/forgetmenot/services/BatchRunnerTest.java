@@ -0,0 +1,82 @@
+package com.github.khgreav.forgetmenot.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+public class BatchRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private BatchRunner.Summary run(String commands, int saveInterval) throws IOException {
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var service = new TaskService(repo, new PrintStream(out, true, StandardCharsets.UTF_8));
+        return BatchRunner.run(
+            new BufferedReader(new StringReader(commands)),
+            service,
+            saveInterval,
+            new PrintStream(err, true, StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void testRun() throws IOException {
+        var summary = run(
+            """
+            # Groceries
+            add "Buy milk"
+            add 'Buy bread'
+
+            mark 2 done
+            update 1 "Buy oat milk"
+            mark 3 done
+            serve
+            """,
+            0
+        );
+        assertEquals(6, summary.getExecuted());
+        assertEquals(2, summary.getFailed());
+        assertTrue(summary.getWritten() > 0);
+        assertEquals(
+            "Line 7: Task ID 3 does not exist.\nLine 8: Invalid batch command: serve.\n",
+            err.toString(StandardCharsets.UTF_8)
+        );
+        assertTrue(summary.toString().startsWith("Executed 6 commands (2 failed) in "));
+
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        assertEquals("Buy oat milk", repo.get(1).getDesc());
+        assertEquals(TaskStatus.DONE, repo.get(2).getStatus());
+    }
+
+    @Test
+    void testSaveInterval() throws IOException {
+        var commands = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            commands.append("add \"task ").append(i).append("\"\n");
+        }
+        var summary = run(commands.toString(), 4);
+        assertEquals(10, summary.getExecuted());
+        assertEquals(0, summary.getFailed());
+        assertTrue(summary.getWritten() > Files.size(dir.resolve("tasks.json")));
+        assertEquals(10, new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt")).listAll().size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.khgreav.forgetmenot.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.metrics.CommandStats;
+import com.github.khgreav.forgetmenot.models.Task;
+import com.github.khgreav.forgetmenot.repositories.ConflictPolicy;
+import com.github.khgreav.forgetmenot.repositories.TaskRepository;
+
+public class CommandDispatcherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOptions() {
+        String[] args = { "--stats=json", "--verbose", "list", "--stats" };
+        assertArrayEquals(new String[] { "list", "--stats" }, CommandDispatcher.stripOptions(args));
+        assertTrue(CommandDispatcher.isVerbose(args));
+        assertTrue(CommandDispatcher.isStats(args));
+        assertFalse(CommandDispatcher.isStats(new String[] { "add", "--stats" }));
+        assertFalse(CommandDispatcher.isTaskCommand(new String[] { "--stats" }));
+    }
+
+    @Test
+    void testExecuteWithStats() throws IOException {
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var out = new ByteArrayOutputStream();
+        var err = new ByteArrayOutputStream();
+        var service = new TaskService(repo, new PrintStream(out, true, StandardCharsets.UTF_8));
+        CommandDispatcher.execute(
+            new String[] { "--stats=json", "add", "Buy milk" },
+            service,
+            new PrintStream(err, true, StandardCharsets.UTF_8)
+        );
+        var report = err.toString(StandardCharsets.UTF_8);
+        assertTrue(report.startsWith("{\"startup.ns\":0,"));
+        assertTrue(report.matches("(?s).*\"bytes\\.written\":[1-9][0-9]*,.*"));
+        assertNull(CommandStats.current());
+    }
+
+    private String list(String... command) throws IOException {
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var out = new ByteArrayOutputStream();
+        var service = new TaskService(repo, new PrintStream(out, true, StandardCharsets.UTF_8));
+        CommandDispatcher.dispatch(command, service);
+        var lines = out.toString(StandardCharsets.UTF_8).lines().skip(2).map(line -> line.split(" ")[0]).toList();
+        return String.join(",", lines);
+    }
+
+    @Test
+    void testListPage() throws IOException {
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt"));
+        var base = Instant.parse("2025-12-26T18:00:00Z");
+        for (int id = 1; id <= 10; id++) {
+            var status = id == 4 || id == 8 ? TaskStatus.DONE : TaskStatus.TODO;
+            var createdAt = base.plus(id, ChronoUnit.MINUTES);
+            var updatedAt = base.plus(id * 7 % 10, ChronoUnit.HOURS);
+            repo.importTask(new Task(id, "task " + id, status, createdAt, updatedAt), ConflictPolicy.SKIP);
+        }
+        repo.persist();
+
+        assertEquals("1,2,3,4,5,6,7,8,9,10", list("list"));
+        assertEquals("4,5,6", list("list", "--offset", "3", "--limit", "3"));
+        assertEquals("9,10", list("list", "--offset", "8", "--limit", "5"));
+        assertEquals("", list("list", "--offset", "20"));
+        assertEquals("", list("list", "--limit", "0"));
+        assertEquals("8", list("list", "done", "--limit", "1", "--offset", "1"));
+        assertEquals("3,5,6", list("list", "todo", "--sort", "id", "--limit", "3", "--offset", "2"));
+        assertEquals("9,8", list("list", "--sort", "created", "--limit", "2", "--offset", "1"));
+        assertEquals("7,4,1", list("list", "--sort", "updated", "--limit", "3"));
+        assertEquals("5,2,9,6,3,10", list("list", "todo", "--sort", "updated", "--offset", "2"));
+        assertEquals("7,4,1,8,5", list("list", "--since", "2025-12-26T23:00:00Z"));
+        assertEquals("1,5", list("list", "todo", "--since", "2025-12-26T23:00:00Z", "--until", "2025-12-27T02:00:00Z"));
+        assertEquals("3,2,1", list("list", "--sort", "created", "--until", "2025-12-26T18:04:00Z"));
+        assertEquals("1,4,7,8", list("list", "--sort", "id", "--since", "2025-12-27"));
+        assertEquals("4,1", list("list", "--since", "2025-12-27", "--offset", "1", "--limit", "2"));
+    }
+
+    @Test
+    void testListSortedWhileUpdating() throws IOException {
+        var base = Instant.parse("2025-12-26T18:00:00Z");
+        var repo = new TaskRepository(dir.resolve("tasks.json"), dir.resolve("sequence.txt")) {
+            @Override
+            public void forEachWhile(TaskStatus status, Predicate<Task> consumer) {
+                super.forEachWhile(status, task -> {
+                    boolean more = consumer.test(task);
+                    if (task.getId() == 1) {
+                        // Another client updates a task which the listing already holds
+                        this.update(1, changed -> changed.setStatus(TaskStatus.DONE));
+                    }
+                    return more;
+                });
+            }
+        };
+        for (int id = 1; id <= 5; id++) {
+            var at = base.plus(id, ChronoUnit.HOURS);
+            repo.importTask(new Task(id, "task " + id, TaskStatus.TODO, at, at), ConflictPolicy.SKIP);
+        }
+        var out = new ByteArrayOutputStream();
+        var service = new TaskService(repo, new PrintStream(out, true, StandardCharsets.UTF_8));
+        CommandDispatcher.dispatch(new String[] { "list", "--sort", "updated", "--limit", "3" }, service);
+        var lines = out.toString(StandardCharsets.UTF_8).lines().skip(2).map(line -> line.split(" ")[0]).toList();
+        assertEquals(List.of("5", "4", "3"), lines);
+        assertEquals(TaskStatus.DONE, repo.get(1).getStatus());
+    }
+
+    @Test
+    void testListInvalidArguments() {
+        for (var command : List.of(
+            new String[] { "list", "--limit" },
+            new String[] { "list", "--limit", "-1" },
+            new String[] { "list", "--sort", "status" },
+            new String[] { "list", "--page", "1" },
+            new String[] { "list", "todo", "done" },
+            new String[] { "list", "--since", "yesterday" }
+        )) {
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> {
+                    ListQuery.parse(command);
+                }
+            );
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.github.khgreav.forgetmenot.utils;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.time.Instant;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -59,5 +61,59 @@ public class CliArgUtilsTest {
             CliArgUtils.parseId("abc");
         });
     }
-    
+
+    @Test
+    void testParseCount() {
+        assertEquals(0, CliArgUtils.parseCount("0"));
+        assertEquals(500, CliArgUtils.parseCount("500"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            CliArgUtils.parseCount("-1");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            CliArgUtils.parseCount("many");
+        });
+    }
+
+    @Test
+    void testParseTime() {
+        var now = Instant.parse("2025-12-26T18:30:00Z");
+        assertEquals(Instant.parse("2025-12-26T18:00:00Z"), CliArgUtils.parseTime("2025-12-26T18:00:00Z", now));
+        assertEquals(Instant.parse("2025-12-26T00:00:00Z"), CliArgUtils.parseTime("2025-12-26", now));
+        assertEquals(Instant.parse("2025-12-26T18:00:00Z"), CliArgUtils.parseTime("30m", now));
+        assertEquals(Instant.parse("2025-12-25T18:30:00Z"), CliArgUtils.parseTime("24h", now));
+        assertEquals(Instant.parse("2025-12-19T18:30:00Z"), CliArgUtils.parseTime("7d", now));
+        for (var value : new String[] { "", "h", "-1d", "2025-13-01", "yesterday" }) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                CliArgUtils.parseTime(value, now);
+            });
+        }
+    }
+
+    static Stream<Arguments> tokenizeProvider() {
+        return Stream.of(
+            Arguments.of("list", new String[] { "list" }),
+            Arguments.of("  add   task  ", new String[] { "add", "task" }),
+            Arguments.of("add \"Buy milk\"", new String[] { "add", "Buy milk" }),
+            Arguments.of("update 1 'say \"hi\"'", new String[] { "update", "1", "say \"hi\"" }),
+            Arguments.of("add it\\'s\\ done", new String[] { "add", "it's done" }),
+            Arguments.of("add \"\"", new String[] { "add", "" }),
+            Arguments.of("   ", new String[0])
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("tokenizeProvider")
+    void testTokenize(String line, String[] expected) {
+        assertArrayEquals(expected, CliArgUtils.tokenize(line));
+    }
+
+    @Test
+    void testTokenizeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            CliArgUtils.tokenize("add \"Buy milk");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            CliArgUtils.tokenize("add milk\\");
+        });
+    }
 }
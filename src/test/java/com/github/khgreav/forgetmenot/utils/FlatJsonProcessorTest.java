@@ -3,6 +3,8 @@ package com.github.khgreav.forgetmenot.utils;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -146,6 +148,100 @@ public class FlatJsonProcessorTest {
         );
     }
     
+    @Test
+    void testDeserializeObjectRegion() {
+        var line = "P {\"id\":2,\"desc\":\"another\",\"status\":\"done\",\"createdAt\":\"2025-12-27T13:30:30Z\",\"updatedAt\":\"2025-12-27T13:32:51Z\"}";
+        assertEquals(TASK_MAP.get(2), FlatJsonProcessor.deserializeObject(line, 2, line.length()));
+    }
+
+    @Test
+    void testDeserializeObjectFallbackDateFormat() {
+        assertEquals(
+            Instant.parse("2025-12-27T12:50:30.125Z"),
+            FlatJsonProcessor.deserializeObject("{\"id\":1,\"desc\":\"test\",\"status\":\"todo\",\"createdAt\":\"2025-12-27T12:50:30.125Z\",\"updatedAt\":\"2025-12-27T13:08:51Z\"}")
+                .getCreatedAt()
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"id\":99999999999}",
+        "{\"status\":\"almost-done\"}",
+        "{\"updatedAt\":\"2025-02-30T13:08:51Z\"}"
+    })
+    void testDeserializeObjectInvalidValue(String line) {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                FlatJsonProcessor.deserializeObject(line);
+            }
+        );
+    }
+
+    private static Task deserializeBytes(String line) {
+        var bytes = ("  " + line + ",").getBytes(StandardCharsets.UTF_8);
+        return FlatJsonProcessor.deserializeObject(ByteBuffer.wrap(bytes), 2, bytes.length - 1);
+    }
+
+    @Test
+    void testDeserializeBytes() {
+        assertEquals(
+            TASK_MAP.get(1),
+            deserializeBytes("{\"id\":1,\"desc\":\"test\",\"status\":\"in-progress\",\"createdAt\":\"2025-12-27T12:50:30Z\",\"updatedAt\":\"2025-12-27T13:08:51Z\"}")
+        );
+    }
+
+    @Test
+    void testDeserializeBytesDirectBuffer() {
+        var bytes = "{\"id\":2,\"desc\":\"čaj\",\"status\":\"done\",\"createdAt\":\"2024-02-29T00:00:00Z\",\"updatedAt\":\"2025-12-31T23:59:59Z\"}"
+            .getBytes(StandardCharsets.UTF_8);
+        var buf = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        assertEquals(
+            new Task(
+                2,
+                "čaj",
+                TaskStatus.DONE,
+                Instant.parse("2024-02-29T00:00:00Z"),
+                Instant.parse("2025-12-31T23:59:59Z")
+            ),
+            FlatJsonProcessor.deserializeObject(buf, 0, bytes.length)
+        );
+    }
+
+    @Test
+    void testDeserializeBytesFallbackDateFormat() {
+        assertEquals(
+            Instant.parse("2025-12-27T12:50:30.125Z"),
+            deserializeBytes("{\"id\":1,\"desc\":\"test\",\"status\":\"todo\",\"createdAt\":\"2025-12-27T12:50:30.125Z\",\"updatedAt\":\"2025-12-27T13:08:51Z\"}")
+                .getCreatedAt()
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"created}",
+        "{\"id\":1,\"desc\"",
+        "{\"id\":1,\"desc\":\"asd",
+        "{\"id\":1,\"test\":\"test\"}",
+        "{\"id\":1,\"id\":2}",
+        "{\"id\":\"test\"}",
+        "{\"id\":0}",
+        "{\"id\":1a1}",
+        "{\"id\":99999999999}",
+        "{\"status\":\"almost-done\"}",
+        "{\"createdAt\":\"abcd\"}",
+        "{\"updatedAt\":\"2025-02-30T13:08:51Z\"}",
+        "{\"id\":1}"
+    })
+    void testDeserializeBytesInvalid(String line) {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                deserializeBytes(line);
+            }
+        );
+    }
+
     @Test
     void testSerializeEmpty() {
         assertEquals(
@@ -70,4 +70,25 @@ class FormatterTest {
     void testPadRightCustomCharZeroWidth() {
         assertEquals("", Formatter.padRight("abc", 0, '.'));
     }
+
+    @Test
+    void testPadRightFromPadding() {
+        var sb = new StringBuilder("| abc");
+        Formatter.padRightFrom(sb, 2, 6);
+        assertEquals("| abc   ", sb.toString());
+    }
+
+    @Test
+    void testPadRightFromClampsLongText() {
+        var sb = new StringBuilder("| abcdefXYZ");
+        Formatter.padRightFrom(sb, 2, 6, '.');
+        assertEquals("| abcdef", sb.toString());
+    }
+
+    @Test
+    void testPadRightFromEmptyText() {
+        var sb = new StringBuilder("| ");
+        Formatter.padRightFrom(sb, 2, 3, '*');
+        assertEquals("| ***", sb.toString());
+    }
 }
@@ -0,0 +1,83 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class InstantCodecTest {
+
+    private static Instant parseBytes(String s) {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        return InstantCodec.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    @Test
+    void testMatchesDateTimeFormatter() {
+        var fmt = new DateTimeFormatterBuilder().appendInstant(0).toFormatter();
+        var random = new Random(42);
+        long min = Instant.parse("0000-01-01T00:00:00Z").getEpochSecond();
+        long max = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+        for (int i = 0; i < 100000; i++) {
+            var instant = Instant.ofEpochSecond(min + (long) (random.nextDouble() * (max - min)), random.nextInt(1000000000));
+            var expected = fmt.format(instant);
+            assertEquals(expected, InstantCodec.format(instant));
+            var truncated = Instant.ofEpochSecond(instant.getEpochSecond());
+            assertEquals(truncated, InstantCodec.parse(expected));
+            assertEquals(truncated, parseBytes(expected));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "1970-01-01T00:00:00Z",
+        "2024-02-29T23:59:59Z",
+        "2000-03-01T00:00:00Z",
+        "0000-01-01T00:00:00Z"
+    })
+    void testRoundTrip(String s) {
+        assertEquals(Instant.parse(s), InstantCodec.parse(s));
+        assertEquals(s, InstantCodec.format(Instant.parse(s)));
+    }
+
+    @Test
+    void testFallback() {
+        assertEquals(Instant.parse("2025-12-27T12:50:30.125Z"), InstantCodec.parse("2025-12-27T12:50:30.125Z"));
+        assertEquals(Instant.parse("2025-12-27T12:50:30.125Z"), parseBytes("2025-12-27T12:50:30.125Z"));
+        assertEquals(Instant.parse("+10000-01-01T00:00:00Z"), InstantCodec.parse("+10000-01-01T00:00:00Z"));
+        assertEquals("+10000-01-01T00:00:00Z", InstantCodec.format(Instant.parse("+10000-01-01T00:00:00Z")));
+        assertEquals("-0001-12-31T00:00:00Z", InstantCodec.format(Instant.parse("-0001-12-31T00:00:00Z")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "abcd",
+        "2025-02-30T13:08:51Z",
+        "2025-13-01T13:08:51Z",
+        "2025-12-27T12:60:00Z",
+        "2025-1a-27T12:50:30Z"
+    })
+    void testParseInvalid(String s) {
+        assertThrows(
+            DateTimeParseException.class,
+            () -> {
+                InstantCodec.parse(s);
+            }
+        );
+        assertThrows(
+            DateTimeParseException.class,
+            () -> {
+                parseBytes(s);
+            }
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.khgreav.forgetmenot.enums.TaskStatus;
+import com.github.khgreav.forgetmenot.models.Task;
+
+public class TableRendererTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-12-26T18:00:05Z");
+
+    private static final Instant UPDATED_AT = Instant.parse("2025-12-26T19:42:12Z");
+
+    private static Task task(int id, String desc) {
+        return new Task(id, desc, TaskStatus.TODO, CREATED_AT, UPDATED_AT);
+    }
+
+    @Test
+    void testRenderMatchesPrintedRows() throws IOException {
+        var out = new ByteArrayOutputStream();
+        var expected = new StringBuilder(TaskSerializer.buildTableHeader()).append('\n');
+        try (var renderer = new TableRenderer(out)) {
+            renderer.renderHeader();
+            for (int i = 1; i <= 2000; i++) {
+                var task = task(i, i % 2 == 0 ? "úkol číslo " + i : "task 🌼 " + i);
+                renderer.render(task);
+                expected.append(TaskSerializer.cliSerialize(task)).append('\n');
+            }
+            assertTrue(out.size() > 0);
+        }
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWritesInChunks() throws IOException {
+        int[] writes = new int[1];
+        var out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                fail("Rows should be written in chunks.");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes[0]++;
+            }
+        };
+        int rows = 10_000;
+        try (var renderer = new TableRenderer(out)) {
+            for (int i = 1; i <= rows; i++) {
+                renderer.render(task(i * 7, "task " + i));
+            }
+        }
+        long bytes = (long) rows * (TaskSerializer.CLI_LEN + 1);
+        assertTrue(writes[0] <= bytes / TableRenderer.BUFFER_SIZE + 1);
+    }
+
+    @Test
+    void testCloseLeavesOutputOpen() throws IOException {
+        boolean[] closed = new boolean[1];
+        var out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        try (var renderer = new TableRenderer(out)) {
+            renderer.render(task(1, "task"));
+        }
+        assertFalse(closed[0]);
+        assertEquals(TaskSerializer.cliSerialize(task(1, "task")) + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
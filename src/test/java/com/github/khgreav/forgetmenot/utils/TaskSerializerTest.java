@@ -52,4 +52,25 @@ public class TaskSerializerTest {
             TaskSerializer.jsonSerialize(task)
         );
     }
+
+    @Test
+    void testCliSerializeAppends() {
+        var longTask = new Task(123456, "x".repeat(70), TaskStatus.IN_PROGRESS, CREATED_AT, UPDATED_AT);
+        var sb = new StringBuilder("> ");
+        TaskSerializer.cliSerialize(longTask, sb);
+        assertEquals(
+            "> 1234 | " + "x".repeat(60) + " | in-progress | 2025-12-26T18:00:05Z | 2025-12-26T19:42:12Z",
+            sb.toString()
+        );
+    }
+
+    @Test
+    void testJsonSerializeAppends() {
+        var sb = new StringBuilder("P ");
+        TaskSerializer.jsonSerialize(task, sb).append('\n');
+        assertEquals(
+            "P {\"id\":1,\"desc\":\"description\",\"status\":\"todo\",\"createdAt\":\"2025-12-26T18:00:05Z\",\"updatedAt\":\"2025-12-26T19:42:12Z\"}\n",
+            sb.toString()
+        );
+    }
 }
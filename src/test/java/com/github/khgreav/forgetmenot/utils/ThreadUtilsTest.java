@@ -0,0 +1,45 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ThreadUtilsTest {
+
+    @Test
+    void testNewVirtualThreadExecutor() throws InterruptedException {
+        var executor = ThreadUtils.newVirtualThreadExecutor("test", 4);
+        var started = new CountDownLatch(4);
+        var release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(Runtime.version().feature() >= 21, ThreadUtils.hasVirtualThreads());
+    }
+
+    @Test
+    void testNewVirtualThreadExecutorInvalid() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                ThreadUtils.newVirtualThreadExecutor("test", 0);
+            }
+        );
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.khgreav.forgetmenot.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TopNTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 10, 1000, 5000 })
+    void testMatchesSortedPrefix(int capacity) {
+        var random = new SplittableRandom(42);
+        var values = new ArrayList<Integer>();
+        var top = new TopN<Integer>(capacity, Comparator.reverseOrder());
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(500);
+            values.add(value);
+            top.offer(value);
+        }
+        values.sort(Comparator.reverseOrder());
+        var expected = values.subList(0, Math.min(capacity, values.size()));
+        assertEquals(expected.size(), top.size());
+        assertEquals(expected, top.toSortedList());
+    }
+
+    @Test
+    void testKeepsEarlierOfEqualElements() {
+        var top = new TopN<String>(2, Comparator.comparingInt(String::length));
+        for (var value : List.of("ccc", "aa", "b", "dd", "e")) {
+            top.offer(value);
+        }
+        assertEquals(List.of("b", "e"), top.toSortedList());
+    }
+
+    @Test
+    void testNegativeCapacity() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> {
+                new TopN<Integer>(-1, Comparator.naturalOrder());
+            }
+        );
+    }
+}